@@ -4,6 +4,7 @@ import com.bulletjournal.contents.ContentType;
 import com.bulletjournal.controller.models.ProjectSetting;
 import com.bulletjournal.exceptions.UnAuthorizedException;
 import com.bulletjournal.repository.ProjectSettingDaoJpa;
+import com.bulletjournal.repository.UserGroupRepository;
 import com.bulletjournal.repository.models.CompletedTask;
 import com.bulletjournal.repository.models.Group;
 import com.bulletjournal.repository.models.Project;
@@ -33,6 +34,10 @@ public class AuthorizationService {
     @Lazy
     private ProjectSettingDaoJpa projectSettingDaoJpa;
 
+    @Autowired
+    @Lazy
+    private UserGroupRepository userGroupRepository;
+
     public <T extends ProjectItemModel> void validateRequesterInProjectGroup(String requester, T projectItem) {
         if (projectItem.isShared()) {
             return;
@@ -45,7 +50,16 @@ public class AuthorizationService {
             return;
         }
 
-        validateRequesterInGroup(requester, project.getGroup(), true);
+        if (!isInProjectGroup(requester, project)) {
+            throw new UnAuthorizedException("User " + requester + " not in Group " + project.getGroup().getName());
+        }
+    }
+
+    /**
+     * Membership lookup by group id, the group and its users are not loaded
+     */
+    private boolean isInProjectGroup(String requester, Project project) {
+        return this.userGroupRepository.isAcceptedUser(project.getGroup().getId(), requester);
     }
 
     public void validateRequesterInGroup(String requester, Group group, boolean acceptedUserOnly) {
@@ -121,7 +135,7 @@ public class AuthorizationService {
 
         ProjectSetting projectSetting = this.projectSettingDaoJpa.getProjectSetting(projectItem.getProject().getId());
         // projectSetting.isAllowEditContents() is true and user needs to be in project's group
-        return projectSetting.isAllowEditContents() && !notInGroup(requester, projectItem.getProject().getGroup(), true);
+        return projectSetting.isAllowEditContents() && isInProjectGroup(requester, projectItem.getProject());
     }
 
     /**
@@ -169,7 +183,7 @@ public class AuthorizationService {
         Project project = projectItem.getProject();
         ProjectSetting projectSetting = this.projectSettingDaoJpa.getProjectSetting(project.getId());
         // projectSetting.isAllowEditProjItems() is true and user needs to be in project's group
-        return projectSetting.isAllowEditProjItems() && !notInGroup(requester, project.getGroup(), true);
+        return projectSetting.isAllowEditProjItems() && isInProjectGroup(requester, project);
     }
 
     private void checkAuthorizedToOperateOnBankAccount(
@@ -0,0 +1,20 @@
+package com.bulletjournal.calendars.google;
+
+import com.google.api.services.calendar.model.Events;
+
+import java.io.IOException;
+
+/**
+ * Reads calendars of the user in MDC, the calendar api seen by {@link CalendarSyncEngine}
+ */
+public interface CalendarEventsClient {
+
+    String getTimeZone(String calendarId) throws IOException;
+
+    /**
+     * @param syncToken token of the previous sync, null to list events of the past year
+     * @param pageToken next page token of the previous page, null for the first page
+     * @throws SyncTokenExpiredException if the sync token is no longer valid
+     */
+    Events listEvents(String calendarId, String syncToken, String pageToken) throws IOException;
+}
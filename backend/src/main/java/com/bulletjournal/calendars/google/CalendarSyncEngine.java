@@ -0,0 +1,119 @@
+package com.bulletjournal.calendars.google;
+
+import com.bulletjournal.clients.UserClient;
+import com.bulletjournal.repository.GoogleCalendarProjectDaoJpa;
+import com.bulletjournal.repository.TaskDaoJpa;
+import com.bulletjournal.repository.models.GoogleCalendarProject;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.Events;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Pulls the events changed since the stored sync token of a watched calendar and applies them to its
+ * project in one batch, so a sync costs time proportional to the changes instead of the calendar size.
+ */
+@Service
+public class CalendarSyncEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalendarSyncEngine.class);
+
+    private static final String CANCELLED = "cancelled";
+
+    @Autowired
+    private CalendarEventsClient calendarEventsClient;
+
+    @Autowired
+    private TaskDaoJpa taskDaoJpa;
+
+    @Autowired
+    private GoogleCalendarProjectDaoJpa googleCalendarProjectDaoJpa;
+
+    /**
+     * @return number of changed events
+     */
+    public int sync(GoogleCalendarProject googleCalendarProject) throws IOException {
+        String calendarId = googleCalendarProject.getId();
+        String owner = googleCalendarProject.getOwner();
+        // credentials and converted tasks are those of the calendar owner
+        String username = MDC.get(UserClient.USER_NAME_KEY);
+        MDC.put(UserClient.USER_NAME_KEY, owner);
+        try {
+            String timezone = this.calendarEventsClient.getTimeZone(calendarId);
+            // an event changed more than once keeps its latest version
+            Map<String, Event> changedEvents = new LinkedHashMap<>();
+            Consumer<Event> collector = event -> {
+                changedEvents.remove(event.getId());
+                changedEvents.put(event.getId(), event);
+            };
+            String syncToken;
+            try {
+                syncToken = listChanges(calendarId, googleCalendarProject.getToken(), collector);
+            } catch (SyncTokenExpiredException ex) {
+                LOGGER.info("Sync token of calendar {} expired, syncing all events", calendarId);
+                changedEvents.clear();
+                syncToken = listChanges(calendarId, null, collector);
+            }
+
+            List<String> deletedEventIds = new ArrayList<>();
+            List<GoogleCalendarEvent> events = new ArrayList<>();
+            for (Event event : changedEvents.values()) {
+                if (CANCELLED.equals(event.getStatus())) {
+                    deletedEventIds.add(event.getId());
+                } else {
+                    events.add(Converter.toTask(event, timezone));
+                }
+            }
+            LOGGER.info("Calendar {} has {} changed and {} cancelled events",
+                    calendarId, events.size(), deletedEventIds.size());
+            this.taskDaoJpa.syncGoogleCalendarEvents(
+                    googleCalendarProject.getProject().getId(), owner, deletedEventIds, events);
+            // an event applied twice is deduped, so the token only moves once the changes are in
+            this.googleCalendarProjectDaoJpa.setTokenByCalendarId(calendarId, syncToken);
+            return changedEvents.size();
+        } finally {
+            if (username == null) {
+                MDC.remove(UserClient.USER_NAME_KEY);
+            } else {
+                MDC.put(UserClient.USER_NAME_KEY, username);
+            }
+        }
+    }
+
+    /**
+     * @return sync token covering every current event of the calendar, for a calendar about to be watched
+     */
+    public String getSyncToken(String calendarId) throws IOException {
+        return listChanges(calendarId, null, event -> {
+        });
+    }
+
+    /**
+     * Reads every page of changes
+     *
+     * @return sync token for the next sync
+     */
+    private String listChanges(String calendarId, String syncToken, Consumer<Event> consumer) throws IOException {
+        String pageToken = null;
+        while (true) {
+            Events page = this.calendarEventsClient.listEvents(calendarId, syncToken, pageToken);
+            if (page.getItems() != null) {
+                page.getItems().forEach(consumer);
+            }
+            pageToken = page.getNextPageToken();
+            if (pageToken == null) {
+                return page.getNextSyncToken();
+            }
+        }
+    }
+}
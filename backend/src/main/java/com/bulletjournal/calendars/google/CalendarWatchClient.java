@@ -0,0 +1,25 @@
+package com.bulletjournal.calendars.google;
+
+import com.google.api.services.calendar.model.Channel;
+
+import java.io.IOException;
+
+/**
+ * Creates push notification channels of watched calendars, used by {@link CalendarWatchRenewer}
+ */
+public interface CalendarWatchClient {
+
+    /**
+     * @return watcher reusing the credentials of owner for all its calls
+     */
+    CalendarWatcher getWatcher(String owner) throws IOException;
+
+    @FunctionalInterface
+    interface CalendarWatcher {
+
+        /**
+         * @return the created channel with its expiration
+         */
+        Channel watch(String calendarId, Channel channel) throws IOException;
+    }
+}
@@ -0,0 +1,186 @@
+package com.bulletjournal.calendars.google;
+
+import com.bulletjournal.config.GoogleCalConfig;
+import com.bulletjournal.exceptions.ResourceNotFoundException;
+import com.bulletjournal.repository.GoogleCalendarProjectDaoJpa;
+import com.bulletjournal.util.CustomThreadFactory;
+import com.bulletjournal.util.ExponentialBackoff;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.calendar.model.Channel;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renews push channels of watched calendars before they expire.
+ * <p>
+ * Calendars are grouped by owner so each owner's credentials are loaded once, and owners are renewed
+ * in parallel up to watchRenewConcurrency. Each renewal commits on its own after the remote call, so
+ * a slow or failing calendar holds no database connection and doesn't undo the others.
+ * </p>
+ */
+@Service
+public class CalendarWatchRenewer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalendarWatchRenewer.class);
+
+    private static final long RENEW_AHEAD_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final long RETRY_INITIAL_BACKOFF_MILLIS = 200;
+
+    private static final long RETRY_MAX_BACKOFF_MILLIS = 5000;
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    @Autowired
+    private GoogleCalConfig googleCalConfig;
+
+    @Autowired
+    private CalendarWatchClient calendarWatchClient;
+
+    @Autowired
+    private GoogleCalendarProjectDaoJpa googleCalendarProjectDaoJpa;
+
+    private ExecutorService renewExecutor;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void postConstruct() {
+        this.renewExecutor = Executors.newFixedThreadPool(
+                this.googleCalConfig.getWatchRenewConcurrency(), new CustomThreadFactory("calendar-watch-renew"));
+        int intervalInSeconds = this.googleCalConfig.getWatchRenewIntervalSeconds();
+        if (intervalInSeconds > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                    new CustomThreadFactory("calendar-watch-renew-scheduler"));
+            this.scheduler.scheduleWithFixedDelay(
+                    this::renewExpiringWatches, intervalInSeconds, intervalInSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+        this.renewExecutor.shutdownNow();
+    }
+
+    /**
+     * @return number of watches renewed
+     */
+    public int renewExpiringWatches() {
+        List<Pair<String, String>> expiringWatches;
+        try {
+            expiringWatches = this.googleCalendarProjectDaoJpa.getExpiringWatches(
+                    new Timestamp(System.currentTimeMillis() + RENEW_AHEAD_MILLIS));
+        } catch (Exception ex) {
+            LOGGER.error("Unable to load expiring Google Calendar watches", ex);
+            return 0;
+        }
+        if (expiringWatches.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<String>> calendarsByOwner = new LinkedHashMap<>();
+        expiringWatches.forEach(watch ->
+                calendarsByOwner.computeIfAbsent(watch.getRight(), k -> new ArrayList<>()).add(watch.getLeft()));
+        AtomicInteger renewed = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        calendarsByOwner.forEach((owner, calendarIds) ->
+                futures.add(this.renewExecutor.submit(() -> renewOwner(owner, calendarIds, renewed))));
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                break;
+            } catch (ExecutionException ex) {
+                LOGGER.error("Google Calendar watch renewal error", ex.getCause());
+            }
+        }
+        LOGGER.info("Renewed {} of {} expiring Google Calendar watches of {} owners",
+                renewed.get(), expiringWatches.size(), calendarsByOwner.size());
+        return renewed.get();
+    }
+
+    /**
+     * Renews the watch of one calendar in the background, for a renewal requested by the daemon
+     */
+    public Future<?> submitRenewal(String calendarId) {
+        return this.renewExecutor.submit(() -> {
+            try {
+                String owner = this.googleCalendarProjectDaoJpa.get(calendarId).getOwner();
+                renewWithRetry(this.calendarWatchClient.getWatcher(owner), calendarId);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (Exception ex) {
+                LOGGER.error("Unable to renew Google Calendar watch of " + calendarId, ex);
+            }
+        });
+    }
+
+    private void renewOwner(String owner, List<String> calendarIds, AtomicInteger renewed) {
+        CalendarWatchClient.CalendarWatcher watcher;
+        try {
+            watcher = this.calendarWatchClient.getWatcher(owner);
+        } catch (Exception ex) {
+            LOGGER.error("Unable to renew Google Calendar watches of " + owner, ex);
+            return;
+        }
+        for (String calendarId : calendarIds) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            try {
+                renewWithRetry(watcher, calendarId);
+                renewed.incrementAndGet();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                LOGGER.error("Unable to renew Google Calendar watch of " + calendarId, ex);
+            }
+        }
+    }
+
+    private void renewWithRetry(CalendarWatchClient.CalendarWatcher watcher, String calendarId) throws Exception {
+        ExponentialBackoff backoff = new ExponentialBackoff(RETRY_INITIAL_BACKOFF_MILLIS, RETRY_MAX_BACKOFF_MILLIS);
+        int maxAttempts = Math.max(1, this.googleCalConfig.getWatchRenewMaxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Channel channel = watcher.watch(calendarId, Util.getChannel());
+                LOGGER.info("Created channel {} for calendar {}", channel.getId(), calendarId);
+                this.googleCalendarProjectDaoJpa.updateChannel(calendarId, channel);
+                return;
+            } catch (Exception ex) {
+                if (attempt >= maxAttempts || !isRetryable(ex)) {
+                    throw ex;
+                }
+                long delay = backoff.nextDelayMillis();
+                LOGGER.info("Renewing watch of calendar {} failed, attempt {} of {}, retry in {}ms: {}",
+                        calendarId, attempt, maxAttempts, delay, ex.toString());
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    private static boolean isRetryable(Exception ex) {
+        if (ex instanceof HttpResponseException) {
+            int statusCode = ((HttpResponseException) ex).getStatusCode();
+            return statusCode == TOO_MANY_REQUESTS || statusCode >= 500;
+        }
+        // the calendar was unwatched in the meantime
+        return !(ex instanceof ResourceNotFoundException);
+    }
+}
@@ -21,6 +21,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -239,6 +240,21 @@ public class Converter {
         }
     }
 
+    /**
+     * @return text of the task content holding the event details
+     */
+    public static String toContentText(GoogleCalendarEvent event) {
+        String text = event.getContent().getBaseText();
+        if (StringUtils.isNotBlank(event.getContent().getText())) {
+            List<String> l = Arrays.stream(event.getContent().getText().split(System.lineSeparator()))
+                    .map(s -> s.isEmpty() ? "<br/>" : "<p>" + s + "</p>").collect(Collectors.toList());
+            String html = StringUtils.join(l, "");
+            text = "{\"delta\":{\"ops\":" + text + "},\"$$$html$$$\":\"" +
+                    html.replace("\n", "").replace("\r", "") + "\"}";
+        }
+        return text;
+    }
+
     public static CreateTaskParams toCreateTaskParams(GoogleCalendarEvent event) {
         Task task = event.getTask();
         return new CreateTaskParams(task.getName(), task.getDueDate(),
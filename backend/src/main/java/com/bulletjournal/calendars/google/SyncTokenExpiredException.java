@@ -0,0 +1,13 @@
+package com.bulletjournal.calendars.google;
+
+import java.io.IOException;
+
+/**
+ * Google dropped the sync token of a calendar and a full sync is needed
+ */
+public class SyncTokenExpiredException extends IOException {
+
+    public SyncTokenExpiredException(String calendarId, Throwable cause) {
+        super("Sync token of calendar " + calendarId + " expired", cause);
+    }
+}
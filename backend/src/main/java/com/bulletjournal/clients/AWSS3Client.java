@@ -6,31 +6,52 @@ import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
-import com.amazonaws.services.s3.model.CannedAccessControlList;
-import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.*;
 import com.bulletjournal.config.AWSConfig;
 import com.bulletjournal.controller.utils.FileUtil;
+import com.bulletjournal.util.CustomThreadFactory;
+import com.google.common.io.ByteStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.annotation.PostConstruct;
-import java.io.File;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
 
+/**
+ * Streams uploads to S3. Files bigger than one part go through a multipart upload whose parts are
+ * sent in parallel, with at most uploadConcurrency part buffers held per upload.
+ */
 @Component
-public class AWSS3Client {
+@ConditionalOnProperty(value = FileStorageClient.STORAGE_TYPE_PROPERTY, havingValue = "s3", matchIfMissing = true)
+public class AWSS3Client implements FileStorageClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AWSS3Client.class);
 
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
     @Autowired
     private AWSConfig awsConfig;
 
     private AmazonS3 amazonS3Client;
 
+    private ExecutorService partUploadExecutor;
+
     @PostConstruct
     public void initializeAwsConnection() {
+        // threads are only started once parts are submitted
+        this.partUploadExecutor = Executors.newFixedThreadPool(
+                awsConfig.getUploadConcurrency(), new CustomThreadFactory("s3-part-upload"));
+
         if (awsConfig.getAWSAccessKey() == null || awsConfig.getAwsSecretKey() == null) {
             return;
         }
@@ -47,31 +68,88 @@ public class AWSS3Client {
                 .build();
     }
 
+    @PreDestroy
+    public void preDestroy() {
+        this.partUploadExecutor.shutdown();
+    }
+
+    @Override
     public String uploadFile(MultipartFile multipartFile) {
         if (this.amazonS3Client == null) {
             return "amazonS3Client not set up";
         }
 
-        File file = null;
-        try {
-            String fileName = FileUtil.generateFileName(multipartFile.getOriginalFilename());
-            LOGGER.info("Uploading file " + fileName);
-            file = FileUtil.convertMultiPartToFile(multipartFile, fileName);
-            String fileUrl = awsConfig.getEndpointUrl() + "/" + awsConfig.getBucketName() + "/" + fileName;
-            LOGGER.info("AWS file url: " + fileUrl);
-            uploadFileToS3Bucket(fileName, file);
-            return fileUrl;
+        FileUtil.checkFileSize(multipartFile);
+        String fileName = FileUtil.generateFileName(multipartFile.getOriginalFilename());
+        LOGGER.info("Uploading file " + fileName);
+        String fileUrl = awsConfig.getEndpointUrl() + "/" + awsConfig.getBucketName() + "/" + fileName;
+        LOGGER.info("AWS file url: " + fileUrl);
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(multipartFile.getContentType());
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            uploadFileToS3Bucket(fileName, inputStream, multipartFile.getSize(), metadata);
         } catch (Exception e) {
             throw new IllegalStateException(e);
-        } finally {
-            if (file != null) {
-                file.delete();
-            }
         }
+        return fileUrl;
     }
 
-    private void uploadFileToS3Bucket(String fileName, File file) {
-        this.amazonS3Client.putObject(new PutObjectRequest(awsConfig.getBucketName(), fileName, file)
-                .withCannedAcl(CannedAccessControlList.PublicRead));
+    private void uploadFileToS3Bucket(String fileName, InputStream inputStream, long size, ObjectMetadata metadata)
+            throws IOException, InterruptedException, ExecutionException {
+        int partSize = Math.max(awsConfig.getUploadPartSizeBytes(), MIN_PART_SIZE);
+        if (size <= partSize) {
+            metadata.setContentLength(size);
+            this.amazonS3Client.putObject(new PutObjectRequest(awsConfig.getBucketName(), fileName, inputStream, metadata)
+                    .withCannedAcl(CannedAccessControlList.PublicRead));
+            return;
+        }
+
+        String uploadId = this.amazonS3Client.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(awsConfig.getBucketName(), fileName, metadata)
+                        .withCannedACL(CannedAccessControlList.PublicRead)).getUploadId();
+        // a permit per part buffer, reading waits while every buffer is still being sent
+        Semaphore buffers = new Semaphore(awsConfig.getUploadConcurrency());
+        List<Future<PartETag>> parts = new ArrayList<>();
+        try {
+            for (int partNumber = 1; ; partNumber++) {
+                buffers.acquire();
+                byte[] buffer = new byte[partSize];
+                int length = ByteStreams.read(inputStream, buffer, 0, partSize);
+                if (length == 0) {
+                    buffers.release();
+                    break;
+                }
+                UploadPartRequest request = new UploadPartRequest()
+                        .withBucketName(awsConfig.getBucketName())
+                        .withKey(fileName)
+                        .withUploadId(uploadId)
+                        .withPartNumber(partNumber)
+                        .withInputStream(new ByteArrayInputStream(buffer, 0, length))
+                        .withPartSize(length);
+                parts.add(this.partUploadExecutor.submit(() -> {
+                    try {
+                        return this.amazonS3Client.uploadPart(request).getPartETag();
+                    } finally {
+                        buffers.release();
+                    }
+                }));
+                if (length < partSize) {
+                    break;
+                }
+            }
+
+            List<PartETag> partETags = new ArrayList<>();
+            for (Future<PartETag> part : parts) {
+                partETags.add(part.get());
+            }
+            this.amazonS3Client.completeMultipartUpload(
+                    new CompleteMultipartUploadRequest(awsConfig.getBucketName(), fileName, uploadId, partETags));
+        } catch (IOException | InterruptedException | ExecutionException | RuntimeException e) {
+            LOGGER.error("Aborting upload of " + fileName, e);
+            parts.forEach(part -> part.cancel(true));
+            this.amazonS3Client.abortMultipartUpload(
+                    new AbortMultipartUploadRequest(awsConfig.getBucketName(), fileName, uploadId));
+            throw e;
+        }
     }
-}
\ No newline at end of file
+}
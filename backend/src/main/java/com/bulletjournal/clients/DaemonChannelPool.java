@@ -0,0 +1,50 @@
+package com.bulletjournal.clients;
+
+import io.grpc.Channel;
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelFactory;
+import net.devh.boot.grpc.client.config.GrpcChannelProperties;
+import net.devh.boot.grpc.client.config.GrpcChannelsProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Round-robin pool of channels to the daemon server, so that unary calls are not queued behind
+ * the long-lived notification stream on a single HTTP/2 connection.
+ */
+public class DaemonChannelPool {
+
+    private final List<? extends Channel> channels;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public DaemonChannelPool(List<? extends Channel> channels) {
+        if (channels.isEmpty()) {
+            throw new IllegalArgumentException("Daemon channel pool needs at least one channel");
+        }
+        this.channels = channels;
+    }
+
+    /**
+     * Creates the pooled channels through the grpc client starter, so the grpc.client.[name].* properties
+     * and global client interceptors apply to every one of them. The starter caches one channel per name,
+     * each pooled channel gets its own name with a copy of the named channel's properties. The starter
+     * also shuts the channels down with the application context.
+     */
+    public static DaemonChannelPool create(GrpcChannelFactory channelFactory,
+                                           GrpcChannelsProperties channelsProperties, String name, int size) {
+        GrpcChannelProperties properties = channelsProperties.getChannel(name);
+        List<Channel> channels = new ArrayList<>();
+        for (int i = 0; i < Math.max(size, 1); i++) {
+            String pooledName = name + "-" + i;
+            channelsProperties.getClient().computeIfAbsent(pooledName, key -> new GrpcChannelProperties())
+                    .copyDefaultsFrom(properties);
+            channels.add(channelFactory.createChannel(pooledName));
+        }
+        return new DaemonChannelPool(channels);
+    }
+
+    public Channel next() {
+        return this.channels.get(Math.floorMod(this.next.getAndIncrement(), this.channels.size()));
+    }
+}
@@ -1,5 +1,6 @@
 package com.bulletjournal.clients;
 
+import com.bulletjournal.calendars.google.CalendarWatchRenewer;
 import com.bulletjournal.config.DaemonClientConfig;
 import com.bulletjournal.notifications.NotificationService;
 import com.bulletjournal.notifications.SampleTaskChange;
@@ -8,10 +9,13 @@ import com.bulletjournal.protobuf.daemon.grpc.types.ConvertJsonObjectsToHtmlRequ
 import com.bulletjournal.protobuf.daemon.grpc.types.NotificationStreamMsg;
 import com.bulletjournal.protobuf.daemon.grpc.types.SubscribeNotificationMsg;
 import com.bulletjournal.protobuf.daemon.grpc.types.SubscribeSampleTaskMsg;
-import com.bulletjournal.repository.GoogleCalendarProjectDaoJpa;
+import com.bulletjournal.util.CircuitBreaker;
+import com.bulletjournal.util.CustomThreadFactory;
+import com.bulletjournal.util.ExponentialBackoff;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
-import net.devh.boot.grpc.client.inject.GrpcClient;
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelFactory;
+import net.devh.boot.grpc.client.config.GrpcChannelsProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +23,10 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class DaemonServiceClient {
@@ -31,26 +39,36 @@ public class DaemonServiceClient {
 
     private static final String CLIENT_ID_KEY = "RPC_CLIENT_ID";
 
-    private static final long RETRY_WAIT = 10000L;
+    private static final String GRPC_CLIENT_NAME = "daemonClient";
 
     private String clientId;
 
     @Autowired
     private DaemonClientConfig daemonClientConfig;
 
-    @GrpcClient("daemonClient")
-    private DaemonGrpc.DaemonBlockingStub daemonBlockingStub;
+    @Autowired
+    private GrpcChannelsProperties grpcChannelsProperties;
 
-    @GrpcClient("daemonClient")
-    private DaemonGrpc.DaemonStub daemonAsyncStub;
+    @Autowired
+    private GrpcChannelFactory grpcChannelFactory;
 
     @Autowired
-    private GoogleCalendarProjectDaoJpa googleCalendarProjectDaoJpa;
+    private CalendarWatchRenewer calendarWatchRenewer;
 
     @Lazy
     @Autowired
     private NotificationService notificationService;
 
+    private DaemonChannelPool channelPool;
+
+    private CircuitBreaker circuitBreaker;
+
+    private ExponentialBackoff reconnectBackoff;
+
+    private ScheduledExecutorService reconnectExecutor;
+
+    private volatile boolean stopped;
+
     @PostConstruct
     public void postConstruct() {
         this.clientId = System.getenv(CLIENT_ID_KEY);
@@ -58,45 +76,103 @@ public class DaemonServiceClient {
             this.clientId = DEFAULT_CLIENT_ID;
         }
         if (this.daemonClientConfig.isEnabled()) {
-            LOGGER.info("Enabling daemon streaming, Client ID: {}", clientId);
-            subscribeNotification();
+            start(DaemonChannelPool.create(this.grpcChannelFactory, this.grpcChannelsProperties, GRPC_CLIENT_NAME,
+                    this.daemonClientConfig.getChannelPoolSize()));
         } else {
             LOGGER.info("Daemon streaming is Disabled");
         }
     }
 
+    void start(DaemonChannelPool channelPool) {
+        this.channelPool = channelPool;
+        this.circuitBreaker = new CircuitBreaker(
+                this.daemonClientConfig.getFailureThreshold(), this.daemonClientConfig.getCircuitOpenMillis());
+        this.reconnectBackoff = new ExponentialBackoff(
+                this.daemonClientConfig.getReconnectInitialBackoffMillis(),
+                this.daemonClientConfig.getReconnectMaxBackoffMillis());
+        this.reconnectExecutor = Executors.newSingleThreadScheduledExecutor(new CustomThreadFactory("DaemonReconnect"));
+        LOGGER.info("Enabling daemon streaming, Client ID: {}", clientId);
+        subscribeNotification();
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        this.stopped = true;
+        if (this.reconnectExecutor != null) {
+            this.reconnectExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Convert delta to html through daemon server. Never blocks longer than the configured deadline and
+     * returns null right away while the daemon is considered down.
+     */
     public String convertDeltaToHtml(String deltaString) {
         if (!this.daemonClientConfig.isEnabled()) {
             LOGGER.info("daemonClientConfig not Enabled, convertDeltaToHtml returns null");
             return null;
         }
+        if (!this.circuitBreaker.allowRequest()) {
+            LOGGER.warn("Daemon circuit is open, convertDeltaToHtml returns null");
+            return null;
+        }
+        long deadline = this.daemonClientConfig.getDeadlineMillis();
         try {
-            return this.daemonBlockingStub.convertDeltaToHtml(
-                    ConvertJsonObjectsToHtmlRequest.newBuilder()
+            String html = DaemonGrpc.newFutureStub(this.channelPool.next())
+                    .withDeadlineAfter(deadline, TimeUnit.MILLISECONDS)
+                    .convertDeltaToHtml(ConvertJsonObjectsToHtmlRequest.newBuilder()
                             .setDeltaString(deltaString).build())
+                    .get(deadline, TimeUnit.MILLISECONDS)
                     .getHtmlOutput();
+            this.circuitBreaker.recordSuccess();
+            return html;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            this.circuitBreaker.recordFailure();
+            return null;
         } catch (Exception ex) {
+            this.circuitBreaker.recordFailure();
             LOGGER.error("Error converting " + deltaString, ex);
             return null;
         }
     }
 
+    CircuitBreaker.State getCircuitState() {
+        return this.circuitBreaker.getState();
+    }
+
     private void subscribeNotification() {
+        if (this.stopped) {
+            return;
+        }
         LOGGER.info("Sending subscribeNotification to daemon server");
-        this.daemonAsyncStub.subscribeNotification(
+        DaemonGrpc.newStub(this.channelPool.next()).subscribeNotification(
                 SubscribeNotificationMsg.newBuilder().setServiceName(SERVICE_NAME).setClientId(this.clientId).build(),
                 newResponseObserver());
     }
 
+    /**
+     * Resubscribe from the reconnect executor so that gRPC callback threads are never held
+     */
+    private void scheduleResubscribe() {
+        if (this.stopped) {
+            return;
+        }
+        long delay = this.reconnectBackoff.nextDelayMillis();
+        LOGGER.info("Will retry subscribing to daemon server in {}ms", delay);
+        this.reconnectExecutor.schedule(this::subscribeNotification, delay, TimeUnit.MILLISECONDS);
+    }
+
     private StreamObserver<NotificationStreamMsg> newResponseObserver() {
         return new StreamObserver<NotificationStreamMsg>() {
             @Override
             public void onNext(NotificationStreamMsg streamMsg) {
                 LOGGER.info("Received daemon streaming message: {}", streamMsg);
+                DaemonServiceClient.this.reconnectBackoff.reset();
                 try {
                     switch (streamMsg.getBodyCase()) {
                         case RENEWGOOGLECALENDARWATCHMSG:
-                            DaemonServiceClient.this.googleCalendarProjectDaoJpa.renewGoogleCalendarWatch(streamMsg.getRenewGoogleCalendarWatchMsg().getGoogleCalendarProjectId());
+                            DaemonServiceClient.this.calendarWatchRenewer.submitRenewal(streamMsg.getRenewGoogleCalendarWatchMsg().getGoogleCalendarProjectId());
                             break;
                         case SAMPLETASKMSG:
                             SubscribeSampleTaskMsg msg = streamMsg.getSampleTaskMsg();
@@ -116,28 +192,16 @@ public class DaemonServiceClient {
             @Override
             public void onError(Throwable t) {
                 Status status = Status.fromThrowable(t);
-                LOGGER.error("subscribeNotification server side error: {}, retry scheduled in {}s", status, RETRY_WAIT / 1000);
-                try {
-                    Thread.sleep(RETRY_WAIT);
-                    subscribeNotification();
-                } catch (InterruptedException interruptedException) {
-                    LOGGER.error("Internal error happened before attempting to retry subscribing to daemon server", interruptedException);
-                    LOGGER.error("Stop subscribing to daemon server due to the previous server side error");
-                }
+                LOGGER.error("subscribeNotification server side error: {}", status);
+                scheduleResubscribe();
             }
 
             @Override
             public void onCompleted() {
-                LOGGER.info("Stopped receiving subscribeNotification, will retry subscribing to daemon server again in {}s",
-                        RETRY_WAIT / 1000);
-                try {
-                    Thread.sleep(RETRY_WAIT);
-                    subscribeNotification();
-                } catch (InterruptedException interruptedException) {
-                    LOGGER.error("Internal error happened before attempting to retry subscribing to daemon server", interruptedException);
-                }
+                LOGGER.info("Stopped receiving subscribeNotification");
+                scheduleResubscribe();
             }
         };
     }
 
-}
\ No newline at end of file
+}
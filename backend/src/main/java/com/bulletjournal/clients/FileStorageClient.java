@@ -0,0 +1,16 @@
+package com.bulletjournal.clients;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Where uploaded files end up, picked by file.storage.type
+ */
+public interface FileStorageClient {
+
+    String STORAGE_TYPE_PROPERTY = "file.storage.type";
+
+    /**
+     * @return url of the stored file
+     */
+    String uploadFile(MultipartFile multipartFile);
+}
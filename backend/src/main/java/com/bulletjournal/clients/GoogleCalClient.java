@@ -1,5 +1,8 @@
 package com.bulletjournal.clients;
 
+import com.bulletjournal.calendars.google.CalendarEventsClient;
+import com.bulletjournal.calendars.google.CalendarWatchClient;
+import com.bulletjournal.calendars.google.SyncTokenExpiredException;
 import com.bulletjournal.config.GoogleCalConfig;
 import com.bulletjournal.exceptions.BadRequestException;
 import com.bulletjournal.repository.GoogleCredentialRepository;
@@ -9,12 +12,15 @@ import com.google.api.client.auth.oauth2.StoredCredential;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.client.util.DateTime;
 import com.google.api.client.util.store.DataStoreFactory;
 import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.CalendarScopes;
+import com.google.api.services.calendar.model.Events;
 import com.google.common.collect.ImmutableList;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,12 +29,14 @@ import org.springframework.stereotype.Component;
 import javax.annotation.PostConstruct;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.time.ZonedDateTime;
 
 @Component
-public class GoogleCalClient {
+public class GoogleCalClient implements CalendarEventsClient, CalendarWatchClient {
 
     private static final JsonFactory JSON_FACTORY = JacksonFactory.getDefaultInstance();
     private static final String APPLICATION_NAME = "Bullet Journal";
+    private static final int SYNC_TOKEN_GONE = 410;
 
     private GoogleAuthorizationCodeFlow flow;
 
@@ -69,7 +77,10 @@ public class GoogleCalClient {
     }
 
     public Calendar getCalendarService() throws IOException {
-        String username = MDC.get(UserClient.USER_NAME_KEY);
+        return getCalendarService(MDC.get(UserClient.USER_NAME_KEY));
+    }
+
+    public Calendar getCalendarService(String username) throws IOException {
         Credential credential = this.getFlow().loadCredential(username);
         if (credential == null) {
             throw new BadRequestException("User not logged in");
@@ -87,4 +98,34 @@ public class GoogleCalClient {
                 .setApplicationName(APPLICATION_NAME).build();
     }
 
+    @Override
+    public String getTimeZone(String calendarId) throws IOException {
+        return getCalendarService().calendarList().get(calendarId).execute().getTimeZone();
+    }
+
+    @Override
+    public Events listEvents(String calendarId, String syncToken, String pageToken) throws IOException {
+        Calendar.Events.List request = getCalendarService().events().list(calendarId).setPageToken(pageToken);
+        if (syncToken == null) {
+            request.setTimeMin(new DateTime(ZonedDateTime.now().minusYears(1).toInstant().toEpochMilli()));
+        } else {
+            request.setSyncToken(syncToken);
+        }
+        try {
+            return request.execute();
+        } catch (GoogleJsonResponseException ex) {
+            // https://developers.google.com/calendar/v3/sync#full_sync_required_by_server
+            if (ex.getStatusCode() == SYNC_TOKEN_GONE) {
+                throw new SyncTokenExpiredException(calendarId, ex);
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public CalendarWatcher getWatcher(String owner) throws IOException {
+        Calendar service = getCalendarService(owner);
+        // https://developers.google.com/calendar/v3/reference/events/watch
+        return (calendarId, channel) -> service.events().watch(calendarId, channel).execute();
+    }
 }
@@ -0,0 +1,51 @@
+package com.bulletjournal.clients;
+
+import com.bulletjournal.config.FileStorageConfig;
+import com.bulletjournal.controller.utils.FileUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Keeps uploaded files under file.storage.localDirectory, for running without S3
+ */
+@Component
+@ConditionalOnProperty(value = FileStorageClient.STORAGE_TYPE_PROPERTY, havingValue = "local")
+public class LocalFileStorageClient implements FileStorageClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalFileStorageClient.class);
+
+    private final Path directory;
+
+    @Autowired
+    public LocalFileStorageClient(FileStorageConfig fileStorageConfig) throws IOException {
+        this.directory = Files.createDirectories(
+                Paths.get(fileStorageConfig.getLocalDirectory()).toAbsolutePath().normalize());
+    }
+
+    @Override
+    public String uploadFile(MultipartFile multipartFile) {
+        FileUtil.checkFileSize(multipartFile);
+        String fileName = FileUtil.generateFileName(multipartFile.getOriginalFilename());
+        Path file = this.directory.resolve(fileName).normalize();
+        if (!file.getParent().equals(this.directory)) {
+            throw new IllegalArgumentException("Invalid file name " + multipartFile.getOriginalFilename());
+        }
+        LOGGER.info("Storing file " + file);
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            Files.copy(inputStream, file);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return file.toUri().toString();
+    }
+}
@@ -9,6 +9,7 @@ import com.bulletjournal.repository.UserAliasDaoJpa;
 import com.bulletjournal.repository.UserDaoJpa;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
@@ -21,8 +22,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.LinkedHashMap;
-import java.util.Optional;
+import java.util.*;
 
 @Component
 public class UserClient {
@@ -104,6 +104,37 @@ public class UserClient {
         return this.userAliasDaoJpa.updateUserAlias(user);
     }
 
+    /**
+     * Resolve many users at once: cached users are read in one repository call, which still costs one
+     * redis hash lookup per name, and the requester's aliases are loaded once. Only cache misses go
+     * through {@link #getUser(String)}.
+     * DO NOT wrap this function inside @Transactional
+     */
+    public Map<String, User> getUsers(Collection<String> usernames) {
+        Set<String> names = new LinkedHashSet<>(usernames);
+        names.remove(null);
+        Map<String, User> users = new HashMap<>();
+        if (names.isEmpty()) {
+            return users;
+        }
+        String requester = MDC.get(USER_NAME_KEY);
+        Map<String, String> aliases = requester == null
+                ? Collections.emptyMap() : this.userAliasDaoJpa.getAliases(requester);
+        for (User user : this.redisUserRepository.findAllById(names)) {
+            if (user == null || !names.contains(user.getName())) {
+                continue;
+            }
+            user.setAlias(aliases.getOrDefault(user.getName(), user.getName()));
+            users.put(user.getName(), user);
+        }
+        for (String name : names) {
+            if (!users.containsKey(name)) {
+                users.put(name, getUser(name));
+            }
+        }
+        return users;
+    }
+
     private String getUserTimeZone(LinkedHashMap userInfo) {
         if (this.ssoAPIKey == null) {
             return DEFAULT_USER_TIME_ZONE;
@@ -11,6 +11,10 @@ public class AWSConfig {
     private static final String SECRET_KEY = "AWS_SECRET_KEY";
     private String endpointUrl;
     private String bucketName;
+    // bytes buffered per part of a multipart upload, S3 needs at least 5MB for all but the last part
+    private int uploadPartSizeBytes = 5 * 1024 * 1024;
+    // parts of one upload sent in parallel, also how many part buffers an upload may hold
+    private int uploadConcurrency = 4;
 
     public AWSConfig() {
     }
@@ -36,6 +40,22 @@ public class AWSConfig {
         this.bucketName = bucketName;
     }
 
+    public int getUploadPartSizeBytes() {
+        return uploadPartSizeBytes;
+    }
+
+    public void setUploadPartSizeBytes(int uploadPartSizeBytes) {
+        this.uploadPartSizeBytes = uploadPartSizeBytes;
+    }
+
+    public int getUploadConcurrency() {
+        return uploadConcurrency;
+    }
+
+    public void setUploadConcurrency(int uploadConcurrency) {
+        this.uploadConcurrency = uploadConcurrency;
+    }
+
     public String getAwsSecretKey() {
         return System.getenv(SECRET_KEY);
     }
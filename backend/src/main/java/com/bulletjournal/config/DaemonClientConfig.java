@@ -9,6 +9,18 @@ public class DaemonClientConfig {
 
     private boolean enabled;
 
+    private int channelPoolSize = 2;
+
+    private long deadlineMillis = 2000;
+
+    private int failureThreshold = 5;
+
+    private long circuitOpenMillis = 30000;
+
+    private long reconnectInitialBackoffMillis = 1000;
+
+    private long reconnectMaxBackoffMillis = 60000;
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -16,4 +28,52 @@ public class DaemonClientConfig {
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
+
+    public int getChannelPoolSize() {
+        return channelPoolSize;
+    }
+
+    public void setChannelPoolSize(int channelPoolSize) {
+        this.channelPoolSize = channelPoolSize;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    public void setDeadlineMillis(long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public long getCircuitOpenMillis() {
+        return circuitOpenMillis;
+    }
+
+    public void setCircuitOpenMillis(long circuitOpenMillis) {
+        this.circuitOpenMillis = circuitOpenMillis;
+    }
+
+    public long getReconnectInitialBackoffMillis() {
+        return reconnectInitialBackoffMillis;
+    }
+
+    public void setReconnectInitialBackoffMillis(long reconnectInitialBackoffMillis) {
+        this.reconnectInitialBackoffMillis = reconnectInitialBackoffMillis;
+    }
+
+    public long getReconnectMaxBackoffMillis() {
+        return reconnectMaxBackoffMillis;
+    }
+
+    public void setReconnectMaxBackoffMillis(long reconnectMaxBackoffMillis) {
+        this.reconnectMaxBackoffMillis = reconnectMaxBackoffMillis;
+    }
 }
@@ -0,0 +1,19 @@
+package com.bulletjournal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "export")
+public class ExportConfig {
+
+    private int maxHtmlSizeInBytes = 32 * 1024 * 1024;
+
+    public int getMaxHtmlSizeInBytes() {
+        return maxHtmlSizeInBytes;
+    }
+
+    public void setMaxHtmlSizeInBytes(int maxHtmlSizeInBytes) {
+        this.maxHtmlSizeInBytes = maxHtmlSizeInBytes;
+    }
+}
@@ -15,6 +15,14 @@ public class GoogleCalConfig {
     @Value("${google.calendar.redirect.uri}")
     private String redirectURI;
 
+    // how often expiring watches are renewed, 0 to leave renewal to the daemon
+    private int watchRenewIntervalSeconds;
+
+    // calendar owners whose watches are renewed in parallel
+    private int watchRenewConcurrency = 4;
+
+    private int watchRenewMaxAttempts = 3;
+
 
     public String getClientId() {
         return System.getenv(CLIENT_ID);
@@ -27,4 +35,28 @@ public class GoogleCalConfig {
     public String getRedirectURI() {
         return redirectURI;
     }
+
+    public int getWatchRenewIntervalSeconds() {
+        return watchRenewIntervalSeconds;
+    }
+
+    public void setWatchRenewIntervalSeconds(int watchRenewIntervalSeconds) {
+        this.watchRenewIntervalSeconds = watchRenewIntervalSeconds;
+    }
+
+    public int getWatchRenewConcurrency() {
+        return watchRenewConcurrency;
+    }
+
+    public void setWatchRenewConcurrency(int watchRenewConcurrency) {
+        this.watchRenewConcurrency = watchRenewConcurrency;
+    }
+
+    public int getWatchRenewMaxAttempts() {
+        return watchRenewMaxAttempts;
+    }
+
+    public void setWatchRenewMaxAttempts(int watchRenewMaxAttempts) {
+        this.watchRenewMaxAttempts = watchRenewMaxAttempts;
+    }
 }
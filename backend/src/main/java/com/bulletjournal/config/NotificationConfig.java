@@ -24,6 +24,7 @@ public class NotificationConfig {
         private int maxRetentionTimeInDays;
         private int intervalInSeconds;
         private int historyMaxRetentionDays;
+        private int batchSize = 1000;
 
         public int getMaxRetentionTimeInDays() {
             return maxRetentionTimeInDays;
@@ -49,6 +50,14 @@ public class NotificationConfig {
             this.historyMaxRetentionDays = historyMaxRetentionDays;
         }
 
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
     }
 
 }
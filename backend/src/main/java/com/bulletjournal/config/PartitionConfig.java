@@ -0,0 +1,53 @@
+package com.bulletjournal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "partition")
+public class PartitionConfig {
+
+    // how often monthly partitions are created and expired, 0 to disable
+    private int intervalInSeconds = 86400;
+
+    // months of partitions created ahead of the current one
+    private int monthsAhead = 3;
+
+    // completed task months older than this are moved to the archive schema, 0 to keep them all
+    private int completedTasksArchiveAfterMonths;
+
+    // project history months older than this are moved to the archive schema, 0 to keep them all
+    private int auditRetentionMonths;
+
+    public int getIntervalInSeconds() {
+        return intervalInSeconds;
+    }
+
+    public void setIntervalInSeconds(int intervalInSeconds) {
+        this.intervalInSeconds = intervalInSeconds;
+    }
+
+    public int getMonthsAhead() {
+        return monthsAhead;
+    }
+
+    public void setMonthsAhead(int monthsAhead) {
+        this.monthsAhead = monthsAhead;
+    }
+
+    public int getCompletedTasksArchiveAfterMonths() {
+        return completedTasksArchiveAfterMonths;
+    }
+
+    public void setCompletedTasksArchiveAfterMonths(int completedTasksArchiveAfterMonths) {
+        this.completedTasksArchiveAfterMonths = completedTasksArchiveAfterMonths;
+    }
+
+    public int getAuditRetentionMonths() {
+        return auditRetentionMonths;
+    }
+
+    public void setAuditRetentionMonths(int auditRetentionMonths) {
+        this.auditRetentionMonths = auditRetentionMonths;
+    }
+}
@@ -6,6 +6,9 @@ import com.bulletjournal.config.VersionConfig;
 import com.bulletjournal.controller.models.*;
 import com.bulletjournal.controller.models.params.*;
 import com.bulletjournal.exceptions.UnAuthorizedException;
+import com.bulletjournal.messaging.DeliveryStats;
+import com.bulletjournal.messaging.firebase.FcmClient;
+import com.bulletjournal.messaging.mailjet.MailjetEmailClient;
 import com.bulletjournal.redis.RedisLockedIPRepository;
 import com.bulletjournal.redis.RedisLockedUserRepository;
 import com.bulletjournal.redis.models.LockedIP;
@@ -18,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +36,7 @@ public class AdminController {
     public static final String UNLOCK_USER_ROUTE = "/api/admin/unlock";
     public static final String LOCK_USER_ROUTE = "/api/admin/lock";
     public static final String VERSION_ROUTE = "/api/version";
+    public static final String DELIVERY_STATS_ROUTE = "/api/admin/deliveryStats";
 
     @Autowired
     private VersionConfig versionConfig;
@@ -48,6 +53,12 @@ public class AdminController {
     @Autowired
     private RedisLockedIPRepository redisLockedIPRepository;
 
+    @Autowired
+    private FcmClient fcmClient;
+
+    @Autowired
+    private MailjetEmailClient mailjetEmailClient;
+
     @PostMapping(SET_ROLE_ROUTE)
     public void setRole(@NotBlank @PathVariable String username, @NotNull @RequestBody SetRoleParams setRoleParams) {
         username = getUsername(username);
@@ -154,6 +165,12 @@ public class AdminController {
         return new Myself(self, timezone, before, currency, theme, points);
     }
 
+    @GetMapping(DELIVERY_STATS_ROUTE)
+    public List<DeliveryStats> getDeliveryStats() {
+        validateRequester();
+        return Arrays.asList(this.fcmClient.getDeliveryStats(), this.mailjetEmailClient.getDeliveryStats());
+    }
+
     @GetMapping(VERSION_ROUTE)
     public String getVersion() {
         return this.versionConfig.getVersion();
@@ -6,6 +6,8 @@ import com.bulletjournal.controller.models.BookingLink;
 import com.bulletjournal.controller.models.params.*;
 import com.bulletjournal.controller.utils.ZonedDateTimeHelper;
 import com.bulletjournal.exceptions.ResourceNotFoundException;
+import com.bulletjournal.notifications.BookingCreation;
+import com.bulletjournal.notifications.NotificationService;
 import com.bulletjournal.repository.*;
 import com.bulletjournal.repository.models.Project;
 import com.bulletjournal.repository.models.Task;
@@ -58,6 +60,9 @@ public class BookingLinksController {
     @Autowired
     private UserClient userClient;
 
+    @Autowired
+    private NotificationService notificationService;
+
     @PostMapping(BOOKING_LINKS_ROUTE)
     @ResponseStatus(HttpStatus.CREATED)
     public BookingLink createBookingLink(@Valid @RequestBody CreateBookingLinkParams createBookingLinkParams) {
@@ -146,7 +151,10 @@ public class BookingLinksController {
 
     @PostMapping(PUBLIC_BOOKING_LINK_BOOK_ROUTE)
     public Booking book(@NotNull @PathVariable String bookingLinkId, @NotNull @RequestBody BookParams bookParams) {
-        return this.bookingLinkDaoJpa.book(bookingLinkId, bookParams).toPresentationModel();
+        com.bulletjournal.repository.models.Booking booking = this.bookingLinkDaoJpa.book(bookingLinkId, bookParams);
+        // slot is claimed, create task and send emails off the request path
+        this.notificationService.completeBooking(new BookingCreation(booking.getId()));
+        return booking.toPresentationModel();
     }
 
     @GetMapping(BOOK_ME_USERNAME)
@@ -1,6 +1,6 @@
 package com.bulletjournal.controller;
 
-import com.bulletjournal.clients.AWSS3Client;
+import com.bulletjournal.clients.FileStorageClient;
 import com.bulletjournal.clients.UserClient;
 import com.bulletjournal.controller.models.User;
 import com.bulletjournal.filters.rate.limiting.TokenBucket;
@@ -22,7 +22,7 @@ import java.util.Optional;
 public class FileController {
     private static final Logger LOGGER = LoggerFactory.getLogger(FileController.class);
     @Autowired
-    private AWSS3Client awsS3Client;
+    private FileStorageClient fileStorageClient;
 
     @Autowired
     private TokenBucket tokenBucket;
@@ -38,7 +38,7 @@ public class FileController {
         if (this.tokenBucket.isLimitExceeded(TokenBucketType.FILE_UPLOAD)) {
             LOGGER.error("File upload limit exceeded");
         }
-        return this.awsS3Client.uploadFile(file);
+        return this.fileStorageClient.uploadFile(file);
     }
 
     @PostMapping("/api/uploadAvatar")
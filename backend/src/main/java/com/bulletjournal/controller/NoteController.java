@@ -41,6 +41,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.io.IOException;
+import java.io.InputStream;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.*;
@@ -397,7 +398,7 @@ public class NoteController {
       String username = MDC.get(UserClient.USER_NAME_KEY);
       com.bulletjournal.repository.models.Note note = noteDaoJpa.getProjectItem(noteId, username);
       try {
-          String html = freeMarkerClient.convertProjectItemIntoPdfHtml(note, params.getContents());
+          InputStream html = freeMarkerClient.convertProjectItemIntoPdfHtml(note, params.getContents());
           ByteArrayResource resource = OpenHtmlConverter.projectItemHtmlToPdf(html);
 
           HttpHeaders headers = new HttpHeaders();
@@ -421,7 +422,7 @@ public class NoteController {
     String username = MDC.get(UserClient.USER_NAME_KEY);
     com.bulletjournal.repository.models.Note note = noteDaoJpa.getProjectItem(noteId, username);
     try {
-      String html = freeMarkerClient.convertProjectItemIntoImageHtml(note, params.getContents());
+      InputStream html = freeMarkerClient.convertProjectItemIntoImageHtml(note, params.getContents());
       ByteArrayResource resource;
       if (params.isMobile()) {
         resource = OpenHtmlConverter.projectItemHtmlToImageForMobile(html);
@@ -455,11 +456,12 @@ public class NoteController {
     String requester = MDC.get(UserClient.USER_NAME_KEY);
 
     // check if requester is eligible to access the note
-    noteDaoJpa.getProjectItem(noteId, requester);
+    ProjectItemModel note = noteDaoJpa.getProjectItem(noteId, requester);
 
     try {
       Page<com.bulletjournal.repository.models.NoteAuditable> page =
-          this.noteAuditableDaoJpa.getHistory(noteId, pageInd, pageSize, startDate, endDate, timezone);
+          this.noteAuditableDaoJpa.getHistory(
+              (com.bulletjournal.repository.models.Note) note, pageInd, pageSize, startDate, endDate, timezone);
       Map<String, Object> response = new HashMap<>();
       List<ProjectItemActivity> activities =
           page.getContent().stream()
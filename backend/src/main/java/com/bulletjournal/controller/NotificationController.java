@@ -24,6 +24,7 @@ import com.bulletjournal.repository.*;
 import com.bulletjournal.repository.factory.ProjectItemDaos;
 import com.bulletjournal.repository.models.*;
 import com.google.common.base.Preconditions;
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -45,6 +46,8 @@ public class NotificationController {
     protected static final String NOTIFICATIONS_ROUTE = "/api/notifications";
     protected static final String ANSWER_NOTIFICATION_ROUTE = "/api/notifications/{notificationId}/answer";
     protected static final String ANSWER_PUBLIC_NOTIFICATION_ROUTE = "/api/public/notifications/{uid}/answer";
+    protected static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String DEFAULT_PAGE_SIZE = "100";
     private static final Logger LOGGER = LoggerFactory.getLogger(NotificationController.class);
 
     @Autowired
@@ -76,15 +79,25 @@ public class NotificationController {
     private ProjectItemDaos projectItemDaos;
 
     @GetMapping(NOTIFICATIONS_ROUTE)
-    public ResponseEntity<List<Notification>> getNotifications() {
+    public ResponseEntity<List<Notification>> getNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = DEFAULT_PAGE_SIZE) Integer limit) {
         String username = MDC.get(UserClient.USER_NAME_KEY);
-        List<Notification> notificationList = this.notificationDaoJpa.getNotifications(username);
+        Pair<List<Notification>, String> page = this.notificationDaoJpa.getNotifications(username, cursor, limit);
+        List<Notification> notificationList = page.getLeft();
+
+        HttpHeaders responseHeader = new HttpHeaders();
+        if (page.getRight() != null) {
+            responseHeader.set(NEXT_CURSOR_HEADER, page.getRight());
+        }
+        if (cursor != null) {
+            // etag tracks the first page only
+            return ResponseEntity.ok().headers(responseHeader).body(notificationList);
+        }
 
         String notificationsEtag = EtagGenerator.generateEtag(EtagGenerator.HashAlgorithm.MD5,
                 EtagGenerator.HashType.TO_HASHCODE,
                 notificationList);
-
-        HttpHeaders responseHeader = new HttpHeaders();
         responseHeader.setETag(notificationsEtag);
 
         // Store Etag to cache
@@ -125,7 +138,7 @@ public class NotificationController {
     public ResponseEntity<List<Notification>> cleanNotifications() {
         String username = MDC.get(UserClient.USER_NAME_KEY);
         this.notificationRepository.deleteByTargetUser(username);
-        return getNotifications();
+        return getNotifications(null, Integer.valueOf(DEFAULT_PAGE_SIZE));
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
@@ -121,29 +121,39 @@ public class ProjectItemController {
     @ResponseBody
     public List<ProjectItem> getRecentProjectItems(@Valid @RequestParam List<ProjectType> types,
                                                    @NotBlank @RequestParam String startDate, @NotBlank @RequestParam String endDate,
-                                                   @NotBlank @RequestParam String timezone) {
+                                                   @NotBlank @RequestParam String timezone,
+                                                   @RequestParam(required = false) Integer pageNo,
+                                                   @RequestParam(required = false) Integer pageSize) {
 
         Timestamp startTime = Timestamp.from(ZonedDateTimeHelper.getStartTime(startDate, null, timezone).toInstant());
         Timestamp endTime = Timestamp.from(ZonedDateTimeHelper.getStartTime(endDate, null, timezone).toInstant());
-        final List<ProjectItem> projectItems = new LinkedList<>();
-        types.forEach(type -> addRecentProjectItems(startTime, endTime, projectItems, type));
+        String username = MDC.get(UserClient.USER_NAME_KEY);
+        List<Long> projectIds = this.projectDaoJpa.getUserProjects(username)
+                .stream().map(p -> p.getId()).distinct().collect(Collectors.toList());
+
+        // every type has to supply a whole page on its own before the merge
+        boolean paged = pageSize != null && pageSize > 0;
+        int from = paged && pageNo != null ? Math.max(0, pageNo) * pageSize : 0;
+        Integer limit = paged ? from + pageSize : null;
 
-        this.labelDaoJpa.getLabelsForProjectItemList(projectItems);
+        final List<ProjectItem> projectItems = new ArrayList<>();
+        types.forEach(type -> addRecentProjectItems(startTime, endTime, projectIds, limit, projectItems, type));
         projectItems.sort((t1, t2) -> t2.getUpdatedAt().compareTo(t1.getUpdatedAt()));
 
-        return projectItems;
+        List<ProjectItem> page = paged
+                ? new ArrayList<>(projectItems.subList(Math.min(from, projectItems.size()),
+                Math.min(from + pageSize, projectItems.size())))
+                : projectItems;
+        this.labelDaoJpa.getLabelsForProjectItemList(page);
+        return ProjectItem.addAvatar(page, this.userClient);
     }
 
     private <T extends ProjectItemModel> void addRecentProjectItems(Timestamp startTime, Timestamp endTime,
+                                                                    List<Long> projectIds, Integer limit,
                                                                     List<ProjectItem> projectItems, final ProjectType projectType) {
+        final List<T> items = this.daos.get(projectType).getRecentProjectItemsBetween(startTime, endTime, projectIds, limit);
 
-        String username = MDC.get(UserClient.USER_NAME_KEY);
-        Set<Long> projectIds = this.projectDaoJpa.getUserProjects(username)
-                .stream().map(p -> p.getId()).collect(Collectors.toSet());
-
-        final List<T> items = this.daos.get(projectType).getRecentProjectItemsBetween(startTime, endTime, new ArrayList<>(projectIds));
-
-        projectItems.addAll(items.stream().map(t -> ProjectItem.addAvatar(t.toPresentationModel(authorizationService), this.userClient))
+        projectItems.addAll(items.stream().map(t -> t.toPresentationModel(authorizationService))
                 .collect(Collectors.toList()));
     }
 }
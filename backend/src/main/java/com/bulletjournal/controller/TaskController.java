@@ -41,6 +41,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.io.IOException;
+import java.io.InputStream;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.*;
@@ -454,7 +455,7 @@ public class TaskController {
         String username = MDC.get(UserClient.USER_NAME_KEY);
         com.bulletjournal.repository.models.Task task = taskDaoJpa.getProjectItem(taskId, username);
         try {
-            String html = freeMarkerClient.convertProjectItemIntoPdfHtml(task, params.getContents());
+            InputStream html = freeMarkerClient.convertProjectItemIntoPdfHtml(task, params.getContents());
             ByteArrayResource resource = OpenHtmlConverter.projectItemHtmlToPdf(html);
 
             HttpHeaders headers = new HttpHeaders();
@@ -479,7 +480,7 @@ public class TaskController {
       com.bulletjournal.repository.models.Task task = taskDaoJpa.getProjectItem(taskId, username);
 
       try {
-        String html = freeMarkerClient.convertProjectItemIntoImageHtml(task, params.getContents());
+        InputStream html = freeMarkerClient.convertProjectItemIntoImageHtml(task, params.getContents());
         ByteArrayResource resource;
         if (params.isMobile()) {
           resource = OpenHtmlConverter.projectItemHtmlToImageForMobile(html);
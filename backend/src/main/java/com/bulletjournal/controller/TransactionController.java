@@ -47,6 +47,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.io.IOException;
+import java.io.InputStream;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.ZonedDateTime;
@@ -486,7 +487,7 @@ public class TransactionController {
         String username = MDC.get(UserClient.USER_NAME_KEY);
         com.bulletjournal.repository.models.Transaction transaction = transactionDaoJpa.getProjectItem(transactionId, username);
         try {
-            String html = freeMarkerClient.convertProjectItemIntoPdfHtml(transaction, params.getContents());
+            InputStream html = freeMarkerClient.convertProjectItemIntoPdfHtml(transaction, params.getContents());
             ByteArrayResource resource = OpenHtmlConverter.projectItemHtmlToPdf(html);
 
             HttpHeaders headers = new HttpHeaders();
@@ -509,7 +510,7 @@ public class TransactionController {
         String username = MDC.get(UserClient.USER_NAME_KEY);
         com.bulletjournal.repository.models.Transaction transaction = transactionDaoJpa.getProjectItem(transactionId, username);
         try {
-            String html = freeMarkerClient.convertProjectItemIntoImageHtml(transaction, params.getContents());
+            InputStream html = freeMarkerClient.convertProjectItemIntoImageHtml(transaction, params.getContents());
             ByteArrayResource resource;
             if (params.isMobile()) {
                 resource = OpenHtmlConverter.projectItemHtmlToImageForMobile(html);
@@ -1,8 +1,8 @@
 package com.bulletjournal.daemon;
 
+import com.bulletjournal.calendars.google.CalendarWatchRenewer;
 import com.bulletjournal.config.NotificationConfig;
 import com.bulletjournal.repository.AuditableDaoJpa;
-import com.bulletjournal.repository.GoogleCalendarProjectDaoJpa;
 import com.bulletjournal.repository.NotificationDaoJpa;
 import com.bulletjournal.repository.PublicProjectItemDaoJpa;
 import com.bulletjournal.util.CustomThreadFactory;
@@ -13,7 +13,6 @@ import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
-import java.io.IOException;
 import java.sql.Timestamp;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -27,7 +26,6 @@ public class Cleaner {
     private final ScheduledExecutorService executorService;
     private final NotificationDaoJpa notificationDaoJpa;
     private final PublicProjectItemDaoJpa publicProjectItemDaoJpa;
-    private final GoogleCalendarProjectDaoJpa googleCalendarProjectDaoJpa;
 
     @Autowired
     private NotificationConfig notificationConfig;
@@ -36,12 +34,13 @@ public class Cleaner {
     private AuditableDaoJpa auditableDaoJpa;
 
     @Autowired
-    public Cleaner(NotificationDaoJpa notificationDaoJpa, PublicProjectItemDaoJpa publicProjectItemDaoJpa,
-                   GoogleCalendarProjectDaoJpa googleCalendarProjectDaoJpa) {
+    private CalendarWatchRenewer calendarWatchRenewer;
+
+    @Autowired
+    public Cleaner(NotificationDaoJpa notificationDaoJpa, PublicProjectItemDaoJpa publicProjectItemDaoJpa) {
         this.executorService = Executors.newSingleThreadScheduledExecutor(new CustomThreadFactory("cleaner"));
         this.notificationDaoJpa = notificationDaoJpa;
         this.publicProjectItemDaoJpa = publicProjectItemDaoJpa;
-        this.googleCalendarProjectDaoJpa = googleCalendarProjectDaoJpa;
     }
 
     @PostConstruct
@@ -81,8 +80,8 @@ public class Cleaner {
         }
     }
 
-    private void renewGoogleCalendarWatch() throws IOException {
-        this.googleCalendarProjectDaoJpa.renewExpiringGoogleCalendarWatch();
+    private void renewGoogleCalendarWatch() {
+        this.calendarWatchRenewer.renewExpiringWatches();
         LOGGER.info("Google Calendar Expiring Watch Cleaning Done");
     }
 
@@ -90,7 +89,8 @@ public class Cleaner {
         int maxRetentionTimeInDays = notificationConfig.getCleaner().getMaxRetentionTimeInDays();
         long expirationTime = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(maxRetentionTimeInDays);
 
-        notificationDaoJpa.deleteAllExpiredNotifications(new Timestamp(expirationTime));
+        notificationDaoJpa.deleteAllExpiredNotifications(new Timestamp(expirationTime),
+                notificationConfig.getCleaner().getBatchSize());
         LOGGER.info("Notification Cleaning Done");
     }
 
@@ -0,0 +1,65 @@
+package com.bulletjournal.daemon;
+
+import com.bulletjournal.config.NotificationConfig;
+import com.bulletjournal.repository.NotificationDaoJpa;
+import com.bulletjournal.util.CustomThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires notifications in the background so that reading the inbox never deletes
+ */
+@Service
+public class NotificationCleaner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotificationCleaner.class);
+    private final ScheduledExecutorService executorService;
+
+    @Autowired
+    private NotificationConfig notificationConfig;
+
+    @Autowired
+    private NotificationDaoJpa notificationDaoJpa;
+
+    public NotificationCleaner() {
+        this.executorService = Executors.newSingleThreadScheduledExecutor(
+                new CustomThreadFactory("notification-cleaner"));
+    }
+
+    @PostConstruct
+    public void postConstruct() {
+        int intervalInSeconds = notificationConfig.getCleaner().getIntervalInSeconds();
+        if (intervalInSeconds <= 0) {
+            throw new IllegalArgumentException("Invalid intervalInSeconds: " + intervalInSeconds);
+        }
+        this.executorService.scheduleWithFixedDelay(this::clean, intervalInSeconds, intervalInSeconds, TimeUnit.SECONDS);
+    }
+
+    public void clean() {
+        Thread.currentThread().setPriority(Thread.MIN_PRIORITY);
+        try {
+            NotificationConfig.Cleaner cleaner = notificationConfig.getCleaner();
+            long expirationTime = Math.max(0, System.currentTimeMillis()
+                    - TimeUnit.DAYS.toMillis(cleaner.getMaxRetentionTimeInDays()));
+            long deleted = notificationDaoJpa.deleteAllExpiredNotifications(
+                    new Timestamp(expirationTime), cleaner.getBatchSize());
+            LOGGER.info("Notification Cleaning Done, {} expired", deleted);
+        } catch (Exception e) {
+            LOGGER.error("cleanNotification error", e);
+        }
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        executorService.shutdownNow();
+    }
+}
@@ -0,0 +1,94 @@
+package com.bulletjournal.daemon;
+
+import com.bulletjournal.config.PartitionConfig;
+import com.bulletjournal.repository.AuditableDaoJpa;
+import com.bulletjournal.repository.PartitionDaoJpa;
+import com.bulletjournal.util.CustomThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates monthly partitions ahead of time so rows never pile up in the default partition, and
+ * archives months past their retention by detaching whole partitions instead of deleting rows
+ */
+@Service
+public class PartitionMaintainer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionMaintainer.class);
+    private final ScheduledExecutorService executorService;
+
+    @Autowired
+    private PartitionConfig partitionConfig;
+
+    @Autowired
+    private PartitionDaoJpa partitionDaoJpa;
+
+    @Autowired
+    private AuditableDaoJpa auditableDaoJpa;
+
+    public PartitionMaintainer() {
+        this.executorService = Executors.newSingleThreadScheduledExecutor(
+                new CustomThreadFactory("partition-maintainer"));
+    }
+
+    @PostConstruct
+    public void postConstruct() {
+        int intervalInSeconds = this.partitionConfig.getIntervalInSeconds();
+        if (intervalInSeconds > 0) {
+            this.executorService.scheduleWithFixedDelay(this::maintain, 0, intervalInSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    public void maintain() {
+        Thread.currentThread().setPriority(Thread.MIN_PRIORITY);
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        try {
+            createPartitions(PartitionDaoJpa.COMPLETED_TASKS, month);
+            int archiveAfterMonths = this.partitionConfig.getCompletedTasksArchiveAfterMonths();
+            if (archiveAfterMonths > 0) {
+                int archived = this.partitionDaoJpa.detachMonthlyPartitions(PartitionDaoJpa.COMPLETED_TASKS,
+                        month.minusMonths(archiveAfterMonths), PartitionDaoJpa.ARCHIVE_SCHEMA);
+                LOGGER.info("Archived {} months of completed tasks", archived);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Completed tasks partition maintenance error", e);
+        }
+
+        try {
+            for (String table : PartitionDaoJpa.AUDIT_TABLES) {
+                createPartitions(table, month);
+            }
+            int auditRetentionMonths = this.partitionConfig.getAuditRetentionMonths();
+            if (auditRetentionMonths > 0) {
+                int archived = this.auditableDaoJpa.deleteAllExpiredHistory(
+                        Timestamp.valueOf(month.minusMonths(auditRetentionMonths).atStartOfDay()));
+                LOGGER.info("Archived {} months of project history", archived);
+            }
+        } catch (Exception e) {
+            LOGGER.error("History partition maintenance error", e);
+        }
+    }
+
+    private void createPartitions(String table, LocalDate month) {
+        for (int i = 0; i <= this.partitionConfig.getMonthsAhead(); i++) {
+            if (this.partitionDaoJpa.createMonthlyPartition(table, month.plusMonths(i))) {
+                LOGGER.info("Created partition of {} for {}", table, month.plusMonths(i));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        this.executorService.shutdownNow();
+    }
+}
@@ -1,14 +1,30 @@
 package com.bulletjournal.hierarchy;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.gson.Gson;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 
 public class HierarchyProcessor {
 
     public static final Gson GSON = new Gson();
 
+    // total characters of cached hierarchy json
+    private static final long MAX_CACHED_JSON_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * Parsed hierarchies keyed by their json. Cached trees are shared, so they are never modified
+     */
+    private static final Cache<String, List<HierarchyItem>> PARSED_HIERARCHIES = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHED_JSON_LENGTH)
+            .weigher((String json, List<HierarchyItem> items) -> json.length())
+            .build();
+
     public static Pair<List<HierarchyItem>, Set<Long>> findAllIds(String relations, Set<Long> existingIds) {
         List<HierarchyItem> hierarchyItems = getItemsFromJson(relations);
         Set<Long> processedIds = new HashSet<>();
@@ -29,20 +45,24 @@ public class HierarchyProcessor {
             return null;
         }
         processedIds.add(hierarchyItem.getId());
-        List<HierarchyItem> children = new ArrayList<>();
+        // copy instead of pruning in place, hierarchyItem belongs to the cache
+        HierarchyItem kept = new HierarchyItem(hierarchyItem.getId());
         for (HierarchyItem child : hierarchyItem.getS()) {
-            if (existingIds == null || existingIds.contains(child.getId())) {
-                findAllIds(child, existingIds, processedIds);
-                children.add(child);
+            HierarchyItem keptChild = findAllIds(child, existingIds, processedIds);
+            if (keptChild != null) {
+                kept.getS().add(keptChild);
             }
-
         }
-        hierarchyItem.setS(children);
-        return hierarchyItem;
+        return kept;
     }
 
     private static List<HierarchyItem> getItemsFromJson(String jsonString) {
-        return Arrays.asList(GSON.fromJson(
-                jsonString, HierarchyItem[].class));
+        try {
+            return PARSED_HIERARCHIES.get(jsonString, () -> Collections.unmodifiableList(
+                    Arrays.asList(GSON.fromJson(jsonString, HierarchyItem[].class))));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException("Unable to parse hierarchy " + jsonString, e.getCause());
+        }
     }
 }
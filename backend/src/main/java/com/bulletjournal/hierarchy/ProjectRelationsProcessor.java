@@ -20,7 +20,24 @@ public class ProjectRelationsProcessor {
             Map<Long, com.bulletjournal.repository.models.Project> projectMap,
             List<HierarchyItem> projectRelations,
             Set<Long> selectedProjects) {
-        return processRelations(projectMap, HierarchyProcessor.GSON.toJson(projectRelations), selectedProjects);
+        // build the tree directly, the hierarchy is already parsed
+        List<Project> projects = new ArrayList<>();
+        for (HierarchyItem item : projectRelations) {
+            Project project = toProject(item);
+            if (merge(projectMap, project, selectedProjects) > 0) {
+                projects.add(project);
+            }
+        }
+
+        return projects;
+    }
+
+    private static Project toProject(HierarchyItem item) {
+        Project project = new Project(item.getId());
+        for (HierarchyItem child : item.getS()) {
+            project.addSubProject(toProject(child));
+        }
+        return project;
     }
 
     public static List<Project> processRelations(
@@ -0,0 +1,65 @@
+package com.bulletjournal.messaging;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * In-memory sink for rendered templates with a hard upper bound on its size.
+ * <p>
+ * Rendered bytes are handed to the next stage through {@link #toInputStream()} without copying
+ * the underlying buffer, so a large export never materializes as an intermediate String.
+ * </p>
+ */
+public class BoundedHtmlOutputStream extends OutputStream {
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+
+    private final int maxSizeInBytes;
+    private final Buffer buffer = new Buffer();
+
+    public BoundedHtmlOutputStream(int maxSizeInBytes) {
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureCapacity(1);
+        this.buffer.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureCapacity(len);
+        this.buffer.write(b, off, len);
+    }
+
+    public int size() {
+        return this.buffer.size();
+    }
+
+    /**
+     * @return stream over the bytes written so far, sharing this buffer's storage
+     */
+    public InputStream toInputStream() {
+        return this.buffer.toInputStream();
+    }
+
+    private void ensureCapacity(int len) throws IOException {
+        if (this.buffer.size() + len > this.maxSizeInBytes) {
+            throw new IOException("Rendered html exceeds " + this.maxSizeInBytes + " bytes");
+        }
+    }
+
+    private static class Buffer extends ByteArrayOutputStream {
+        Buffer() {
+            super(INITIAL_CAPACITY);
+        }
+
+        InputStream toInputStream() {
+            return new ByteArrayInputStream(this.buf, 0, this.count);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.bulletjournal.messaging;
+
+import com.bulletjournal.config.DeliveryConfig;
+import com.bulletjournal.util.CustomThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Outbound delivery worker shared by push and email clients.
+ * <p>
+ * Messages are buffered in a bounded queue and drained by a single worker thread. Each drain
+ * coalesces the queued messages by batch key (e.g. email template), sends them in batches of
+ * at most {@code maxBatchSize}, and re-enqueues transient failures with exponential backoff.
+ * </p>
+ */
+public class DeliveryQueue<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeliveryQueue.class);
+
+    private static final long AWAIT_TERMINATION_SECONDS = 5;
+
+    /**
+     * Sends one batch of messages sharing the same batch key.
+     */
+    @FunctionalInterface
+    public interface BatchSender<T> {
+        /**
+         * @param batch messages to send
+         * @return messages in the batch that failed transiently and should be retried
+         * @throws Exception when the whole batch failed and should be retried
+         */
+        List<T> send(List<T> batch) throws Exception;
+    }
+
+    private static class Pending<T> {
+        private final T message;
+        private final long enqueuedAtNanos;
+        private int attempts;
+
+        Pending(T message) {
+            this.message = message;
+            this.enqueuedAtNanos = System.nanoTime();
+        }
+    }
+
+    private final String name;
+    private final int maxBatchSize;
+    private final Function<T, Object> batchKey;
+    private final BatchSender<T> sender;
+    private final DeliveryConfig config;
+    private final BlockingQueue<Pending<T>> queue;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicInteger awaitingRetry = new AtomicInteger();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public DeliveryQueue(String name, int maxBatchSize, Function<T, Object> batchKey,
+                         BatchSender<T> sender, DeliveryConfig config) {
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.batchKey = batchKey;
+        this.sender = sender;
+        this.config = config;
+        this.queue = new LinkedBlockingQueue<>(config.getQueueCapacity());
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new CustomThreadFactory(name));
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.scheduler = executor;
+        this.scheduler.scheduleWithFixedDelay(this::flush,
+                config.getFlushIntervalMillis(), config.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Enqueue messages for delivery. Messages that do not fit into the queue are dropped.
+     */
+    public void offer(Collection<T> messages) {
+        for (T message : messages) {
+            if (!this.queue.offer(new Pending<>(message))) {
+                this.dropped.incrementAndGet();
+                LOGGER.error("{} delivery queue is full, dropping message {}", this.name, message);
+            }
+        }
+    }
+
+    /**
+     * Drain everything queued so far and send it. Runs on the worker thread.
+     */
+    void flush() {
+        try {
+            List<Pending<T>> drained = new ArrayList<>();
+            this.queue.drainTo(drained);
+            if (drained.isEmpty()) {
+                return;
+            }
+
+            Map<Object, List<Pending<T>>> groups = new LinkedHashMap<>();
+            for (Pending<T> pending : drained) {
+                groups.computeIfAbsent(this.batchKey.apply(pending.message), k -> new ArrayList<>()).add(pending);
+            }
+            for (List<Pending<T>> group : groups.values()) {
+                for (int i = 0; i < group.size(); i += this.maxBatchSize) {
+                    deliver(group.subList(i, Math.min(i + this.maxBatchSize, group.size())));
+                }
+            }
+        } catch (Exception e) {
+            // never let an exception cancel the periodic flush
+            LOGGER.error("{} delivery flush failed", this.name, e);
+        }
+    }
+
+    private void deliver(List<Pending<T>> batch) {
+        List<T> messages = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) {
+            pending.attempts++;
+            messages.add(pending.message);
+        }
+
+        Set<T> retry = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            List<T> transientFailures = this.sender.send(messages);
+            if (transientFailures != null) {
+                retry.addAll(transientFailures);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("{} failed to send batch of {} messages: {}", this.name, messages.size(), e.toString());
+            retry.addAll(messages);
+        }
+
+        long now = System.nanoTime();
+        for (Pending<T> pending : batch) {
+            if (!retry.contains(pending.message)) {
+                recordLatency(now - pending.enqueuedAtNanos);
+            } else if (pending.attempts >= this.config.getMaxAttempts()) {
+                this.failed.incrementAndGet();
+                LOGGER.error("{} giving up on message after {} attempts: {}", this.name, pending.attempts,
+                        pending.message);
+            } else {
+                scheduleRetry(pending);
+            }
+        }
+    }
+
+    private void scheduleRetry(Pending<T> pending) {
+        long backoff = this.config.getInitialBackoffMillis() << (pending.attempts - 1);
+        long jitter = ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        this.retried.incrementAndGet();
+        this.awaitingRetry.incrementAndGet();
+        this.scheduler.schedule(() -> {
+            this.awaitingRetry.decrementAndGet();
+            if (!this.queue.offer(pending)) {
+                this.dropped.incrementAndGet();
+                LOGGER.error("{} delivery queue is full, dropping retried message {}", this.name, pending.message);
+            }
+        }, backoff + jitter, TimeUnit.MILLISECONDS);
+    }
+
+    private void recordLatency(long latencyNanos) {
+        this.delivered.incrementAndGet();
+        this.totalLatencyNanos.addAndGet(latencyNanos);
+        this.maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    public int getQueueDepth() {
+        return this.queue.size() + this.awaitingRetry.get();
+    }
+
+    public DeliveryStats getStats() {
+        long deliveredCount = this.delivered.get();
+        long averageLatency = deliveredCount == 0 ? 0 : this.totalLatencyNanos.get() / deliveredCount;
+        return new DeliveryStats(this.name, getQueueDepth(), deliveredCount, this.retried.get(),
+                this.failed.get(), this.dropped.get(), TimeUnit.NANOSECONDS.toMillis(averageLatency),
+                TimeUnit.NANOSECONDS.toMillis(this.maxLatencyNanos.get()));
+    }
+
+    /**
+     * Send whatever is still queued and stop the worker. Pending retries are abandoned.
+     */
+    public void shutdown() {
+        this.scheduler.shutdown();
+        try {
+            this.scheduler.awaitTermination(AWAIT_TERMINATION_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
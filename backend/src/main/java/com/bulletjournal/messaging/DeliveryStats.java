@@ -0,0 +1,81 @@
+package com.bulletjournal.messaging;
+
+public class DeliveryStats {
+
+    private String name;
+
+    private int queueDepth;
+
+    private long delivered;
+
+    private long retried;
+
+    private long failed;
+
+    private long dropped;
+
+    private long averageLatencyMillis;
+
+    private long maxLatencyMillis;
+
+    public DeliveryStats() {
+    }
+
+    public DeliveryStats(String name, int queueDepth, long delivered, long retried, long failed, long dropped,
+                         long averageLatencyMillis, long maxLatencyMillis) {
+        this.name = name;
+        this.queueDepth = queueDepth;
+        this.delivered = delivered;
+        this.retried = retried;
+        this.failed = failed;
+        this.dropped = dropped;
+        this.averageLatencyMillis = averageLatencyMillis;
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    public long getRetried() {
+        return retried;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getAverageLatencyMillis() {
+        return averageLatencyMillis;
+    }
+
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "DeliveryStats{" +
+                "name='" + name + '\'' +
+                ", queueDepth=" + queueDepth +
+                ", delivered=" + delivered +
+                ", retried=" + retried +
+                ", failed=" + failed +
+                ", dropped=" + dropped +
+                ", averageLatencyMillis=" + averageLatencyMillis +
+                ", maxLatencyMillis=" + maxLatencyMillis +
+                '}';
+    }
+}
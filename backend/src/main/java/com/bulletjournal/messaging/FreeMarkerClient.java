@@ -1,6 +1,7 @@
 package com.bulletjournal.messaging;
 
 import com.bulletjournal.clients.UserClient;
+import com.bulletjournal.config.ExportConfig;
 import com.bulletjournal.controller.models.Content;
 import com.bulletjournal.exceptions.ResourceNotFoundException;
 import com.bulletjournal.repository.UserAliasDaoJpa;
@@ -14,12 +15,19 @@ import freemarker.template.TemplateException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
 
+import javax.annotation.PostConstruct;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Component
@@ -32,6 +40,10 @@ public class FreeMarkerClient {
   private static final String TRANSACTION_EMAIL_TEMPLATE = "TransactionEmail.ftl";
   private static final String PROJECT_ITEM_PDF_TEMPLATE = "ProjectItemPdf.ftl";
   private static final String PROJECT_ITEM_IMAGE_TEMPLATE = "ProjectItemImage.ftl";
+  private static final List<String> PRECOMPILED_TEMPLATES = Arrays.asList(
+      NOTE_EMAIL_TEMPLATE, TASK_EMAIL_TEMPLATE, TRANSACTION_EMAIL_TEMPLATE,
+      PROJECT_ITEM_PDF_TEMPLATE, PROJECT_ITEM_IMAGE_TEMPLATE);
+  private static final int EMAIL_HTML_INITIAL_CAPACITY = 16 * 1024;
 
   // PDF Templates Properties
   private static final String PROJECT_ITEM_TYPE_DATA_PROPERTY = "project_item_type";
@@ -42,14 +54,29 @@ public class FreeMarkerClient {
   private final Configuration freemarkerConfig;
   private final UserClient userClient;
   private final UserAliasDaoJpa userAliasDaoJpa;
+  private final ExportConfig exportConfig;
+  private final Map<String, Template> templates = new ConcurrentHashMap<>();
 
   public FreeMarkerClient(
       Configuration freemarkerConfig,
       UserClient userClient,
-      UserAliasDaoJpa userAliasDaoJpa) {
+      UserAliasDaoJpa userAliasDaoJpa,
+      ExportConfig exportConfig) {
     this.freemarkerConfig = freemarkerConfig;
     this.userAliasDaoJpa = userAliasDaoJpa;
     this.userClient = userClient;
+    this.exportConfig = exportConfig;
+  }
+
+  /**
+   * Parse all export templates once so that rendering never goes through template lookup
+   */
+  @PostConstruct
+  public void loadTemplates() throws IOException {
+    for (String templateName : PRECOMPILED_TEMPLATES) {
+      this.templates.put(templateName, this.freemarkerConfig.getTemplate(templateName));
+    }
+    LOGGER.info("Precompiled {} freemarker templates", this.templates.size());
   }
 
   /**
@@ -88,43 +115,27 @@ public class FreeMarkerClient {
   }
 
   /**
-   * convert given project item to HTML for PDF conversion using.
+   * render given project item into HTML for PDF conversion using.
+   *
+   * @return rendered html, bounded by the configured export size
    */
-  public <T extends ProjectItemModel> String convertProjectItemIntoPdfHtml(
+  public <T extends ProjectItemModel> InputStream convertProjectItemIntoPdfHtml(
       T projectItem, List<Content> contents) throws IOException, TemplateException {
-    Map<String, Object> data = new HashMap<>();
-    data.put("contents", contents);
-
-    switch (projectItem.getContentType()) {
-      case NOTE:
-        Note note = (Note) projectItem;
-        data.put(PROJECT_ITEM_TYPE_DATA_PROPERTY, NOTE_TYPE_PROPERTY);
-        this.addNoteInfoToDataModel(data, note);
-        break;
-      case TASK:
-        Task task = (Task) projectItem;
-        data.put(PROJECT_ITEM_TYPE_DATA_PROPERTY, TASK_TYPE_PROPERTY);
-        this.addTaskInfoToDataModel(data, task);
-        break;
-      case TRANSACTION:
-        Transaction transaction = (Transaction) projectItem;
-        data.put(PROJECT_ITEM_TYPE_DATA_PROPERTY, TRANSACTION_TYPE_PROPERTY);
-        this.addTransactionInfoToDataModel(data, transaction);
-        break;
-      default:
-        LOGGER.error(
-            "ConvertProjectItemIntoPdfHtml failed. Unrecognized project item content type");
-        throw new ResourceNotFoundException(
-            "ConvertProjectItemIntoPdfHtml failed. Unrecognized project item content type");
-    }
-    return this.generateHtml(PROJECT_ITEM_PDF_TEMPLATE, data);
+    return this.renderHtml(PROJECT_ITEM_PDF_TEMPLATE, createExportDataModel(projectItem, contents));
   }
 
   /**
-   * convert given project item to HTML for PDF conversion using.
+   * render given project item into HTML for image conversion using.
+   *
+   * @return rendered html, bounded by the configured export size
    */
-  public <T extends ProjectItemModel> String convertProjectItemIntoImageHtml(
+  public <T extends ProjectItemModel> InputStream convertProjectItemIntoImageHtml(
           T projectItem, List<Content> contents) throws IOException, TemplateException {
+    return this.renderHtml(PROJECT_ITEM_IMAGE_TEMPLATE, createExportDataModel(projectItem, contents));
+  }
+
+  private <T extends ProjectItemModel> Map<String, Object> createExportDataModel(
+      T projectItem, List<Content> contents) {
     Map<String, Object> data = new HashMap<>();
     data.put("contents", contents);
 
@@ -146,11 +157,11 @@ public class FreeMarkerClient {
         break;
       default:
         LOGGER.error(
-                "ConvertProjectItemIntoPdfHtml failed. Unrecognized project item content type");
+            "ConvertProjectItemIntoPdfHtml failed. Unrecognized project item content type");
         throw new ResourceNotFoundException(
-                "ConvertProjectItemIntoPdfHtml failed. Unrecognized project item content type");
+            "ConvertProjectItemIntoPdfHtml failed. Unrecognized project item content type");
     }
-    return this.generateHtml(PROJECT_ITEM_IMAGE_TEMPLATE, data);
+    return data;
   }
 
   /**
@@ -164,8 +175,44 @@ public class FreeMarkerClient {
    */
   public String generateHtml(String templateName, Map<String, Object> data)
       throws IOException, TemplateException {
-    Template template = freemarkerConfig.getTemplate(templateName);
-    return FreeMarkerTemplateUtils.processTemplateIntoString(template, data);
+    StringWriter writer = new StringWriter(EMAIL_HTML_INITIAL_CAPACITY);
+    this.writeHtml(templateName, data, writer);
+    return writer.toString();
+  }
+
+  /**
+   * render HTML by template name && data into a bounded in-memory buffer
+   *
+   * @param templateName template name
+   * @param data         data passed to freemarker template
+   * @return rendered html as UTF-8 bytes
+   * @throws IOException       error when get template or rendered html is too large
+   * @throws TemplateException error when render html
+   */
+  public InputStream renderHtml(String templateName, Map<String, Object> data)
+      throws IOException, TemplateException {
+    BoundedHtmlOutputStream out = new BoundedHtmlOutputStream(this.exportConfig.getMaxHtmlSizeInBytes());
+    try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+      this.writeHtml(templateName, data, writer);
+    }
+    return out.toInputStream();
+  }
+
+  /**
+   * stream HTML by template name && data into given writer
+   */
+  public void writeHtml(String templateName, Map<String, Object> data, Writer writer)
+      throws IOException, TemplateException {
+    this.getTemplate(templateName).process(data, writer);
+  }
+
+  private Template getTemplate(String templateName) throws IOException {
+    Template template = this.templates.get(templateName);
+    if (template == null) {
+      template = this.freemarkerConfig.getTemplate(templateName);
+      this.templates.put(templateName, template);
+    }
+    return template;
   }
 
   /**
@@ -4,28 +4,30 @@ import com.openhtmltopdf.java2d.api.BufferedImagePageProcessor;
 import com.openhtmltopdf.java2d.api.Java2DRendererBuilder;
 import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
 import org.jsoup.Jsoup;
+import org.jsoup.helper.W3CDom;
 import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Entities;
 import org.springframework.core.io.ByteArrayResource;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 public class OpenHtmlConverter {
-  private static final PdfRendererBuilder PDF_BUILDER = new PdfRendererBuilder();
-  private static final Java2DRendererBuilder IMAGE_BUILDER = new Java2DRendererBuilder();
 
   /**
    * convert project item as pdf
    */
-  public static ByteArrayResource projectItemHtmlToPdf(String html) throws IOException {
+  public static ByteArrayResource projectItemHtmlToPdf(InputStream html) throws IOException {
     ByteArrayOutputStream os = new ByteArrayOutputStream();
 
-    PDF_BUILDER.withHtmlContent(htmlToXhtml(html), null);
-    PDF_BUILDER.toStream(os);
-    PDF_BUILDER.run();
+    // builders keep per-run state, so every conversion gets its own
+    PdfRendererBuilder pdfBuilder = new PdfRendererBuilder();
+    pdfBuilder.withW3cDocument(toW3cDocument(parseHtml(html)), null);
+    pdfBuilder.toStream(os);
+    pdfBuilder.run();
     return new ByteArrayResource(os.toByteArray());
   }
 
@@ -38,41 +40,46 @@ public class OpenHtmlConverter {
    *  - image inside [img] may cause unexpected error when export project item as image
    * </p>
    */
-  public static ByteArrayResource projectItemHtmlToImage(String html, double scale) throws Exception {
+  public static ByteArrayResource projectItemHtmlToImage(InputStream html, double scale) throws Exception {
     ByteArrayOutputStream os = new ByteArrayOutputStream();
 
-    String htmlWithoutImage = htmlToXhtml(html)
-            .replaceAll("<img .*? ((/>)|(</img>))", "");
+    Document document = parseHtml(html);
+    document.select("img").remove();
 
-    IMAGE_BUILDER.withHtmlContent(htmlWithoutImage, null);
-    IMAGE_BUILDER.useFastMode();
-    IMAGE_BUILDER.useEnvironmentFonts(true);
+    Java2DRendererBuilder imageBuilder = new Java2DRendererBuilder();
+    imageBuilder.withW3cDocument(toW3cDocument(document), null);
+    imageBuilder.useFastMode();
+    imageBuilder.useEnvironmentFonts(true);
 
     BufferedImagePageProcessor bufferedImagePageProcessor = new BufferedImagePageProcessor(
             BufferedImage.TYPE_INT_RGB, scale);
 
-    IMAGE_BUILDER.toSinglePage(bufferedImagePageProcessor);
-    IMAGE_BUILDER.runFirstPage();
+    imageBuilder.toSinglePage(bufferedImagePageProcessor);
+    imageBuilder.runFirstPage();
 
     ImageIO.write(bufferedImagePageProcessor.getPageImages().get(0), "png", os);
     return new ByteArrayResource(os.toByteArray());
   }
 
-  public static ByteArrayResource projectItemHtmlToImageForMobile(String html) throws Exception {
+  public static ByteArrayResource projectItemHtmlToImageForMobile(InputStream html) throws Exception {
       return projectItemHtmlToImage(html, 1);
   }
 
-  public static ByteArrayResource projectItemHtmlToImageForPC(String html) throws Exception {
+  public static ByteArrayResource projectItemHtmlToImageForPC(InputStream html) throws Exception {
     return projectItemHtmlToImage(html, 5);
   }
 
   /**
-   * convert coming html format info as xhtml
+   * parse rendered html straight from its byte stream
    */
-  private static String htmlToXhtml(String html) {
-    Document document = Jsoup.parse(html);
-    document.outputSettings().syntax(Document.OutputSettings.Syntax.xml);
-    document.outputSettings().escapeMode(Entities.EscapeMode.xhtml);
-    return document.html();
+  private static Document parseHtml(InputStream html) throws IOException {
+    return Jsoup.parse(html, StandardCharsets.UTF_8.name(), "");
+  }
+
+  /**
+   * hand parsed html to the renderer as a DOM instead of re-serializing it as xhtml
+   */
+  private static org.w3c.dom.Document toW3cDocument(Document document) {
+    return new W3CDom().fromJsoup(document);
   }
 }
@@ -1,10 +1,9 @@
 package com.bulletjournal.messaging.firebase;
 
+import com.bulletjournal.config.DeliveryConfig;
+import com.bulletjournal.messaging.DeliveryQueue;
+import com.bulletjournal.messaging.DeliveryStats;
 import com.bulletjournal.repository.DeviceTokenDaoJpa;
-import com.bulletjournal.util.CustomThreadFactory;
-import com.google.api.core.ApiFuture;
-import com.google.api.core.ApiFutureCallback;
-import com.google.api.core.ApiFutures;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
@@ -18,10 +17,9 @@ import org.springframework.stereotype.Component;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
@@ -33,7 +31,13 @@ public class FcmClient {
 
     private static final String TOKEN_REGISTRATION_ERROR = "registration-token-not-registered";
 
-    private static long AWAIT_TERMINATION_SECONDS = 5;
+    private static final List<String> RETRYABLE_ERRORS
+        = Arrays.asList("server-unavailable", "internal-error", "message-rate-exceeded");
+
+    // FCM accepts at most 500 messages per batch request
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private static final String BATCH_KEY = "fcm";
 
     private static final Notification DEFAULT_NOTIFICATION
         = Notification.builder().setTitle("Bullet Journal").setBody("You've got a new message.").build();
@@ -41,13 +45,17 @@ public class FcmClient {
     @Autowired
     private DeviceTokenDaoJpa deviceTokenDaoJpa;
 
-    private ExecutorService executorService;
+    @Autowired
+    private DeliveryConfig deliveryConfig;
+
+    private DeliveryQueue<FcmMessageParams> deliveryQueue;
 
     private FirebaseMessaging firebase;
 
     @PostConstruct
     public void initialize() {
-        this.executorService = Executors.newSingleThreadExecutor(new CustomThreadFactory("FcmMessaging"));
+        this.deliveryQueue = new DeliveryQueue<>(
+            "FcmMessaging", MAX_BATCH_SIZE, params -> BATCH_KEY, this::sendBatch, deliveryConfig);
         if (System.getenv(FCM_ACCOUNT_KEY) != null) {
             try {
                 FirebaseOptions options
@@ -76,44 +84,60 @@ public class FcmClient {
         if (paramsList == null || paramsList.isEmpty()) {
             return;
         }
-        LOGGER.info("Sending mobile notifications: {}", paramsList);
-        List<Message> messages
-            = paramsList.stream().map(this::getMessageFromParams).collect(Collectors.toList());
-        ApiFuture<BatchResponse> future
-            = firebase.sendAllAsync(messages);
-        ApiFutures.addCallback(future, new ApiFutureCallback<BatchResponse>() {
-            @Override
-            public void onFailure(Throwable t) {
-                LOGGER.warn("Failed to send messages: {}\nError: {}",
-                    paramsList, t.getMessage());
-            }
+        LOGGER.info("Queueing mobile notifications: {}", paramsList);
+        this.deliveryQueue.offer(paramsList);
+    }
 
-            @Override
-            public void onSuccess(BatchResponse result) {
-                processResponse(result, paramsList);
-            }
-        }, executorService);
+    public DeliveryStats getDeliveryStats() {
+        return this.deliveryQueue.getStats();
     }
 
-    private void processResponse(BatchResponse batchResponse, List<FcmMessageParams> messages) {
+    /**
+     * Blocking call to send one batch, runs on the delivery worker
+     *
+     * @return messages that failed transiently
+     */
+    private List<FcmMessageParams> sendBatch(List<FcmMessageParams> batch) throws FirebaseMessagingException {
+        List<Message> messages
+            = batch.stream().map(this::getMessageFromParams).collect(Collectors.toList());
+        return processResponse(firebase.sendAll(messages), batch);
+    }
+
+    private List<FcmMessageParams> processResponse(BatchResponse batchResponse, List<FcmMessageParams> messages) {
         LOGGER.info("Got batchResponse, succeeded: {}, failed: {}",
             batchResponse.getSuccessCount(), batchResponse.getFailureCount());
-        List<SendResponse> responses = batchResponse.getResponses();
-        for (int i = 0; i < responses.size(); ++i) {
-            SendResponse response = responses.get(i);
-            if (!response.isSuccessful()) {
+        List<String> errorCodes = batchResponse.getResponses().stream()
+            .map(response -> response.isSuccessful() ? null : response.getException().getErrorCode())
+            .collect(Collectors.toList());
+        return processErrors(messages, errorCodes);
+    }
+
+    /**
+     * Removes the tokens FCM no longer knows
+     *
+     * @param errorCodes error code of each message in order, null for delivered ones
+     * @return messages that failed transiently
+     */
+    List<FcmMessageParams> processErrors(List<FcmMessageParams> messages, List<String> errorCodes) {
+        List<FcmMessageParams> retry = new ArrayList<>();
+        List<String> invalidTokens = new ArrayList<>();
+        for (int i = 0; i < errorCodes.size(); ++i) {
+            String errorCode = errorCodes.get(i);
+            if (errorCode != null) {
                 LOGGER.warn("Failed to send Message with Error: '{}', message content: '{}'",
-                    response.getException().getErrorCode(), messages.get(i));
-                if (response.getException().getErrorCode().equals(TOKEN_REGISTRATION_ERROR)) {
-                    String invalidToken = messages.get(i).getToken();
-                    if (deviceTokenDaoJpa.deleteToken(invalidToken)) {
-                        LOGGER.info("Removed expired/invalid token {}.", invalidToken);
-                    } else {
-                        LOGGER.error("Expired/invalid token {} doesn't exist in db.", invalidToken);
-                    }
+                    errorCode, messages.get(i));
+                if (TOKEN_REGISTRATION_ERROR.equals(errorCode)) {
+                    invalidTokens.add(messages.get(i).getToken());
+                } else if (RETRYABLE_ERRORS.contains(errorCode)) {
+                    retry.add(messages.get(i));
                 }
             }
         }
+        if (!invalidTokens.isEmpty()) {
+            int removed = deviceTokenDaoJpa.deleteTokens(invalidTokens);
+            LOGGER.info("Removed {} of {} expired/invalid tokens.", removed, invalidTokens.size());
+        }
+        return retry;
     }
 
     private Message getMessageFromParams(FcmMessageParams fcmMessageParams) {
@@ -135,12 +159,8 @@ public class FcmClient {
 
     @PreDestroy
     public void preDestroy() {
-        if (executorService != null) {
-            try {
-                executorService.awaitTermination(AWAIT_TERMINATION_SECONDS, TimeUnit.SECONDS);
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-            }
+        if (deliveryQueue != null) {
+            deliveryQueue.shutdown();
         }
     }
 }
@@ -1,6 +1,8 @@
 package com.bulletjournal.messaging.mailjet;
 
-import com.bulletjournal.util.CustomThreadFactory;
+import com.bulletjournal.config.DeliveryConfig;
+import com.bulletjournal.messaging.DeliveryQueue;
+import com.bulletjournal.messaging.DeliveryStats;
 import com.mailjet.client.ClientOptions;
 import com.mailjet.client.MailjetClient;
 import com.mailjet.client.MailjetRequest;
@@ -13,13 +15,14 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.*;
 
 @Component
 public class MailjetEmailClient {
@@ -36,17 +39,35 @@ public class MailjetEmailClient {
 
     private static final String SENDER_NAME_VAR = "SENDER_NAME";
 
-    private static final long AWAIT_TERMINATION_SECONDS = 5;
-
     private static final int SUCCESS_STATUS = 200;
 
+    private static final int TOO_MANY_REQUESTS_STATUS = 429;
+
+    private static final int SERVER_ERROR_STATUS = 500;
+
+    private static final String MESSAGES_KEY = "Messages";
+
+    private static final String STATUS_KEY = "Status";
+
+    private static final String ERRORS_KEY = "Errors";
+
+    private static final String STATUS_CODE_KEY = "StatusCode";
+
+    private static final String MESSAGE_SUCCESS = "success";
+
+    // Send API v3.1 accepts at most 50 messages per request
+    private static final int MAX_BATCH_SIZE = 50;
+
     private String senderEmail;
 
     private String senderName;
 
     private MailjetClient client;
 
-    private ExecutorService executorService;
+    @Autowired
+    private DeliveryConfig deliveryConfig;
+
+    private DeliveryQueue<MailjetEmailParams> deliveryQueue;
 
     public enum Template {
         TASK_DUE_NOTIFICATION(1625167),
@@ -69,7 +90,8 @@ public class MailjetEmailClient {
 
     @PostConstruct
     private void initializeMailjetClient() {
-        this.executorService = Executors.newSingleThreadExecutor(new CustomThreadFactory("EmailClient"));
+        this.deliveryQueue = new DeliveryQueue<>(
+            "EmailClient", MAX_BATCH_SIZE, MailjetEmailParams::getTemplate, this::sendBatch, deliveryConfig);
         if (System.getenv(API_KEY_PUBLIC) != null
             && System.getenv(SENDER_EMAIL_VAR) != null
             && System.getenv(SENDER_NAME_VAR) != null
@@ -94,34 +116,101 @@ public class MailjetEmailClient {
     }
 
 
-    public List<Future<MailjetResponse>> sendAllEmailAsync(List<MailjetEmailParams> paramsList) {
+    public void sendAllEmailAsync(List<MailjetEmailParams> paramsList) {
         if (client == null) {
             LOGGER.error("Mailjet key not set up, skip sending email.");
-            return null;
+            return;
         }
-        List<Future<MailjetResponse>> ret = new ArrayList<>();
         if (paramsList == null || paramsList.isEmpty()) {
-            return ret;
-        }
-        LOGGER.info("Sending emails: {}", paramsList);
-        for (MailjetEmailParams params : paramsList) {
-            CompletableFuture<MailjetResponse> future = new CompletableFuture<>();
-            executorService.submit(() -> {
-                try {
-                    MailjetResponse response = sendEmail(getReuqestFromParams(params));
-                    if (response.getStatus() != SUCCESS_STATUS) {
-                        LOGGER.error("Failed to send email, code:'{}', response:'{}'",
-                            response.getStatus(), response.getData());
-                    }
-                    future.complete(response);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    future.completeExceptionally(e);
-                }
-            });
-            ret.add(future);
-        }
-        return ret;
+            return;
+        }
+        LOGGER.info("Queueing emails: {}", paramsList);
+        this.deliveryQueue.offer(paramsList);
+    }
+
+    public DeliveryStats getDeliveryStats() {
+        return this.deliveryQueue.getStats();
+    }
+
+    /**
+     * Blocking call to send emails sharing one template in a single request, runs on the delivery worker
+     *
+     * @return emails that failed transiently
+     */
+    private List<MailjetEmailParams> sendBatch(List<MailjetEmailParams> batch)
+        throws MailjetSocketTimeoutException, MailjetException {
+        JSONArray messages = new JSONArray();
+        for (MailjetEmailParams params : batch) {
+            messages.put(getMessageFromParams(params));
+        }
+        MailjetResponse response = sendEmail(new MailjetRequest(Emailv31.resource)
+            .property(Emailv31.MESSAGES, messages));
+        if (response.getStatus() == SUCCESS_STATUS) {
+            return Collections.emptyList();
+        }
+        LOGGER.error("Failed to send emails, code:'{}', response:'{}'",
+            response.getStatus(), response.getData());
+        return getTransientFailures(batch, response.getStatus(), response.getData());
+    }
+
+    /**
+     * Picks the emails worth retrying from a failed send. Send API v3.1 reports a Status per message,
+     * in request order, so messages that went out are not sent twice and permanently rejected ones are
+     * dropped. The whole batch is only retried when the request was rejected before any message outcome.
+     *
+     * @param status HTTP status of the send request
+     * @param data   response data of the send request
+     * @return emails that failed transiently
+     */
+    static <T> List<T> getTransientFailures(List<T> batch, int status, JSONArray data) {
+        JSONArray results = getMessageResults(data);
+        if (results == null || results.length() != batch.size()) {
+            return isTransientStatus(status) ? batch : Collections.emptyList();
+        }
+        List<T> retry = new ArrayList<>();
+        for (int i = 0; i < results.length(); i++) {
+            JSONObject result = results.optJSONObject(i);
+            if (result == null || MESSAGE_SUCCESS.equals(result.optString(STATUS_KEY))) {
+                continue;
+            }
+            JSONArray errors = result.optJSONArray(ERRORS_KEY);
+            boolean transientError = errors == null || errors.length() == 0
+                ? isTransientStatus(status) : hasTransientError(errors);
+            if (transientError) {
+                retry.add(batch.get(i));
+            } else {
+                LOGGER.error("Dropping email {}, errors:'{}'", batch.get(i), errors);
+            }
+        }
+        return retry;
+    }
+
+    /**
+     * @return per message results, or null if the response has none
+     */
+    private static JSONArray getMessageResults(JSONArray data) {
+        if (data == null || data.length() == 0) {
+            return null;
+        }
+        JSONObject body = data.optJSONObject(0);
+        if (body != null && body.has(MESSAGES_KEY)) {
+            return body.optJSONArray(MESSAGES_KEY);
+        }
+        return data;
+    }
+
+    private static boolean hasTransientError(JSONArray errors) {
+        for (int i = 0; i < errors.length(); i++) {
+            JSONObject error = errors.optJSONObject(i);
+            if (error != null && isTransientStatus(error.optInt(STATUS_CODE_KEY))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTransientStatus(int status) {
+        return status == TOO_MANY_REQUESTS_STATUS || status >= SERVER_ERROR_STATUS;
     }
 
     /**
@@ -134,7 +223,7 @@ public class MailjetEmailClient {
         return response;
     }
 
-    private MailjetRequest getReuqestFromParams(MailjetEmailParams params) {
+    private JSONObject getMessageFromParams(MailjetEmailParams params) {
         JSONArray receivers = new JSONArray();
         for (Pair<String, String> receiver : params.getReceivers()) {
             receivers.put(
@@ -162,19 +251,13 @@ public class MailjetEmailClient {
             properties.put(Emailv31.Message.VARIABLES, variables);
         }
         LOGGER.info("email properties: {}", properties);
-        MailjetRequest request = new MailjetRequest(Emailv31.resource)
-            .property(Emailv31.MESSAGES, new JSONArray().put(properties));
-        return request;
+        return properties;
     }
 
     @PreDestroy
     public void preDestroy() {
-        if (executorService != null) {
-            try {
-                executorService.awaitTermination(AWAIT_TERMINATION_SECONDS, TimeUnit.SECONDS);
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-            }
+        if (deliveryQueue != null) {
+            deliveryQueue.shutdown();
         }
     }
 }
@@ -0,0 +1,47 @@
+package com.bulletjournal.notifications;
+
+import com.bulletjournal.util.ExponentialBackoff;
+
+public class BookingCreation {
+    private static final long RETRY_INITIAL_BACKOFF_MILLIS = 1000;
+    private static final long RETRY_MAX_BACKOFF_MILLIS = 60000;
+
+    private String bookingId;
+    private int attempts;
+    private final ExponentialBackoff backoff =
+            new ExponentialBackoff(RETRY_INITIAL_BACKOFF_MILLIS, RETRY_MAX_BACKOFF_MILLIS);
+
+    public BookingCreation(String bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(String bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Counts a failed attempt
+     *
+     * @return delay before the next attempt
+     */
+    public long nextRetryDelayMillis() {
+        this.attempts++;
+        return this.backoff.nextDelayMillis();
+    }
+
+    @Override
+    public String toString() {
+        return "BookingCreation{" +
+                "bookingId='" + bookingId + '\'' +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
@@ -27,7 +27,9 @@ import java.util.stream.Collectors;
 @Service
 public class NotificationService {
     private static final Logger LOGGER = LoggerFactory.getLogger(NotificationService.class);
+    private static final int BOOKING_COMPLETION_MAX_ATTEMPTS = 5;
     private final ExecutorService executorService;
+    private final ScheduledExecutorService retryExecutorService;
     private final BlockingQueue<Object> eventQueue;
     private final NotificationDaoJpa notificationDaoJpa;
     private final AuditableDaoJpa auditableDaoJpa;
@@ -71,6 +73,10 @@ public class NotificationService {
     @Autowired
     private CompletedTaskRepository completedTaskRepository;
 
+    @Lazy
+    @Autowired
+    private BookingDaoJpa bookingDaoJpa;
+
     @Autowired
     public NotificationService(NotificationDaoJpa notificationDaoJpa, AuditableDaoJpa auditableDaoJpa,
                                SearchIndexDaoJpa searchIndexDaoJpa, RedisEtagDaoJpa redisEtagDaoJpa) {
@@ -79,14 +85,42 @@ public class NotificationService {
         this.searchIndexDaoJpa = searchIndexDaoJpa;
         this.redisEtagDaoJpa = redisEtagDaoJpa;
         this.executorService = Executors.newSingleThreadExecutor(new CustomThreadFactory("notification-service"));
+        this.retryExecutorService = Executors.newSingleThreadScheduledExecutor(
+                new CustomThreadFactory("notification-retry"));
         this.eventQueue = new LinkedBlockingQueue<>();
     }
 
     @PostConstruct
     public void postConstruct() {
+        this.executorService.submit(this::resumeIncompleteBookings);
         this.executorService.submit(() -> this.handleNotifications());
     }
 
+    /**
+     * Bookings claimed before a restart, or whose completion gave up, have no task yet
+     */
+    private void resumeIncompleteBookings() {
+        try {
+            List<String> bookingIds = this.bookingDaoJpa.getIncompleteBookingIds();
+            if (!bookingIds.isEmpty()) {
+                LOGGER.info("Resuming {} incomplete bookings", bookingIds.size());
+                bookingIds.forEach(bookingId -> this.eventQueue.offer(new BookingCreation(bookingId)));
+            }
+        } catch (Exception ex) {
+            LOGGER.error("Error on resuming incomplete bookings", ex);
+        }
+    }
+
+    private void retryBookingCreation(BookingCreation bookingCreation) {
+        if (bookingCreation.getAttempts() + 1 >= BOOKING_COMPLETION_MAX_ATTEMPTS) {
+            LOGGER.error("Giving up on {}, it stays incomplete until the next restart", bookingCreation);
+            return;
+        }
+        long delay = bookingCreation.nextRetryDelayMillis();
+        LOGGER.info("Retrying {} in {} ms", bookingCreation, delay);
+        this.retryExecutorService.schedule(() -> completeBooking(bookingCreation), delay, TimeUnit.MILLISECONDS);
+    }
+
     public void inform(Informed informed) {
         LOGGER.info("Received informed: " + informed);
         if (informed.getEvents().isEmpty()) {
@@ -167,12 +201,12 @@ public class NotificationService {
         this.eventQueue.offer(sampleTaskChange);
     }
 
-    public void handleImportSampleTasksEvent(ImportSampleTasksEvent event) {
-        LOGGER.info("Received ImportSampleTasksEvent: {}", event);
-        if (event == null) {
+    public void completeBooking(BookingCreation bookingCreation) {
+        LOGGER.info("Received bookingCreation: {}", bookingCreation);
+        if (bookingCreation == null) {
             return;
         }
-        this.eventQueue.offer(event);
+        this.eventQueue.offer(bookingCreation);
     }
 
     // CHECKSTYLE:OFF
@@ -204,7 +238,7 @@ public class NotificationService {
             List<ContentBatch> contentBatches = new ArrayList<>();
             List<SampleProjectsCreation> sampleProjectsCreations = new ArrayList<>();
             List<SampleTaskChange> sampleTaskChanges = new ArrayList<>();
-            List<ImportSampleTasksEvent> importSampleTasksEvents = new ArrayList<>();
+            List<BookingCreation> bookingCreations = new ArrayList<>();
             events.forEach((e) -> {
                 if (e instanceof Informed) {
                     informeds.add((Informed) e);
@@ -236,8 +270,8 @@ public class NotificationService {
                     sampleProjectsCreations.add((SampleProjectsCreation) e);
                 } else if (e instanceof SampleTaskChange) {
                     sampleTaskChanges.add((SampleTaskChange) e);
-                } else if (e instanceof ImportSampleTasksEvent) {
-                    importSampleTasksEvents.add((ImportSampleTasksEvent) e);
+                } else if (e instanceof BookingCreation) {
+                    bookingCreations.add((BookingCreation) e);
                 }
             });
             try {
@@ -334,18 +368,12 @@ public class NotificationService {
                 }
             }
 
-            for (ImportSampleTasksEvent importSampleTasksEvent : importSampleTasksEvents) {
+            for (BookingCreation bookingCreation : bookingCreations) {
                 try {
-                    this.taskDaoJpa.createTaskFromSampleTask(
-                            importSampleTasksEvent.getImportTasksParams().getProjectId(),
-                            importSampleTasksEvent.getRequester(),
-                            importSampleTasksEvent.getSampleTasks(),
-                            importSampleTasksEvent.getRepoSampleTasks(),
-                            importSampleTasksEvent.getImportTasksParams().getReminderBefore(),
-                            importSampleTasksEvent.getImportTasksParams().getAssignees(),
-                            importSampleTasksEvent.getImportTasksParams().getLabels());
+                    this.bookingDaoJpa.completeBooking(bookingCreation.getBookingId());
                 } catch (Exception ex) {
-                    LOGGER.error("Error on SampleTaskChange", ex);
+                    LOGGER.error("Error on BookingCreation", ex);
+                    retryBookingCreation(bookingCreation);
                 }
             }
             events = new ArrayList<>();
@@ -356,6 +384,7 @@ public class NotificationService {
     @PreDestroy
     public void preDestroy() {
         this.stop = true;
+        this.retryExecutorService.shutdownNow();
         if (executorService != null) {
             try {
                 // wait 5 seconds for closing all threads
@@ -10,6 +10,7 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -25,6 +26,9 @@ public class AuditableDaoJpa {
     @Autowired
     private ProjectDaoJpa projectDaoJpa;
 
+    @Autowired
+    private PartitionDaoJpa partitionDaoJpa;
+
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public void create(List<com.bulletjournal.notifications.Auditable> auditables) {
         this.auditableRepository.saveAll(
@@ -64,8 +68,17 @@ public class AuditableDaoJpa {
         return auditables.stream().map(a -> a.toActivity()).collect(Collectors.toList());
     }
 
+    /**
+     * Moves the monthly project history partitions that ended before expirationTime to the archive
+     * schema, history is kept for up to a month longer instead of deleting row by row.
+     * Task, note and transaction history is never expired.
+     *
+     * @return number of partitions archived
+     */
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
-    public void deleteAllExpiredHistory(Timestamp expirationTime) {
-        this.auditableRepository.deleteByUpdatedAtBefore(expirationTime);
+    public int deleteAllExpiredHistory(Timestamp expirationTime) {
+        LocalDate before = expirationTime.toLocalDateTime().toLocalDate().withDayOfMonth(1);
+        return this.partitionDaoJpa.detachMonthlyPartitions(
+                PartitionDaoJpa.AUDITABLES, before, PartitionDaoJpa.ARCHIVE_SCHEMA);
     }
 }
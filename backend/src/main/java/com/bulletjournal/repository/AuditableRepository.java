@@ -3,11 +3,9 @@ package com.bulletjournal.repository;
 import com.bulletjournal.contents.ContentAction;
 import com.bulletjournal.repository.models.Auditable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
 import java.util.List;
@@ -43,8 +41,4 @@ public interface AuditableRepository extends JpaRepository<Auditable, Long> {
             + "auditable.activityTime >= :startTime AND auditable.activityTime <= :endTime")
     List<Auditable> findAuditablesBetweenAllActionsAllUsers(@Param("projectId") Long projectId,
                                                             @Param("startTime") Timestamp startTime, @Param("endTime") Timestamp endTime);
-
-    @Modifying
-    @Transactional
-    void deleteByUpdatedAtBefore(Timestamp expiryTime);
 }
@@ -5,6 +5,8 @@ import com.bulletjournal.controller.models.Invitee;
 import com.bulletjournal.controller.models.ReminderSetting;
 import com.bulletjournal.controller.models.params.CreateTaskParams;
 import com.bulletjournal.controller.utils.ZonedDateTimeHelper;
+import com.bulletjournal.exceptions.BadRequestException;
+import com.bulletjournal.exceptions.ResourceAlreadyExistException;
 import com.bulletjournal.exceptions.ResourceNotFoundException;
 import com.bulletjournal.messaging.MessagingService;
 import com.bulletjournal.repository.models.Booking;
@@ -18,6 +20,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +33,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Repository
@@ -59,10 +63,17 @@ public class BookingDaoJpa {
     @Autowired
     private MessagingService messagingService;
 
+    /**
+     * Claim the slot for invitees. The unique index on (booking_link_id, slot_date, slot_index) lets only one
+     * concurrent request win; task creation and emails are done later by {@link #completeBooking(String)}.
+     */
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public Booking book(BookingLink bookingLink,
                         List<Invitee> invitees,
                         String location, String note, String slotDate, int slotIndex, String requesterTimezone, String startTime, String endTime, String displayDate) {
+        if (invitees == null || invitees.isEmpty()) {
+            throw new BadRequestException("Booking requires at least one invitee");
+        }
         Booking booking = new Booking();
         booking.setId(RandomStringUtils.randomAlphabetic(8));
         booking.setInvitees(GSON.toJson(invitees));
@@ -76,9 +87,41 @@ public class BookingDaoJpa {
         booking.setEndTime(endTime);
         booking.setDisplayDate(displayDate);
 
+        try {
+            booking = this.bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ResourceAlreadyExistException(
+                    "Slot " + slotIndex + " on " + slotDate + " of booking link " + bookingLink.getId() + " is already booked");
+        }
+
+        if (bookingLink.isExpireOnBooking()) {
+            bookingLink.setRemoved(true);
+            this.bookingLinkRepository.save(bookingLink);
+        }
+        return booking;
+    }
+
+    /**
+     * Create the owner's task for a claimed booking and send booking emails. Runs after {@link #book} commits.
+     * The booking row is locked so that a concurrent cancel either sees the task or removes the booking first.
+     */
+    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
+    public void completeBooking(String bookingId) {
+        Optional<Booking> claimed = this.bookingRepository.findBookingForUpdate(bookingId);
+        if (!claimed.isPresent()) {
+            LOGGER.info("Booking {} cancelled before completion", bookingId);
+            return;
+        }
+        Booking booking = claimed.get();
+        if (booking.getTask() != null) {
+            return;
+        }
+        BookingLink bookingLink = booking.getBookingLink();
+        List<Invitee> invitees = Arrays.asList(GSON.fromJson(booking.getInvitees(), Invitee[].class));
+
         List<String> assignees = ImmutableList.of(bookingLink.getOwner());
-        ZonedDateTime zonedTime = ZonedDateTimeHelper.getStartTime(slotDate, null, bookingLink.getTimezone())
-                .plusMinutes(slotIndex * bookingLink.getSlotSpan());
+        ZonedDateTime zonedTime = ZonedDateTimeHelper.getStartTime(booking.getSlotDate(), null, bookingLink.getTimezone())
+                .plusMinutes(booking.getSlotIndex() * bookingLink.getSlotSpan());
 
         String ownerBookMeName = this.userDaoJpa.getBookMeUsername(bookingLink.getOwner());
 
@@ -89,7 +132,7 @@ public class BookingDaoJpa {
         CreateTaskParams createTaskParams = new CreateTaskParams(
                 ownerBookMeName + " and "
                         + primaryInvitee.getFirstName() + " " + primaryInvitee.getLastName(),
-                slotDate,
+                booking.getSlotDate(),
                 ZonedDateTimeHelper.getTime(zonedTime),
                 bookingLink.getSlotSpan(),
                 reminderSetting,
@@ -97,26 +140,28 @@ public class BookingDaoJpa {
                 bookingLink.getTimezone(),
                 null,
                 new ArrayList<>(),
-                location
+                booking.getLocation()
         );
 
-        String deltaNote = "{\"delta\": {\"ops\": [" + prependInfoToNote(note, bookingLink, invitees, ownerBookMeName)
+        String deltaNote = "{\"delta\": {\"ops\": [" + prependInfoToNote(booking.getNote(), bookingLink, invitees, ownerBookMeName)
                 + prependLinkInContent(booking, ownerBookMeName);
         deltaNote += "]}}";
 
         Task task = taskDaoJpa.create(
                 bookingLink.getProject().getId(), bookingLink.getOwner(), createTaskParams, deltaNote);
         booking.setTask(task);
-        booking = bookingRepository.save(booking);
-        if (bookingLink.isExpireOnBooking()) {
-            bookingLink.setRemoved(true);
-        }
-        this.bookingLinkRepository.save(bookingLink);
+        this.bookingRepository.save(booking);
 
         // send booking email
         createContentAndSend(false, zonedTime, booking, bookingLink);
+    }
 
-        return booking;
+    /**
+     * @return ids of claimed bookings whose task has not been created yet
+     */
+    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
+    public List<String> getIncompleteBookingIds() {
+        return this.bookingRepository.findIncompleteBookingIds();
     }
 
     private String prependInfoToNote(String note, BookingLink bookingLink, List<Invitee> invitees, String ownerBookMeName) {
@@ -168,7 +213,8 @@ public class BookingDaoJpa {
         // send cancel email
         BookingLink bookingLink = this.bookingLinkRepository.findById(bookingLinkId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking link " + bookingLinkId + " not found"));
-        Booking booking = this.bookingRepository.findById(bookingId)
+        // wait for an in-flight completeBooking so that its task is deleted along with the booking
+        Booking booking = this.bookingRepository.findBookingForUpdate(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking " + bookingId + " not found"));
 
         ZonedDateTime zonedTime = ZonedDateTimeHelper.getStartTime(booking.getSlotDate(), null, bookingLink.getTimezone())
@@ -2,9 +2,21 @@ package com.bulletjournal.repository;
 
 import com.bulletjournal.repository.models.Booking;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, String> {
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = ?1")
+    Optional<Booking> findBookingForUpdate(String id);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.task IS NULL")
+    List<String> findIncompleteBookingIds();
 }
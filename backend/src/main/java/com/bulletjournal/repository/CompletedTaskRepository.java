@@ -4,6 +4,7 @@ import com.bulletjournal.repository.models.CompletedTask;
 import com.bulletjournal.repository.models.Project;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,25 +23,36 @@ public interface CompletedTaskRepository extends JpaRepository<CompletedTask, Lo
 
     @Query(value = "SELECT * FROM completed_tasks WHERE completed_tasks.project_id = :projectId AND "
             + "completed_tasks.created_at >= :startTime AND completed_tasks.created_at <= :endTime AND "
-            + ":assignee = ANY(completed_tasks.assignees)", nativeQuery = true)
+            + "completed_tasks.assignees @> ARRAY[CAST(:assignee AS text)]", nativeQuery = true)
     List<CompletedTask> findCompletedTaskByAssigneeBetween(@Param("projectId") Long projectId,
                                                            @Param("assignee") String assignee, @Param("startTime") Timestamp startTime,
                                                            @Param("endTime") Timestamp endTime);
 
-    @Query(value = "SELECT * FROM completed_tasks WHERE completed_tasks.project_id in :projectIds AND " +
-            "completed_tasks.created_at >= to_timestamp(:startTime, 'YYYY-MM-DD HH24:MI:SS') AND " +
-            "completed_tasks.created_at <= to_timestamp(:endTime, 'YYYY-MM-DD HH24:MI:SS')",
-    nativeQuery = true)
-    List<CompletedTask> findCompletedTaskWithProjectIdStartTimeEndTime(List<Long> projectIds, String startTime, String endTime);
-
-    @Query(value = "SELECT * FROM completed_tasks WHERE completed_tasks.project_id in :projectIds AND " +
-            "completed_tasks.created_at >= to_timestamp(:startTime, 'YYYY-MM-DD HH24:MI:SS')", nativeQuery = true)
-    List<CompletedTask> findCompletedTaskWithProjectIdStartTime(List<Long> projectIds, String startTime);
-
-    @Query(value = "SELECT * FROM completed_tasks WHERE completed_tasks.project_id in :projectIds AND " +
-            "completed_tasks.created_at <= to_timestamp(:endTime, 'YYYY-MM-DD HH24:MI:SS')", nativeQuery = true)
-    List<CompletedTask> findCompletedTaskWithProjectIdEndTime(List<Long> projectIds, String endTime);
-
-    @Query(value = "SELECT * FROM completed_tasks WHERE completed_tasks.project_id in :projectIds", nativeQuery = true)
-    List<CompletedTask> findCompletedTaskWithProjectId(List<Long> projectIds);
+    @Query("SELECT completedTask FROM CompletedTask completedTask WHERE completedTask.project.id IN :projectIds AND "
+            + "completedTask.createdAt >= :startTime AND completedTask.createdAt <= :endTime")
+    List<CompletedTask> findCompletedTaskWithProjectIdStartTimeEndTime(@Param("projectIds") List<Long> projectIds,
+                                                                       @Param("startTime") Timestamp startTime,
+                                                                       @Param("endTime") Timestamp endTime);
+
+    @Query("SELECT completedTask FROM CompletedTask completedTask WHERE completedTask.project.id IN :projectIds AND "
+            + "completedTask.createdAt >= :startTime")
+    List<CompletedTask> findCompletedTaskWithProjectIdStartTime(@Param("projectIds") List<Long> projectIds,
+                                                                @Param("startTime") Timestamp startTime);
+
+    @Query("SELECT completedTask FROM CompletedTask completedTask WHERE completedTask.project.id IN :projectIds AND "
+            + "completedTask.createdAt <= :endTime")
+    List<CompletedTask> findCompletedTaskWithProjectIdEndTime(@Param("projectIds") List<Long> projectIds,
+                                                              @Param("endTime") Timestamp endTime);
+
+    @Query("SELECT completedTask FROM CompletedTask completedTask WHERE completedTask.project.id IN :projectIds")
+    List<CompletedTask> findCompletedTaskWithProjectId(@Param("projectIds") List<Long> projectIds);
+
+    /**
+     * Deletes by the full primary key so only the partition of the completion month is touched,
+     * a delete by id alone scans every monthly partition
+     */
+    @Modifying
+    @Query("DELETE FROM CompletedTask completedTask WHERE completedTask.id = :id AND "
+            + "completedTask.createdAt = :createdAt")
+    int deleteByIdAndCreatedAt(@Param("id") Long id, @Param("createdAt") Timestamp createdAt);
 }
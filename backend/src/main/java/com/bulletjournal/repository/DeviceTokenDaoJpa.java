@@ -43,6 +43,19 @@ public class DeviceTokenDaoJpa {
         return false;
     }
 
+    /**
+     * Remove all given tokens in a single statement
+     *
+     * @return number of tokens removed
+     */
+    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
+    public int deleteTokens(Collection<String> tokens) {
+        if (tokens.isEmpty()) {
+            return 0;
+        }
+        return deviceTokenRepository.deleteDeviceTokensByTokens(tokens);
+    }
+
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public List<DeviceToken> getTokensByUser(String userName) {
         return deviceTokenRepository.findDeviceTokensByUser(userName);
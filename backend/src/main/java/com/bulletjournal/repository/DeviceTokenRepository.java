@@ -2,9 +2,11 @@ package com.bulletjournal.repository;
 
 import com.bulletjournal.repository.models.DeviceToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -18,4 +20,8 @@ public interface DeviceTokenRepository extends JpaRepository<DeviceToken, Long>
 
     @Query("SELECT t FROM DeviceToken t WHERE t.username IN ?1")
     List<DeviceToken> findDeviceTokensByUsers(Set<String> usernames);
+
+    @Modifying
+    @Query("DELETE FROM DeviceToken t WHERE t.token IN ?1")
+    int deleteDeviceTokensByTokens(Collection<String> tokens);
 }
@@ -1,29 +1,23 @@
 package com.bulletjournal.repository;
 
 import com.bulletjournal.calendars.google.CalendarWatchedProject;
-import com.bulletjournal.calendars.google.Util;
-import com.bulletjournal.clients.GoogleCalClient;
-import com.bulletjournal.clients.UserClient;
 import com.bulletjournal.controller.models.ProjectType;
 import com.bulletjournal.exceptions.BadRequestException;
 import com.bulletjournal.exceptions.ResourceNotFoundException;
 import com.bulletjournal.repository.models.GoogleCalendarProject;
 import com.bulletjournal.repository.models.Project;
 import com.google.api.client.json.gson.GsonFactory;
-import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.model.Channel;
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
 import java.sql.Timestamp;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Repository
@@ -35,8 +29,6 @@ public class GoogleCalendarProjectDaoJpa {
     private GoogleCalendarProjectRepository googleCalendarProjectRepository;
     @Autowired
     private ProjectDaoJpa projectDaoJpa;
-    @Autowired
-    private GoogleCalClient googleCalClient;
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public GoogleCalendarProject create(String calendarId, Long projectId, String channelId,
@@ -89,45 +81,23 @@ public class GoogleCalendarProjectDaoJpa {
         return this.googleCalendarProjectRepository.save(googleCalendarProject);
     }
 
-    @Deprecated
+    /**
+     * @return calendar id and owner of every watch expiring before expiration
+     */
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
-    public void renewExpiringGoogleCalendarWatch() throws IOException {
-        long expirationTime = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1);
-        List<String> expiringGoogleCalendarProjectIds =
-                this.googleCalendarProjectRepository.getByExpirationBefore(new Timestamp(expirationTime))
-                        .stream().map(p -> p.getId()).collect(Collectors.toList());
-        Channel createdChannel;
-        for (String googleCalendarProjectId : expiringGoogleCalendarProjectIds) {
-            GoogleCalendarProject googleCalendarProject =
-                    this.googleCalendarProjectRepository.findById(googleCalendarProjectId).get();
-            MDC.put(UserClient.USER_NAME_KEY, googleCalendarProject.getOwner());
-            Calendar service = this.googleCalClient.getCalendarService();
-            Calendar.Events.Watch watch = service.events().watch(googleCalendarProjectId, Util.getChannel());
-            LOGGER.info("Created watch {}", watch);
-            createdChannel = watch.execute();
-
-            googleCalendarProject.setChannelId(createdChannel.getId());
-            googleCalendarProject.setExpiration(new Timestamp(createdChannel.getExpiration()));
-            googleCalendarProject.setChannel(GSON.toString(createdChannel));
-            googleCalendarProjectRepository.save(googleCalendarProject);
-            LOGGER.info("Renew GoogleCalendarProject {}", googleCalendarProject);
-        }
+    public List<Pair<String, String>> getExpiringWatches(Timestamp expiration) {
+        return this.googleCalendarProjectRepository.findIdAndOwnerByExpirationBefore(expiration).stream()
+                .map(row -> Pair.of((String) row[0], (String) row[1]))
+                .collect(Collectors.toList());
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
-    public void renewGoogleCalendarWatch(String googleCalendarProjectId) throws IOException {
-        LOGGER.info("Got googleCalendarProjectId {}", googleCalendarProjectId);
-        GoogleCalendarProject googleCalendarProject =
-                googleCalendarProjectRepository.findById(googleCalendarProjectId).get();
-        MDC.put(UserClient.USER_NAME_KEY, googleCalendarProject.getOwner());
-        Calendar service = googleCalClient.getCalendarService();
-        Calendar.Events.Watch watch = service.events().watch(googleCalendarProjectId, Util.getChannel());
-        LOGGER.info("Created watch {}", watch);
-        Channel createdChannel = watch.execute();
-        googleCalendarProject.setChannelId(createdChannel.getId());
-        googleCalendarProject.setExpiration(new Timestamp(createdChannel.getExpiration()));
-        googleCalendarProject.setChannel(GSON.toString(createdChannel));
-        googleCalendarProjectRepository.save(googleCalendarProject);
-        LOGGER.info("Renew GoogleCalendarProject {}, googleCalendarProjectId {}", googleCalendarProject, googleCalendarProjectId);
+    public GoogleCalendarProject updateChannel(String calendarId, Channel channel) {
+        GoogleCalendarProject googleCalendarProject = get(calendarId);
+        googleCalendarProject.setChannelId(channel.getId());
+        googleCalendarProject.setExpiration(new Timestamp(channel.getExpiration()));
+        googleCalendarProject.setChannel(GSON.toString(channel));
+        LOGGER.info("Renew GoogleCalendarProject {}", googleCalendarProject);
+        return this.googleCalendarProjectRepository.save(googleCalendarProject);
     }
-}
\ No newline at end of file
+}
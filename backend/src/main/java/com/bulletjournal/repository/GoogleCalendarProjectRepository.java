@@ -3,6 +3,8 @@ package com.bulletjournal.repository;
 import com.bulletjournal.repository.models.GoogleCalendarProject;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,4 +22,7 @@ public interface GoogleCalendarProjectRepository extends JpaRepository<GoogleCal
     List<GoogleCalendarProject> getByExpirationBefore(Timestamp expiryTime);
 
     List<GoogleCalendarProject> findByOwner(String owner);
+
+    @Query("SELECT g.id, g.owner FROM GoogleCalendarProject g WHERE g.expiration < :expiration")
+    List<Object[]> findIdAndOwnerByExpirationBefore(@Param("expiration") Timestamp expiration);
 }
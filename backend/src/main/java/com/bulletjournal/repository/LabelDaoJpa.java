@@ -11,12 +11,14 @@ import com.bulletjournal.exceptions.ResourceAlreadyExistException;
 import com.bulletjournal.exceptions.ResourceNotFoundException;
 import com.bulletjournal.repository.models.*;
 import com.bulletjournal.repository.utils.DaoHelper;
-import com.google.common.collect.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,6 +26,8 @@ import java.util.stream.Collectors;
 @Repository
 public class LabelDaoJpa {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(LabelDaoJpa.class);
+
     private static final Map<String, String> DEFAULT_LABELS = new HashMap<String, String>() {
         {
             put("Utility", "BankOutlined");
@@ -129,29 +133,14 @@ public class LabelDaoJpa {
 
         this.labelRepository.delete(label);
 
-        List<Task> tasks = this.taskRepository.findTasksByLabelId(labelId);
-        tasks.stream().forEach(task -> task
-                .setLabels(task.getLabels().stream().filter(id -> !Objects.equals(id, labelId))
-                        .collect(Collectors.toList())));
-        this.taskRepository.saveAll(tasks);
-
-        List<Transaction> transactions = this.transactionRepository.findTransactionsByLabelId(labelId);
-        transactions.stream().forEach(transaction -> transaction
-                .setLabels(transaction.getLabels().stream().filter(id -> !Objects.equals(id, labelId))
-                        .collect(Collectors.toList())));
-        this.transactionRepository.saveAll(transactions);
-
-        List<Note> notes = this.noteRepository.findNotesByLabelId(labelId);
-        notes.stream().forEach(note -> note
-                .setLabels(note.getLabels().stream().filter(id -> !Objects.equals(id, labelId))
-                        .collect(Collectors.toList())));
-        this.noteRepository.saveAll(notes);
-
-        List<SharedProjectItem> sharedProjectItems = this.sharedProjectItemRepository
-                .findSharedProjectItemsByLabelIds(requester, ImmutableList.of(labelId));
-        sharedProjectItems.forEach(item -> item.setLabels(item.getLabels()
-                .stream().filter(id -> !Objects.equals(id, labelId)).collect(Collectors.toList())));
-        this.sharedProjectItemRepository.saveAll(sharedProjectItems);
+        // one set-based statement per table instead of loading and saving every labeled item
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int tasks = this.taskRepository.removeLabel(labelId, now);
+        int transactions = this.transactionRepository.removeLabel(labelId, now);
+        int notes = this.noteRepository.removeLabel(labelId, now);
+        int sharedProjectItems = this.sharedProjectItemRepository.removeLabel(requester, labelId, now);
+        LOGGER.info("Removed label {} from {} tasks, {} transactions, {} notes and {} shared items",
+                labelId, tasks, transactions, notes, sharedProjectItems);
     }
 
     /**
@@ -168,6 +157,9 @@ public class LabelDaoJpa {
      */
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public List<ProjectItems> getItemsByLabels(String timezone, List<Long> labels, String requester) {
+        if (labels == null || labels.isEmpty()) {
+            return Collections.emptyList();
+        }
         Map<ZonedDateTime, ProjectItems> projectItemsMap = new HashMap<>();
 
         // Query project items from its own repository
@@ -2,7 +2,9 @@ package com.bulletjournal.repository;
 
 import com.bulletjournal.controller.utils.ZonedDateTimeHelper;
 import com.bulletjournal.notifications.ProjectItemAuditable;
+import com.bulletjournal.repository.models.Note;
 import com.bulletjournal.repository.models.NoteAuditable;
+import com.bulletjournal.repository.utils.DaoHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -32,19 +34,21 @@ public class NoteAuditableDaoJpa {
 
   @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
   public Page<NoteAuditable> getHistory(
-      Long noteId, int pageInd, int pageSize, String startDate, String endDate, String timezone) {
+      Note note, int pageInd, int pageSize, String startDate, String endDate, String timezone) {
 
     if (startDate != null && endDate != null && timezone != null) {
       ZonedDateTime startTime = ZonedDateTimeHelper.getStartTime(startDate, null, timezone);
       ZonedDateTime endTime = ZonedDateTimeHelper.getEndTime(endDate, null, timezone);
       return this.noteAuditableRepository.findAllByNoteIdAndActivityTimeBetween(
-          noteId,
+          note.getId(),
           Timestamp.from(startTime.toInstant()),
           Timestamp.from(endTime.toInstant()),
           PageRequest.of(pageInd, pageSize, Sort.by("activityTime").descending()));
     }
 
-    return this.noteAuditableRepository.findAllByNoteId(
-        noteId, PageRequest.of(pageInd, pageSize, Sort.by("activityTime").descending()));
+    return this.noteAuditableRepository.findAllByNoteIdAndActivityTimeGreaterThanEqual(
+        note.getId(),
+        DaoHelper.getEarliestActivityTime(note),
+        PageRequest.of(pageInd, pageSize, Sort.by("activityTime").descending()));
   }
 }
@@ -10,7 +10,8 @@ import java.sql.Timestamp;
 
 @Repository
 public interface NoteAuditableRepository extends PagingAndSortingRepository<NoteAuditable, Long> {
-    Page<NoteAuditable> findAllByNoteId(Long noteId, Pageable pageable);
+    Page<NoteAuditable> findAllByNoteIdAndActivityTimeGreaterThanEqual(
+            Long noteId, Timestamp activityTimeStart, Pageable pageable);
 
     Page<NoteAuditable> findAllByNoteIdAndActivityTimeBetween(
             Long noteId, Timestamp activityTimeStart, Timestamp activityTimeEnd, Pageable pageable);
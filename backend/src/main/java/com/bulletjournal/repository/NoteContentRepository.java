@@ -14,6 +14,10 @@ import java.util.List;
 public interface NoteContentRepository extends JpaRepository<NoteContent, Long> {
     List<NoteContent> findNoteContentByNote(Note note);
 
+    @Query("SELECT new com.bulletjournal.repository.models.NoteContent(noteContent.id, noteContent.owner, noteContent.text, "
+            + "noteContent.createdAt, noteContent.updatedAt) FROM NoteContent noteContent WHERE noteContent.note = :note")
+    List<NoteContent> findNoteContentTextsByNote(@Param("note") Note note);
+
     @Query("SELECT noteContent FROM NoteContent noteContent WHERE noteContent.updatedAt >= :startTime AND noteContent.updatedAt <= :endTime")
     List<NoteContent> findRecentNoteContentsBetween(@Param("startTime") Timestamp startTime,
                                                     @Param("endTime") Timestamp endTime);
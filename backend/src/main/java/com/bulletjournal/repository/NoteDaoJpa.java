@@ -33,8 +33,6 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.ZonedDateTime;
@@ -48,8 +46,6 @@ public class NoteDaoJpa extends ProjectItemDaoJpa<NoteContent> {
     private static final Logger LOGGER = LoggerFactory.getLogger(NoteDaoJpa.class);
     private static final Gson GSON = new Gson();
 
-    @PersistenceContext
-    EntityManager entityManager;
     @Autowired
     private NoteRepository noteRepository;
     @Autowired
@@ -297,6 +293,11 @@ public class NoteDaoJpa extends ProjectItemDaoJpa<NoteContent> {
         return this.noteContentRepository.findNoteContentByNote((Note) projectItem);
     }
 
+    @Override
+    public <T extends ProjectItemModel> List<NoteContent> findContentTexts(T projectItem) {
+        return this.noteContentRepository.findNoteContentTextsByNote((Note) projectItem);
+    }
+
     @Override
     public NoteContent newContent(String text) {
         return new NoteContent(text);
@@ -308,28 +309,15 @@ public class NoteDaoJpa extends ProjectItemDaoJpa<NoteContent> {
     }
 
     @Override
-    List<Task> findRecentProjectItemsBetween(Timestamp startTime, Timestamp endTime, List projects) {
-        return this.noteRepository.findNotesBetween(startTime, endTime, projects);
+    List<Note> findProjectItemsWithProject(Collection<Long> ids) {
+        return this.noteRepository.findAllWithProjectByIdIn(ids);
     }
 
     @Override
-    public List<Object[]> findRecentProjectItemContentsBetween(Timestamp startTime, Timestamp endTime, List projectIds) {
-        StringBuilder queryBuilder = new StringBuilder(
-                "SELECT notes_join_note_contents.id, notes_join_note_contents.most_recent_time " +
-                        "FROM notes_join_note_contents " +
-                        "WHERE notes_join_note_contents.most_recent_time >= ? " +
-                        "AND notes_join_note_contents.most_recent_time <= ? " +
-                        "AND notes_join_note_contents.project_id IN (");
-        projectIds.stream().forEach(pi -> queryBuilder.append(pi).append(","));
-        int tail = queryBuilder.length() - 1;
-        if (queryBuilder.charAt(tail) == ',') {
-            queryBuilder.deleteCharAt(tail);
-        }
-        queryBuilder.append(")");
-        return entityManager.createNativeQuery(queryBuilder.toString())
-                .setParameter(1, startTime)
-                .setParameter(2, endTime)
-                .getResultList();
+    List<Object[]> findRecentProjectItemIdsBetween(
+            Timestamp startTime, Timestamp endTime, List<Long> projectIds, Integer limit) {
+        return DaoHelper.findRecentProjectItemIds(this.entityManager, "notes", "note_contents", "note_id",
+                startTime, endTime, projectIds, limit);
     }
 
     public List<String> getDeleteESDocumentIdsForProjectItem(String requester, Long noteId) {
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -24,9 +25,6 @@ public interface NoteRepository extends JpaRepository<Note, Long>, NoteRepositor
     List<Note> findNotesBetween(@Param("project") Project project, @Param("startTime") Timestamp startTime,
                                 @Param("endTime") Timestamp endTime);
 
-    @Query(value = "SELECT note FROM Note note WHERE " +
-            "note.project IN (:projects) AND note.updatedAt >= :startTime AND note.updatedAt <= :endTime")
-    List<Note> findNotesBetween(@Param("startTime") Timestamp startTime,
-                                @Param("endTime") Timestamp endTime,
-                                @Param("projects") List<Project> projects);
-}
\ No newline at end of file
+    @Query("SELECT note FROM Note note JOIN FETCH note.project WHERE note.id IN :ids")
+    List<Note> findAllWithProjectByIdIn(@Param("ids") Collection<Long> ids);
+}
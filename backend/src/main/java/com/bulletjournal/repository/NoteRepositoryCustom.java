@@ -2,10 +2,18 @@ package com.bulletjournal.repository;
 
 import com.bulletjournal.repository.models.Note;
 
+import java.sql.Timestamp;
 import java.util.List;
 
 public interface NoteRepositoryCustom {
     List<Note> findNotesByLabelIds(List<Long> labelIds);
 
     List<Note> findNotesByLabelId(Long labelId);
+
+    /**
+     * Removes the label from all notes
+     *
+     * @return number of rows updated
+     */
+    int removeLabel(Long labelId, Timestamp updatedAt);
 }
@@ -1,6 +1,7 @@
 package com.bulletjournal.repository;
 
 import com.bulletjournal.repository.models.Note;
+import com.bulletjournal.repository.utils.DaoHelper;
 import com.google.common.collect.ImmutableList;
 import org.springframework.stereotype.Repository;
 
@@ -8,6 +9,8 @@ import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.transaction.Transactional;
+import java.sql.Timestamp;
+import java.util.Collections;
 import java.util.List;
 
 @Repository
@@ -19,11 +22,11 @@ public class NoteRepositoryImpl implements NoteRepositoryCustom {
 
     @Override
     public List<Note> findNotesByLabelIds(List<Long> labelIds) {
-        StringBuilder queryString = new StringBuilder("SELECT * FROM notes WHERE ? = ANY(notes.labels)");
-        for (int i = 1; i < labelIds.size(); i++) {
-            queryString.append(" and ? = ANY(notes.labels)");
+        if (labelIds.isEmpty()) {
+            return Collections.emptyList();
         }
-        Query query = entityManager.createNativeQuery(queryString.toString(), Note.class);
+        String queryString = "SELECT * FROM notes WHERE " + DaoHelper.labelsContainAll("notes.labels", labelIds.size());
+        Query query = entityManager.createNativeQuery(queryString, Note.class);
         for (int i = 1; i <= labelIds.size(); i++) {
             query.setParameter(i, labelIds.get(i - 1));
         }
@@ -34,4 +37,10 @@ public class NoteRepositoryImpl implements NoteRepositoryCustom {
     public List<Note> findNotesByLabelId(Long labelId) {
         return findNotesByLabelIds(ImmutableList.of(labelId));
     }
+
+    @Override
+    public int removeLabel(Long labelId, Timestamp updatedAt) {
+        return DaoHelper.createRemoveLabelQuery(entityManager, Note.class, "notes", "", labelId, updatedAt)
+                .executeUpdate();
+    }
 }
@@ -1,8 +1,9 @@
 package com.bulletjournal.repository;
 
 import com.bulletjournal.clients.UserClient;
-import com.bulletjournal.config.NotificationConfig;
+import com.bulletjournal.controller.models.User;
 import com.bulletjournal.controller.utils.EtagGenerator;
+import com.bulletjournal.exceptions.BadRequestException;
 import com.bulletjournal.messaging.MessagingService;
 import com.bulletjournal.notifications.Action;
 import com.bulletjournal.notifications.informed.Informed;
@@ -17,6 +18,10 @@ import com.bulletjournal.templates.repository.SampleTaskNotificationsRepository;
 import com.bulletjournal.templates.repository.model.SampleTaskNotification;
 import com.bulletjournal.util.StringUtil;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.gson.Gson;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -24,20 +29,28 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 @Repository
 public class NotificationDaoJpa implements Etaggable {
 
     private static final Gson GSON = new Gson();
-    private static final long MAX_NOTIFICATIONS_COUNT_PER_USER = 100;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String CURSOR_SEPARATOR = "_";
+    private static final int MAX_CACHED_ACTIONS = 64;
+    private static final Cache<String, List<String>> ACTION_DESCRIPTIONS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_ACTIONS)
+            .build();
     private static final Logger LOGGER = LoggerFactory.getLogger(NotificationDaoJpa.class);
     @Autowired
     private NotificationRepository notificationRepository;
@@ -51,25 +64,44 @@ public class NotificationDaoJpa implements Etaggable {
     private SampleTaskNotificationsRepository sampleTaskNotificationsRepository;
     @Autowired
     private MessagingService messagingService;
-    @Autowired
-    private NotificationConfig notificationConfig;
 
     public List<com.bulletjournal.controller.models.Notification> getNotifications(String username) {
-        long count = this.notificationRepository.countNotificationsByTargetUser(username);
-        int maxRetentionTimeInDays = notificationConfig.getCleaner().getMaxRetentionTimeInDays();
-        while (count > MAX_NOTIFICATIONS_COUNT_PER_USER && maxRetentionTimeInDays >= 0) {
-            LOGGER.warn("{} has {} notifications!", username, count);
-            long expirationTime = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(--maxRetentionTimeInDays);
-            count -= deleteAllExpiredNotifications(new Timestamp(expirationTime));
+        return getNotifications(username, null, DEFAULT_PAGE_SIZE).getLeft();
+    }
+
+    /**
+     * Get one page of username's inbox, newest first by (created_at, id).
+     *
+     * @param username the target user
+     * @param cursor   cursor returned with the previous page, null for the first page
+     * @param limit    page size
+     * @return Pair - notifications of this page and the cursor of the next page, null if this is the last page
+     */
+    public Pair<List<com.bulletjournal.controller.models.Notification>, String> getNotifications(
+            String username, String cursor, int limit) {
+        limit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable page = PageRequest.of(0, limit);
+        List<Notification> notifications;
+        if (cursor == null) {
+            notifications = this.notificationRepository.findInbox(username, page);
+        } else {
+            Pair<Timestamp, Long> position = parseCursor(cursor);
+            notifications = this.notificationRepository.findInboxBefore(
+                    username, position.getLeft(), position.getRight(), page);
+        }
+        String nextCursor = null;
+        if (notifications.size() == limit) {
+            Notification last = notifications.get(notifications.size() - 1);
+            nextCursor = last.getCreatedAt().getTime() + CURSOR_SEPARATOR + last.getId();
         }
-        List<Notification> notifications = this.notificationRepository.findByTargetUser(username);
+
+        Map<String, User> originators = this.userClient.getUsers(
+                notifications.stream().map(Notification::getOriginator).collect(Collectors.toSet()));
         List<com.bulletjournal.controller.models.Notification> returnNotifications = notifications.stream().map(n -> {
             com.bulletjournal.controller.models.Notification notification = n.toPresentationModel();
-            notification.setOriginator(this.userClient.getUser(n.getOriginator()));
+            notification.setOriginator(originators.get(n.getOriginator()));
             if (n.getActions() != null) {
-                Action[] actions = GSON.fromJson(n.getActions(), Action[].class);
-                notification.setActions(
-                        Arrays.asList(actions).stream().map(a -> a.getDescription()).collect(Collectors.toList()));
+                notification.setActions(getActionDescriptions(n.getActions()));
             }
             return notification;
         }).sorted((a, b) -> {
@@ -84,7 +116,31 @@ public class NotificationDaoJpa implements Etaggable {
             }
             return b.getTimestamp().compareTo(a.getTimestamp());
         }).collect(Collectors.toList());
-        return returnNotifications;
+        return new ImmutablePair<>(returnNotifications, nextCursor);
+    }
+
+    private static Pair<Timestamp, Long> parseCursor(String cursor) {
+        int separator = cursor.indexOf(CURSOR_SEPARATOR);
+        try {
+            return new ImmutablePair<>(new Timestamp(Long.parseLong(cursor.substring(0, separator))),
+                    Long.parseLong(cursor.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid notification cursor " + cursor);
+        }
+    }
+
+    /**
+     * Actions are stored as a JSON array of a handful of distinct values, parse each distinct payload once
+     */
+    private static List<String> getActionDescriptions(String actions) {
+        try {
+            return ACTION_DESCRIPTIONS.get(actions, () -> Collections.unmodifiableList(
+                    Arrays.stream(GSON.fromJson(actions, Action[].class)).map(Action::getDescription)
+                            .collect(Collectors.toList())));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException("Unable to parse actions " + actions, e.getCause());
+        }
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
@@ -139,12 +195,18 @@ public class NotificationDaoJpa implements Etaggable {
         });
     }
 
-    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
-    public long deleteAllExpiredNotifications(Timestamp expirationTime) {
-        if (this.notificationRepository.countNotificationsByUpdatedAtBefore(expirationTime) > 0) {
-            return this.notificationRepository.deleteByUpdatedAtBefore(expirationTime);
-        }
-        return 0;
+    /**
+     * Delete notifications not updated since expirationTime. Each batch commits on its own so that inbox reads
+     * and inserts are never blocked behind one long delete.
+     */
+    public long deleteAllExpiredNotifications(Timestamp expirationTime, int batchSize) {
+        long deleted = 0;
+        int count;
+        do {
+            count = this.notificationRepository.deleteExpiredBatch(expirationTime, batchSize);
+            deleted += count;
+        } while (count == batchSize);
+        return deleted;
     }
 
     @Override
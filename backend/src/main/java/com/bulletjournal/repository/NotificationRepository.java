@@ -1,8 +1,11 @@
 package com.bulletjournal.repository;
 
 import com.bulletjournal.repository.models.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,6 +16,17 @@ import java.util.List;
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByTargetUser(String targetUser);
 
+    @Query("SELECT n FROM Notification n WHERE n.targetUser = :targetUser ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInbox(@Param("targetUser") String targetUser, Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.targetUser = :targetUser AND "
+            + "(n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxBefore(@Param("targetUser") String targetUser,
+                                       @Param("createdAt") Timestamp createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
     long countNotificationsByTargetUser(String targetUser);
 
     long countNotificationsByUpdatedAtBefore(Timestamp timestamp);
@@ -21,6 +35,12 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Transactional
     long deleteByUpdatedAtBefore(Timestamp expiryTime);
 
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM notifications WHERE id IN "
+            + "(SELECT id FROM notifications WHERE updated_at < :expiryTime LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("expiryTime") Timestamp expiryTime, @Param("batchSize") int batchSize);
+
     @Modifying
     @Transactional
     void deleteByTargetUser(String targetUser);
@@ -0,0 +1,62 @@
+package com.bulletjournal.repository;
+
+import com.google.common.collect.ImmutableList;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintains tables range partitioned by month, see create_monthly_partition and
+ * detach_monthly_partitions in the migrations
+ */
+@Repository
+public class PartitionDaoJpa {
+
+    public static final String COMPLETED_TASKS = "completed_tasks";
+
+    public static final String AUDITABLES = "auditables";
+
+    public static final List<String> AUDIT_TABLES = ImmutableList.of(
+            AUDITABLES, "task_auditables", "note_auditables", "transaction_auditables");
+
+    public static final String ARCHIVE_SCHEMA = "archive";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Creates the partition of the month containing the given date, if missing
+     *
+     * @return true if the partition was created
+     */
+    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
+    public boolean createMonthlyPartition(String table, LocalDate month) {
+        return (Boolean) this.entityManager
+                .createNativeQuery("SELECT create_monthly_partition(:parent, CAST(:month AS date))")
+                .setParameter("parent", table)
+                .setParameter("month", Date.valueOf(month))
+                .getSingleResult();
+    }
+
+    /**
+     * Detaches the monthly partitions ending on or before the given date
+     *
+     * @param archiveSchema schema the partitions are moved to, or null to drop them
+     * @return number of partitions detached
+     */
+    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
+    public int detachMonthlyPartitions(String table, LocalDate before, String archiveSchema) {
+        return ((Number) this.entityManager
+                .createNativeQuery("SELECT detach_monthly_partitions(:parent, CAST(:before AS date), CAST(:archiveSchema AS text))")
+                .setParameter("parent", table)
+                .setParameter("before", Date.valueOf(before))
+                .setParameter("archiveSchema", archiveSchema)
+                .getSingleResult()).intValue();
+    }
+}
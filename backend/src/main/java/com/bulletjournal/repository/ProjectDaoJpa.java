@@ -43,8 +43,6 @@ public class ProjectDaoJpa {
     @Autowired
     private UserProjectsRepository userProjectsRepository;
     @Autowired
-    private UserDaoJpa userDaoJpa;
-    @Autowired
     private AuthorizationService authorizationService;
     @Autowired
     private UserGroupRepository userGroupRepository;
@@ -105,47 +103,42 @@ public class ProjectDaoJpa {
         List<String> owners = sharedProjectRelations == null ? new ArrayList<>() :
                 Arrays.asList(GSON.fromJson(sharedProjectRelations, String[].class));
 
+        // owners in the saved order first, then the ones not ordered yet
+        Set<String> orderedOwners = new LinkedHashSet<>();
+        owners.stream().filter(projectIds::containsKey).forEach(orderedOwners::add);
+        orderedOwners.addAll(projectIds.keySet());
+
         List<ProjectsWithOwner> result = new ArrayList<>();
-        for (String projectOwner : owners) {
-            Set<Long> projectsByOwner = projectIds.remove(projectOwner);
-            addProjectsByOwner(projectOwner, projectsByOwner, result);
+        if (orderedOwners.isEmpty()) {
+            return Pair.of(result, projects);
         }
 
-        for (Map.Entry<String, Set<Long>> entry : projectIds.entrySet()) {
-            String projectOwner = entry.getKey();
-            addProjectsByOwner(projectOwner, entry.getValue(), result);
+        Map<String, UserProjects> userProjectsByOwner = this.userProjectsRepository.findAllById(orderedOwners)
+                .stream().collect(Collectors.toMap(UserProjects::getOwner, u -> u));
+        Set<Long> sharedProjectIds = projectIds.values().stream().flatMap(Set::stream).collect(Collectors.toSet());
+        Map<String, List<Project>> summariesByOwner = this.projectRepository.findSummariesByIdIn(sharedProjectIds)
+                .stream().collect(Collectors.groupingBy(Project::getOwner));
+
+        for (String projectOwner : orderedOwners) {
+            List<com.bulletjournal.controller.models.Project> l = getOwnerProjects(
+                    userProjectsByOwner.getOrDefault(projectOwner, new UserProjects()),
+                    summariesByOwner.getOrDefault(projectOwner, Collections.emptyList()));
+            if (!l.isEmpty()) {
+                result.add(new ProjectsWithOwner(new com.bulletjournal.controller.models.User(projectOwner), l));
+            }
         }
 
         return Pair.of(result, projects);
     }
 
-    private void addProjectsByOwner(String o, Set<Long> projectsByOwner,
-                                    List<ProjectsWithOwner> result) {
-        if (projectsByOwner == null) {
-            return;
-        }
-
-        List<com.bulletjournal.controller.models.Project> l = getOwnerProjects(
-                this.userProjectsRepository.findById(o).orElse(new UserProjects()), o, projectsByOwner);
-        if (l.isEmpty()) {
-            return;
-        }
-
-        result.add(new ProjectsWithOwner(new com.bulletjournal.controller.models.User(o), l));
-    }
-
     private List<com.bulletjournal.controller.models.Project> getOwnerProjects(
             UserProjects userProjects, String owner) {
-        return getOwnerProjects(userProjects, owner, null);
+        return getOwnerProjects(userProjects, this.projectRepository.findSummariesByOwner(owner));
     }
 
     private List<com.bulletjournal.controller.models.Project> getOwnerProjects(
-            UserProjects userProjects, String owner, Set<Long> projectFilter) {
+            UserProjects userProjects, List<Project> projects) {
         List<com.bulletjournal.controller.models.Project> ret = new ArrayList<>();
-        List<Project> projects = this.projectRepository.findByOwner(owner);
-        if (projectFilter != null) {
-            projects = projects.stream().filter(p -> projectFilter.contains(p.getId())).collect(Collectors.toList());
-        }
         if (userProjects.getOwnedProjects() != null) {
             Set<Long> existingIds = projects.stream().map(p -> p.getId()).collect(Collectors.toSet());
             // left is real hierarchy but missing orphaned ones, right is processed ones
@@ -392,17 +385,7 @@ public class ProjectDaoJpa {
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public List<Project> getUserProjects(String username) {
-        List<Project> result = new ArrayList<>();
-        User user = this.userDaoJpa.getByName(username);
-        for (UserGroup userGroup : user.getGroups()) {
-            if (!userGroup.isAccepted()) {
-                continue;
-            }
-            Group group = userGroup.getGroup();
-            result.addAll(group.getProjects().stream().filter(p -> !p.isShared()).collect(Collectors.toList()));
-        }
-
-        return result;
+        return this.projectRepository.findNonSharedProjectsOfAcceptedUser(username);
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
@@ -29,6 +29,7 @@ import com.bulletjournal.repository.models.UserGroup;
 import com.bulletjournal.util.ContentDiffTool;
 import com.bulletjournal.util.DeltaContent;
 import com.bulletjournal.util.MapWithExpiration;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
 import org.apache.commons.lang3.StringUtils;
@@ -41,6 +42,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.math.BigInteger;
 import java.sql.Timestamp;
 import java.time.Instant;
@@ -73,11 +76,11 @@ public abstract class ProjectItemDaoJpa<K extends ContentModel> {
     @Autowired
     private ContentDiffTool contentDiffTool;
     @Autowired
-    private ProjectRepository projectRepository;
-    @Autowired
     protected NotificationService notificationService;
     @Autowired
     private DaemonServiceClient daemonServiceClient;
+    @PersistenceContext
+    EntityManager entityManager;
 
     private final MapWithExpiration contentUpdateLock = new MapWithExpiration();
 
@@ -87,6 +90,8 @@ public abstract class ProjectItemDaoJpa<K extends ContentModel> {
 
     abstract <T extends ProjectItemModel> List<K> findContents(T projectItem);
 
+    abstract <T extends ProjectItemModel> List<K> findContentTexts(T projectItem);
+
     public abstract K newContent(String text);
 
     abstract List<Long> findItemLabelsByProject(com.bulletjournal.repository.models.Project project);
@@ -212,6 +217,16 @@ public abstract class ProjectItemDaoJpa<K extends ContentModel> {
         this.notificationService.addContentBatch(left);
     }
 
+    /**
+     * Adds the i-th content to the i-th saved project item with one batched insert
+     */
+    protected <T extends ProjectItemModel> void addContents(List<T> projectItems, String owner, List<K> contents) {
+        for (int i = 0; i < contents.size(); i++) {
+            populateContent(owner, contents.get(i), projectItems.get(i));
+        }
+        this.getContentJpaRepository().saveAll(contents);
+    }
+
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public <T extends ProjectItemModel> Pair<ContentModel, T> addContent(Long projectItemId, String owner, K content) {
         T projectItem = getProjectItem(projectItemId, owner);
@@ -460,61 +475,107 @@ public abstract class ProjectItemDaoJpa<K extends ContentModel> {
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public <T extends ProjectItemModel> List<K> getContents(Long projectItemId, String requester) {
         T projectItem = getProjectItem(projectItemId, requester);
-        List<K> contents = this.findContents(projectItem);
-        String contentsOrder = projectItem.getContentsOrder();
+        return orderContents(projectItem.getContentsOrder(), this.findContents(projectItem));
+    }
+
+    /**
+     * Get Contents for project without loading their revisions, for callers that only need the current text.
+     * Returned contents must not be saved.
+     *
+     * @param projectItemId the project item id
+     * @param requester     the username of action requester
+     */
+    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
+    public <T extends ProjectItemModel> List<K> getContentTexts(Long projectItemId, String requester) {
+        T projectItem = getProjectItem(projectItemId, requester);
+        List<K> contents = this.findContentTexts(projectItem);
+        contents.forEach(content -> content.setProjectItem(projectItem));
+        return orderContents(projectItem.getContentsOrder(), contents);
+    }
+
+    /**
+     * Contents missing from contentsOrder first, newest first, followed by the ordered ones.
+     * Ordered contents are placed by their position in contentsOrder so this stays linear.
+     */
+    @VisibleForTesting
+    static <K extends ContentModel> List<K> orderContents(String contentsOrder, List<K> contents) {
         if (contentsOrder == null) {
             return contents.stream().sorted((a, b) -> b.getUpdatedAt().compareTo(a.getUpdatedAt()))
                     .collect(Collectors.toList());
         }
 
-        List<Long> order = Arrays.asList(GSON.fromJson(contentsOrder, Long[].class));
-        Set<Long> set = new HashSet<>(order);
-        List<K> notInOrderContents = contents.stream()
-                .filter(c -> !set.contains(c.getId())).sorted((a, b) -> b.getUpdatedAt().compareTo(a.getUpdatedAt()))
-                .collect(Collectors.toList());
-        List<K> inOrderContents = contents.stream()
-                .filter(c -> set.contains(c.getId())).sorted(Comparator.comparingInt(a -> order.indexOf(a.getId())))
-                .collect(Collectors.toList());
-        notInOrderContents.addAll(inOrderContents);
+        Long[] order = GSON.fromJson(contentsOrder, Long[].class);
+        Map<Long, Integer> positions = new HashMap<>(order.length * 2);
+        for (int i = 0; i < order.length; i++) {
+            positions.putIfAbsent(order[i], i);
+        }
+        List<K> notInOrderContents = new ArrayList<>();
+        List<K> inOrderContents = new ArrayList<>(Collections.nCopies(order.length, null));
+        for (K content : contents) {
+            Integer position = positions.get(content.getId());
+            if (position == null) {
+                notInOrderContents.add(content);
+            } else {
+                inOrderContents.set(position, content);
+            }
+        }
+        notInOrderContents.sort((a, b) -> b.getUpdatedAt().compareTo(a.getUpdatedAt()));
+        for (K content : inOrderContents) {
+            if (content != null) {
+                notInOrderContents.add(content);
+            }
+        }
         return notInOrderContents;
     }
 
-    abstract <T extends ProjectItemModel> List<T> findRecentProjectItemsBetween(Timestamp startTime, Timestamp endTime, List projects);
+    abstract <T extends ProjectItemModel> List<T> findProjectItemsWithProject(Collection<Long> ids);
 
-    abstract List<Object[]> findRecentProjectItemContentsBetween(Timestamp startTime, Timestamp endTime, List projectIds);
+    abstract List<Object[]> findRecentProjectItemIdsBetween(
+            Timestamp startTime, Timestamp endTime, List<Long> projectIds, Integer limit);
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public <T extends ProjectItemModel> List<T> getRecentProjectItemsBetween(Timestamp startTime, Timestamp endTime, List<Long> projectIds) {
+        return getRecentProjectItemsBetween(startTime, endTime, projectIds, null);
+    }
+
+    /**
+     * Items updated, or with contents updated, between startTime and endTime, newest first.
+     * <p>
+     * updatedAt of each item is set to the most recent of those update times. One query finds the ids and one
+     * loads the items with their projects, whatever the number of items. Items are detached first so the
+     * adjusted updatedAt is never flushed.
+     * </p>
+     *
+     * @param limit maximum number of items, null for all
+     */
+    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
+    public <T extends ProjectItemModel> List<T> getRecentProjectItemsBetween(
+            Timestamp startTime, Timestamp endTime, List<Long> projectIds, Integer limit) {
         if (projectIds == null || projectIds.isEmpty()) {
             return Collections.emptyList();
         }
-        Map<Long, T> projectItemIdMap = new HashMap<>();
+        Map<Long, Timestamp> mostRecentTimes = new LinkedHashMap<>();
+        for (Object[] row : this.findRecentProjectItemIdsBetween(startTime, endTime, projectIds, limit)) {
+            mostRecentTimes.put(((BigInteger) row[0]).longValue(), (Timestamp) row[1]);
+        }
+        if (mostRecentTimes.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-        List<T> projectItemModels = this.findRecentProjectItemsBetween(startTime, endTime,
-                projectRepository.findAllById(projectIds));
-        projectItemModels.forEach(item -> projectItemIdMap.put(item.getId(), item));
-
-        List<Object[]> projectItemJoinContentModels = this.findRecentProjectItemContentsBetween(startTime, endTime, projectIds);
-        projectItemJoinContentModels.forEach(item -> {
-            Long projectItemId = null;
-            Timestamp mostRecentTime = null;
-            for (Object o : item) {
-                if (projectItemId == null) {
-                    projectItemId = ((BigInteger) o).longValue();
-                } else {
-                    mostRecentTime = (Timestamp) o;
-                }
+        Map<Long, T> projectItemIdMap = new HashMap<>();
+        this.<T>findProjectItemsWithProject(mostRecentTimes.keySet())
+                .forEach(item -> projectItemIdMap.put(item.getId(), item));
+        List<T> result = new ArrayList<>();
+        mostRecentTimes.forEach((id, mostRecentTime) -> {
+            T projectItem = projectItemIdMap.get(id);
+            if (projectItem == null) {
+                return;
             }
-            if (!projectItemIdMap.containsKey(projectItemId)) {
-                T projectItem = (T) this.getJpaRepository().findById(projectItemId).get();
-                projectItem.setUpdatedAt(mostRecentTime);
-                projectItemIdMap.put(projectItemId, projectItem);
-            } else if (projectItemIdMap.get(projectItemId).getUpdatedAt().compareTo(mostRecentTime) == -1)
-                projectItemIdMap.get(projectItemId).setUpdatedAt(mostRecentTime);
+            this.entityManager.detach(projectItem);
+            projectItem.setUpdatedAt(mostRecentTime);
+            result.add(projectItem);
         });
-
-
-        return new ArrayList<>(projectItemIdMap.values());
+        return result;
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
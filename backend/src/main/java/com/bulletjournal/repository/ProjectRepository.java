@@ -2,8 +2,11 @@ package com.bulletjournal.repository;
 
 import com.bulletjournal.repository.models.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,4 +16,18 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     List<Project> findByNameAndOwner(String name, String owner);
 
     List<Project> findByOwnerAndSharedTrue(String owner);
+
+    @Query("SELECT new com.bulletjournal.repository.models.Project(project.id, project.name, project.owner, "
+            + "project.type, project.shared, SUBSTRING(project.description, 1, " + Project.DESCRIPTION_PREVIEW_LENGTH + "), "
+            + "g.id, g.name, g.owner, g.uid) FROM Project project JOIN project.group g WHERE project.owner = :owner")
+    List<Project> findSummariesByOwner(@Param("owner") String owner);
+
+    @Query("SELECT new com.bulletjournal.repository.models.Project(project.id, project.name, project.owner, "
+            + "project.type, project.shared, SUBSTRING(project.description, 1, " + Project.DESCRIPTION_PREVIEW_LENGTH + "), "
+            + "g.id, g.name, g.owner, g.uid) FROM Project project JOIN project.group g WHERE project.id IN :ids")
+    List<Project> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT project FROM Project project, UserGroup userGroup WHERE userGroup.group = project.group "
+            + "AND userGroup.user.name = :username AND userGroup.accepted = true AND project.shared = false")
+    List<Project> findNonSharedProjectsOfAcceptedUser(@Param("username") String username);
 }
\ No newline at end of file
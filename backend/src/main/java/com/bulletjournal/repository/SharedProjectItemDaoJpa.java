@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -79,26 +80,32 @@ public class SharedProjectItemDaoJpa {
         return getSharedProjectItems(user, null);
     }
 
+    /**
+     * Share projectItem with users.
+     * <p>
+     * Target users are loaded in one query and the shares are written with a single insert that skips users
+     * who already have the item, so sharing with a large group costs the same number of round trips as
+     * sharing with one user.
+     * </p>
+     */
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public <T extends ProjectItemModel> ShareProjectItemEvent save(
             ProjectType projectType, T projectItem, List<String> users, String requester) {
+        Set<String> targets = new HashSet<>(users);
+        targets.remove(requester);
         List<Event> events = new ArrayList<>();
-        for (String user : new HashSet<>(users)) {
-            if (Objects.equals(user, requester)) {
-                continue;
-            }
-            List<ProjectItemModel> existingItems = this.getSharedProjectItems(user);
-            if (existingItems.stream().anyMatch(existingItem ->
-                    Objects.equals(existingItem.getContentType(), projectItem.getContentType()) &&
-                            Objects.equals(existingItem.getId(), projectItem.getId()))) {
-                LOGGER.error(projectItem.getClass().getSimpleName() + " " + projectItem.getName() +
-                        " (ID " + projectItem.getId() +
-                        ") is already shared with User " + user);
-                continue;
-            }
+        if (targets.isEmpty()) {
+            return new ShareProjectItemEvent(events, requester, projectItem.getContentType());
+        }
+
+        List<User> targetUsers = this.userRepository.findAllByNameIn(targets);
+        if (targetUsers.size() < targets.size()) {
+            Set<String> missing = new HashSet<>(targets);
+            targetUsers.forEach(u -> missing.remove(u.getName()));
+            throw new ResourceNotFoundException("User " + missing.iterator().next() + " not found");
+        }
 
-            User targetUser = this.userDaoJpa.getByName(user);
-            SharedProjectItem sharedProjectItem = new SharedProjectItem(requester, user);
+        for (User targetUser : targetUsers) {
             switch (projectType) {
                 case NOTE:
                     checkSharedProjectExistence(
@@ -106,7 +113,6 @@ public class SharedProjectItemDaoJpa {
                             projectType,
                             targetUser,
                             targetUser::setSharedNotesProject);
-                    sharedProjectItem.setNote((Note) projectItem);
                     break;
                 case TODO:
                     checkSharedProjectExistence(
@@ -114,7 +120,6 @@ public class SharedProjectItemDaoJpa {
                             projectType,
                             targetUser,
                             targetUser::setSharedTasksProject);
-                    sharedProjectItem.setTask((Task) projectItem);
                     break;
                 case LEDGER:
                     checkSharedProjectExistence(
@@ -122,14 +127,37 @@ public class SharedProjectItemDaoJpa {
                             projectType,
                             targetUser,
                             targetUser::setSharedTransactionsProject);
-                    sharedProjectItem.setTransaction((Transaction) projectItem);
                     break;
                 default:
                     throw new IllegalArgumentException();
             }
-            this.sharedProjectItemRepository.save(sharedProjectItem);
-            Event event = new Event(user, projectItem.getId(), projectItem.getName());
-            events.add(event);
+        }
+        String itemColumn;
+        switch (projectType) {
+            case NOTE:
+                itemColumn = "note_id";
+                break;
+            case TODO:
+                itemColumn = "task_id";
+                break;
+            case LEDGER:
+                itemColumn = "transaction_id";
+                break;
+            default:
+                throw new IllegalArgumentException();
+        }
+
+        List<String> shared = this.sharedProjectItemRepository.insertIgnoringExisting(
+                itemColumn, projectItem.getId(), requester, targets);
+        if (shared.size() < targets.size()) {
+            Set<String> existing = new HashSet<>(targets);
+            existing.removeAll(shared);
+            LOGGER.error(projectItem.getClass().getSimpleName() + " " + projectItem.getName() +
+                    " (ID " + projectItem.getId() +
+                    ") is already shared with Users " + existing);
+        }
+        for (String user : shared) {
+            events.add(new Event(user, projectItem.getId(), projectItem.getName()));
         }
         return new ShareProjectItemEvent(events, requester, projectItem.getContentType());
     }
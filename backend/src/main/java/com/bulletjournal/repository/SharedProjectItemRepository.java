@@ -4,6 +4,8 @@ import com.bulletjournal.repository.models.Note;
 import com.bulletjournal.repository.models.SharedProjectItem;
 import com.bulletjournal.repository.models.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -2,8 +2,25 @@ package com.bulletjournal.repository;
 
 import com.bulletjournal.repository.models.SharedProjectItem;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 
 public interface SharedProjectItemRepositoryCustom {
     List<SharedProjectItem> findSharedProjectItemsByLabelIds(String username, List<Long> labelIds);
+
+    /**
+     * Share one item with many users in a single statement, users already sharing it are left alone.
+     *
+     * @param itemColumn one of task_id, note_id, transaction_id
+     * @return usernames that got a new share
+     */
+    List<String> insertIgnoringExisting(String itemColumn, Long itemId, String requester, Collection<String> usernames);
+
+    /**
+     * Removes the label from the user's shared items
+     *
+     * @return number of rows updated
+     */
+    int removeLabel(String username, Long labelId, Timestamp updatedAt);
 }
@@ -2,12 +2,17 @@ package com.bulletjournal.repository;
 
 
 import com.bulletjournal.repository.models.SharedProjectItem;
+import com.bulletjournal.repository.utils.DaoHelper;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.transaction.Transactional;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 @Repository
@@ -19,15 +24,52 @@ public class SharedProjectItemRepositoryImpl implements SharedProjectItemReposit
 
     @Override
     public List<SharedProjectItem> findSharedProjectItemsByLabelIds(String username, List<Long> labelIds) {
-        StringBuilder queryString = new StringBuilder("SELECT * FROM shared_project_items WHERE " +
-                "shared_project_items.username = '" + username + "' AND ? = ANY(shared_project_items.labels)");
-        for (int i = 1; i < labelIds.size(); i++) {
-            queryString.append(" and ? = ANY(shared_project_items.labels)");
+        if (labelIds.isEmpty()) {
+            return Collections.emptyList();
         }
-        Query query = entityManager.createNativeQuery(queryString.toString(), SharedProjectItem.class);
+        String queryString = "SELECT * FROM shared_project_items WHERE shared_project_items.username = ? AND "
+                + DaoHelper.labelsContainAll("shared_project_items.labels", labelIds.size());
+        Query query = entityManager.createNativeQuery(queryString, SharedProjectItem.class);
+        query.setParameter(1, username);
         for (int i = 1; i <= labelIds.size(); i++) {
-            query.setParameter(i, labelIds.get(i - 1));
+            query.setParameter(i + 1, labelIds.get(i - 1));
         }
         return query.getResultList();
     }
+
+    @Override
+    public List<String> insertIgnoringExisting(
+            String itemColumn, Long itemId, String requester, Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String queryString = "INSERT INTO shared_project_items (id, username, requester, " + itemColumn
+                + ", created_at, updated_at) SELECT nextval('shared_project_item_sequence'), target.username, ?, ?, ?, ?"
+                + " FROM unnest(CAST(ARRAY[" + String.join(", ", Collections.nCopies(usernames.size(), "?"))
+                + "] AS text[])) AS target(username) ON CONFLICT DO NOTHING RETURNING username";
+        Query query = entityManager.createNativeQuery(queryString);
+        query.setParameter(1, requester);
+        query.setParameter(2, itemId);
+        // same clock as AuditModel rather than the database's
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        query.setParameter(3, now);
+        query.setParameter(4, now);
+        int i = 5;
+        for (String username : usernames) {
+            query.setParameter(i++, username);
+        }
+        List<String> inserted = new ArrayList<>();
+        for (Object username : query.getResultList()) {
+            inserted.add((String) username);
+        }
+        return inserted;
+    }
+
+    @Override
+    public int removeLabel(String username, Long labelId, Timestamp updatedAt) {
+        return DaoHelper.createRemoveLabelQuery(entityManager, SharedProjectItem.class, "shared_project_items",
+                " AND shared_project_items.username = ?3", labelId, updatedAt)
+                .setParameter(3, username)
+                .executeUpdate();
+    }
 }
@@ -4,6 +4,7 @@ import com.bulletjournal.controller.utils.ZonedDateTimeHelper;
 import com.bulletjournal.notifications.ProjectItemAuditable;
 import com.bulletjournal.repository.models.Task;
 import com.bulletjournal.repository.models.TaskAuditable;
+import com.bulletjournal.repository.utils.DaoHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -43,7 +44,9 @@ public class TaskAuditableDaoJpa {
           Timestamp.from(endTime.toInstant()),
           PageRequest.of(pageInd, pageSize, Sort.by("activityTime").descending()));
     }
-    return this.taskAuditableRepository.findAllByTask(
-        task, PageRequest.of(pageInd, pageSize, Sort.by("activityTime").descending()));
+    return this.taskAuditableRepository.findAllByTaskAndActivityTimeGreaterThanEqual(
+        task,
+        DaoHelper.getEarliestActivityTime(task),
+        PageRequest.of(pageInd, pageSize, Sort.by("activityTime").descending()));
   }
 }
@@ -11,7 +11,8 @@ import java.sql.Timestamp;
 
 @Repository
 public interface TaskAuditableRepository extends PagingAndSortingRepository<TaskAuditable, Long> {
-  Page<TaskAuditable> findAllByTask(Task task, Pageable pageable);
+  Page<TaskAuditable> findAllByTaskAndActivityTimeGreaterThanEqual(
+      Task task, Timestamp activityTimeStart, Pageable pageable);
 
   Page<TaskAuditable> findAllByTaskAndActivityTimeBetween(
       Task task, Timestamp activityTimeStart, Timestamp activityTimeEnd, Pageable pageable);
@@ -14,6 +14,10 @@ import java.util.List;
 public interface TaskContentRepository extends JpaRepository<TaskContent, Long> {
     List<TaskContent> findTaskContentByTask(Task task);
 
+    @Query("SELECT new com.bulletjournal.repository.models.TaskContent(taskContent.id, taskContent.owner, taskContent.text, "
+            + "taskContent.createdAt, taskContent.updatedAt) FROM TaskContent taskContent WHERE taskContent.task = :task")
+    List<TaskContent> findTaskContentTextsByTask(@Param("task") Task task);
+
     @Query("SELECT taskContent FROM TaskContent taskContent WHERE taskContent.updatedAt >= :startTime AND taskContent.updatedAt <= :endTime")
     List<TaskContent> findRecentTaskContentsBetween(@Param("startTime") Timestamp startTime,
                                                     @Param("endTime") Timestamp endTime);
@@ -2,6 +2,8 @@ package com.bulletjournal.repository;
 
 import com.bulletjournal.authz.AuthorizationService;
 import com.bulletjournal.authz.Operation;
+import com.bulletjournal.calendars.google.Converter;
+import com.bulletjournal.calendars.google.GoogleCalendarEvent;
 import com.bulletjournal.clients.UserClient;
 import com.bulletjournal.contents.ContentAction;
 import com.bulletjournal.contents.ContentType;
@@ -30,6 +32,7 @@ import com.bulletjournal.repository.utils.DaoHelper;
 import com.bulletjournal.templates.repository.model.SampleTask;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import org.apache.commons.lang3.StringUtils;
@@ -50,12 +53,11 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 import static com.bulletjournal.notifications.ProjectItemAuditable.PROJECT_ITEM_PROPERTY;
@@ -64,14 +66,13 @@ import static com.bulletjournal.notifications.ProjectItemAuditable.PROJECT_ITEM_
 public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
     private static final String EVERYONE = "Everyone";
     private static final Logger LOGGER = LoggerFactory.getLogger(TaskDaoJpa.class);
+    // multiple of hibernate.jdbc.batch_size
+    private static final int CREATE_CHUNK_SIZE = 200;
     private static final Gson GSON = new Gson();
 
     private static final Gson GSON_ALLOW_EXPOSE_ONLY = new GsonBuilder().excludeFieldsWithoutExposeAnnotation()
             .create();
 
-    @PersistenceContext
-    EntityManager entityManager;
-
     @Autowired
     private TaskRepository taskRepository;
 
@@ -344,7 +345,7 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
             String assignee, ZonedDateTime startTime, ZonedDateTime endTime, List<Project> projects) {
         List<Long> projectIds = projects.stream().map(Project::getId).collect(Collectors.toList());
         List<Task> tasks = this.taskRepository.findTasksOfAssigneeBetween(assignee,
-                ZonedDateTimeHelper.toDBTimestamp(startTime), ZonedDateTimeHelper.toDBTimestamp(endTime), projectIds);
+                ZonedDateTimeHelper.getTimestamp(startTime), ZonedDateTimeHelper.getTimestamp(endTime), projectIds);
         tasks = tasks.stream().filter(t -> {
             if (Objects.isNull(t.getRecurrenceRule())) {
                 return true;
@@ -463,7 +464,7 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
     public List<Task> getAllRemindingTasksBetween(ZonedDateTime startTime, ZonedDateTime endTime) {
         Timestamp start = Timestamp.from(startTime.toInstant());
         Timestamp end = Timestamp.from(endTime.toInstant());
-        return this.taskRepository.findRemindingTasksBetween(start.toString(), end.toString());
+        return this.taskRepository.findRemindingTasksBetween(start, end);
     }
 
     /**
@@ -570,21 +571,91 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
                              Integer reminderBeforeTask,
                              List<String> assignees,
                              List<Long> labels) {
+        List<Task> tasks = generateTasks(
+                projectId, owner, sampleTasks, repoSampleTasks, reminderBeforeTask, assignees, labels);
+
+        LOGGER.info("create batch of {} tasks", tasks.size());
+        if (tasks.size() <= CREATE_CHUNK_SIZE) {
+            return this.taskRepository.saveAll(tasks);
+        }
+
+        // flush every chunk as a few JDBC batches and keep the persistence context small
+        List<Task> result = new ArrayList<>();
+        for (List<Task> chunk : Lists.partition(tasks, CREATE_CHUNK_SIZE)) {
+            result.addAll(this.taskRepository.saveAll(chunk));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return result;
+    }
+
+    /**
+     * Create tasks and their contents from sample tasks in one transaction. Each chunk of tasks and
+     * its contents goes out as a few JDBC batches instead of a statement per row.
+     *
+     * @param progress called with the number of sample tasks imported so far
+     * @return ids of the created tasks
+     */
+    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
+    public List<Long> importSampleTasks(Long projectId, String owner,
+                                        List<com.bulletjournal.templates.controller.model.SampleTask> sampleTasks,
+                                        List<SampleTask> repoSampleTasks,
+                                        Integer reminderBeforeTask,
+                                        List<String> assignees,
+                                        List<Long> labels,
+                                        IntConsumer progress) {
+        Preconditions.checkNotNull(assignees);
+        List<Task> tasks = generateTasks(
+                projectId, owner, sampleTasks, repoSampleTasks, reminderBeforeTask, assignees, labels);
+        LOGGER.info("import {} sample tasks into project {}", tasks.size(), projectId);
+
+        List<Long> taskIds = new ArrayList<>();
+        for (int start = 0; start < tasks.size(); start += CREATE_CHUNK_SIZE) {
+            int end = Math.min(start + CREATE_CHUNK_SIZE, tasks.size());
+            List<Task> chunk = this.taskRepository.saveAll(tasks.subList(start, end));
+            List<TaskContent> contents = new ArrayList<>();
+            for (int i = start; i < end; i++) {
+                com.bulletjournal.templates.controller.model.SampleTask sampleTask = sampleTasks.get(i);
+                // refreshable tasks read their content from the sample task
+                if (sampleTask.isRefreshable() || StringUtils.isBlank(sampleTask.getContent())) {
+                    continue;
+                }
+                Task task = chunk.get(i - start);
+                TaskContent content = new TaskContent(sampleTask.getContent());
+                content.setProjectItem(task);
+                content.setOwner(task.getOwner());
+                contents.add(content);
+            }
+            this.taskContentRepository.saveAll(contents);
+            entityManager.flush();
+            entityManager.clear();
+            chunk.forEach(task -> taskIds.add(task.getId()));
+            progress.accept(end);
+        }
+        return taskIds;
+    }
+
+    private List<Task> generateTasks(Long projectId, String owner,
+                                     List<com.bulletjournal.templates.controller.model.SampleTask> sampleTasks,
+                                     List<SampleTask> repoSampleTasks,
+                                     Integer reminderBeforeTask,
+                                     List<String> assignees,
+                                     List<Long> labels) {
         Project project = this.projectDaoJpa.getProject(projectId, owner);
         if (!ProjectType.TODO.equals(ProjectType.getType(project.getType()))) {
             throw new BadRequestException("Project Type expected to be TODO while request is " + project.getType());
         }
 
+        Map<Long, SampleTask> repoSampleTaskMap = repoSampleTasks.stream()
+                .collect(Collectors.toMap(SampleTask::getId, s -> s, (a, b) -> a));
         List<Task> tasks = new ArrayList<>();
-        for (int i = 0; i < sampleTasks.size(); i++) {
+        for (com.bulletjournal.templates.controller.model.SampleTask sampleTask : sampleTasks) {
             SampleTask referredSampleTask = null;
-            if (sampleTasks.get(i).isRefreshable()) {
-                long sampleTaskId = sampleTasks.get(i).getId();
-                referredSampleTask =
-                        repoSampleTasks.stream().filter(s -> sampleTaskId == s.getId()).findFirst().get();
+            if (sampleTask.isRefreshable()) {
+                referredSampleTask = repoSampleTaskMap.get(sampleTask.getId());
+                Preconditions.checkNotNull(referredSampleTask, "Sample task " + sampleTask.getId() + " not found");
             }
 
-            com.bulletjournal.templates.controller.model.SampleTask sampleTask = sampleTasks.get(i);
             CreateTaskParams createTaskParams = sampleTaskToCreateTaskParams(
                     sampleTask,
                     reminderBeforeTask,
@@ -592,29 +663,7 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
                     labels);
             tasks.add(generateTask(owner, project, createTaskParams, referredSampleTask));
         }
-
-        LOGGER.info("create batch of {} tasks", tasks.size());
-        if (tasks.size() <= 200) {
-            return this.taskRepository.saveAll(tasks);
-        }
-
-        List<Task> batch = new ArrayList<>();
-        List<Task> result = new ArrayList<>();
-        for (Task task : tasks) {
-            batch.add(task);
-            if (batch.size() == 200) {
-                result.addAll(this.taskRepository.saveAll(batch));
-                batch = new ArrayList<>();
-                entityManager.flush();
-                entityManager.clear();
-            }
-        }
-        if (!batch.isEmpty()) {
-            result.addAll(this.taskRepository.saveAll(batch));
-            entityManager.flush();
-            entityManager.clear();
-        }
-        return result;
+        return tasks;
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
@@ -646,6 +695,83 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
         return task;
     }
 
+    /**
+     * Apply changed events of a watched Google calendar to its project. Existing tasks are matched by
+     * event id in one query, creates and deletes go out as batches.
+     *
+     * @param projectId       the project watching the calendar
+     * @param owner           the owner of the calendar
+     * @param deletedEventIds ids of cancelled events
+     * @param events          created or updated events
+     */
+    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
+    public void syncGoogleCalendarEvents(Long projectId, String owner,
+                                         List<String> deletedEventIds, List<GoogleCalendarEvent> events) {
+        Project project = this.projectDaoJpa.getProject(projectId, owner);
+        // an event changed twice within one delta comes back twice, only its latest version is kept
+        Map<String, GoogleCalendarEvent> latestEvents = new LinkedHashMap<>();
+        events.forEach(e -> {
+            latestEvents.remove(e.getEventId());
+            latestEvents.put(e.getEventId(), e);
+        });
+        Set<String> eventIds = new HashSet<>(deletedEventIds);
+        eventIds.addAll(latestEvents.keySet());
+        Map<String, Task> existingTasks = new HashMap<>();
+        for (List<String> chunk : Lists.partition(new ArrayList<>(eventIds), CREATE_CHUNK_SIZE)) {
+            this.taskRepository.findTasksByProjectAndGoogleCalendarEventIdIn(project, chunk)
+                    .forEach(task -> existingTasks.put(task.getGoogleCalendarEventId(), task));
+        }
+
+        List<Task> staleTasks = new ArrayList<>();
+        for (String eventId : deletedEventIds) {
+            Task task = existingTasks.get(eventId);
+            if (task != null) {
+                staleTasks.add(task);
+            }
+        }
+        List<GoogleCalendarEvent> newEvents = new ArrayList<>();
+        for (GoogleCalendarEvent event : latestEvents.values()) {
+            Task task = existingTasks.get(event.getEventId());
+            if (task != null) {
+                if (isTaskModified(task, owner)) {
+                    //dont update since we dont want to overwrite the change on bulletjournal side
+                    continue;
+                }
+                staleTasks.add(task);
+            }
+            newEvents.add(event);
+        }
+        LOGGER.info("Google calendar sync of project {}: {} tasks removed, {} tasks created",
+                projectId, staleTasks.size(), newEvents.size());
+
+        if (!staleTasks.isEmpty()) {
+            this.taskRepository.deleteAll(staleTasks);
+            // recreated tasks reuse the unique event ids, so deletes have to go first
+            entityManager.flush();
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        for (GoogleCalendarEvent event : newEvents) {
+            Task task = selfAdjustTask(generateTask(owner, project, Converter.toCreateTaskParams(event)), owner);
+            task.setGoogleCalendarEventId(event.getEventId());
+            tasks.add(task);
+        }
+        List<Task> contentTasks = new ArrayList<>();
+        List<TaskContent> contents = new ArrayList<>();
+        for (int start = 0; start < tasks.size(); start += CREATE_CHUNK_SIZE) {
+            int end = Math.min(start + CREATE_CHUNK_SIZE, tasks.size());
+            List<Task> chunk = this.taskRepository.saveAll(tasks.subList(start, end));
+            for (int i = start; i < end; i++) {
+                String text = Converter.toContentText(newEvents.get(i));
+                if (StringUtils.isNotBlank(text)) {
+                    contentTasks.add(chunk.get(i - start));
+                    contents.add(new TaskContent(text));
+                }
+            }
+        }
+        addContents(contentTasks, owner, contents);
+    }
+
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public void deleteTaskByGoogleEvenId(String eventId, Project project) {
         Optional<Task> task = this.taskRepository.findTaskByGoogleCalendarEventIdAndProject(eventId, project);
@@ -857,7 +983,7 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
 
         // clone its contents
         String contents = GSON_ALLOW_EXPOSE_ONLY
-                .toJson(this.getContents(taskId, requester).stream().collect(Collectors.toList()));
+                .toJson(this.getContentTexts(taskId, requester));
 
         if (dateTime != null && StringUtils.isNotBlank(task.getRecurrenceRule())) {
             return completeSingleRecurringTask(task, dateTime, contents);
@@ -950,7 +1076,7 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
         Project project = task.getProject();
         this.authorizationService.checkAuthorizedToOperateOnContent(task.getOwner(), requester, ContentType.TASK,
                 Operation.DELETE, task.getId(), task);
-        this.completedTaskRepository.delete(task);
+        this.completedTaskRepository.deleteByIdAndCreatedAt(task.getId(), task.getCreatedAt());
         return generateEvents(task, requester, project);
     }
 
@@ -1036,7 +1162,7 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
         this.authorizationService.checkAuthorizedToOperateOnContent(task.getOwner(), requester, ContentType.TASK,
                 Operation.UPDATE, task.getId(), task);
         List<TaskContent> contents = getCompletedTaskContents(taskId, requester);
-        this.completedTaskRepository.delete(task);
+        this.completedTaskRepository.deleteByIdAndCreatedAt(task.getId(), task.getCreatedAt());
         Long newId = create(project.getId(), task.getOwner(), getCreateTaskParams(task)).getId();
         Collections.reverse(contents);
         // we order contents by getUpdatedAt in descending order
@@ -1099,6 +1225,11 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
         return this.taskContentRepository.findTaskContentByTask((Task) projectItem);
     }
 
+    @Override
+    public <T extends ProjectItemModel> List<TaskContent> findContentTexts(T projectItem) {
+        return this.taskContentRepository.findTaskContentTextsByTask((Task) projectItem);
+    }
+
     @Override
     public TaskContent newContent(String text) {
         return new TaskContent(text);
@@ -1108,7 +1239,18 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
     @Override
     public <T extends ProjectItemModel> List<TaskContent> getContents(Long projectItemId, String requester) {
         List<TaskContent> contents = super.getContents(projectItemId, requester);
-        Task task = getProjectItem(projectItemId, requester);
+        addSampleTaskContent(getProjectItem(projectItemId, requester), contents);
+        return contents;
+    }
+
+    @Override
+    public <T extends ProjectItemModel> List<TaskContent> getContentTexts(Long projectItemId, String requester) {
+        List<TaskContent> contents = super.getContentTexts(projectItemId, requester);
+        addSampleTaskContent(getProjectItem(projectItemId, requester), contents);
+        return contents;
+    }
+
+    private void addSampleTaskContent(Task task, List<TaskContent> contents) {
         if (task.getSampleTask() != null) {
             String sampleTaskContent = task.getSampleTask().getContent();
             TaskContent taskContent = new TaskContent(sampleTaskContent);
@@ -1121,7 +1263,6 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
             taskContent.setRevisions("");
             contents.add(0, taskContent);
         }
-        return contents;
     }
 
     @Override
@@ -1139,7 +1280,7 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
         if (Math.abs(task.getCreatedAt().getTime() - task.getUpdatedAt().getTime()) > 1000) {
             return true;
         }
-        List<TaskContent> contents = this.getContents(task.getId(), requester);
+        List<TaskContent> contents = this.getContentTexts(task.getId(), requester);
 
         if (null == contents || contents.isEmpty()) {
             return false;
@@ -1150,29 +1291,15 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
     }
 
     @Override
-    List<Task> findRecentProjectItemsBetween(Timestamp startTime, Timestamp endTime, List projects) {
-        return this.taskRepository.findTasksBetween(startTime, endTime, projects);
+    List<Task> findProjectItemsWithProject(Collection<Long> ids) {
+        return this.taskRepository.findAllWithProjectByIdIn(ids);
     }
 
     @Override
-    public List<Object[]> findRecentProjectItemContentsBetween(Timestamp startTime, Timestamp endTime, List projectIds) {
-        StringBuilder queryBuilder = new StringBuilder(
-                "SELECT tasks_join_task_contents.id, tasks_join_task_contents.most_recent_time " +
-                        "FROM tasks_join_task_contents " +
-                        "WHERE tasks_join_task_contents.most_recent_time >= ? " +
-                        "AND tasks_join_task_contents.most_recent_time <= ? " +
-                        "AND tasks_join_task_contents.project_id IN (");
-        projectIds.stream().forEach(pi -> queryBuilder.append(pi).append(","));
-        int tail = queryBuilder.length() - 1;
-        if (queryBuilder.charAt(tail) == ',') {
-            queryBuilder.deleteCharAt(tail);
-        }
-        queryBuilder.append(")");
-
-        return entityManager.createNativeQuery(queryBuilder.toString())
-                .setParameter(1, startTime)
-                .setParameter(2, endTime)
-                .getResultList();
+    List<Object[]> findRecentProjectItemIdsBetween(
+            Timestamp startTime, Timestamp endTime, List<Long> projectIds, Integer limit) {
+        return DaoHelper.findRecentProjectItemIds(this.entityManager, "tasks", "task_contents", "task_id",
+                startTime, endTime, projectIds, limit);
     }
 
     public List<String> getDeleteESDocumentIdsForProjectItem(String requester, Long taskId) {
@@ -1199,14 +1326,14 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public List<CompletedTask> getCompletedTaskByProjectIdInTimePeriod(List<Long> projectIds, String startDate, String endDate, String timezone) {
         if (!StringUtils.isBlank(startDate) && !StringUtils.isBlank(endDate)) {
-            String startTime = ZonedDateTimeHelper.toDBTimestamp(ZonedDateTimeHelper.getStartTime(startDate, null, timezone));
-            String endTime = ZonedDateTimeHelper.toDBTimestamp(ZonedDateTimeHelper.getEndTime(endDate, null, timezone));
+            Timestamp startTime = ZonedDateTimeHelper.getTimestamp(ZonedDateTimeHelper.getStartTime(startDate, null, timezone));
+            Timestamp endTime = ZonedDateTimeHelper.getTimestamp(ZonedDateTimeHelper.getEndTime(endDate, null, timezone));
             return completedTaskRepository.findCompletedTaskWithProjectIdStartTimeEndTime(projectIds, startTime, endTime);
         } else if (!StringUtils.isBlank(startDate)) {
-            String startTime = ZonedDateTimeHelper.toDBTimestamp(ZonedDateTimeHelper.getStartTime(startDate, null, timezone));
+            Timestamp startTime = ZonedDateTimeHelper.getTimestamp(ZonedDateTimeHelper.getStartTime(startDate, null, timezone));
             return completedTaskRepository.findCompletedTaskWithProjectIdStartTime(projectIds, startTime);
         } else if (!StringUtils.isBlank(endDate)) {
-            String endTime = ZonedDateTimeHelper.toDBTimestamp(ZonedDateTimeHelper.getEndTime(endDate, null, timezone));
+            Timestamp endTime = ZonedDateTimeHelper.getTimestamp(ZonedDateTimeHelper.getEndTime(endDate, null, timezone));
             return completedTaskRepository.findCompletedTaskWithProjectIdEndTime(projectIds, endTime);
         } else {
             return completedTaskRepository.findCompletedTaskWithProjectId(projectIds);
@@ -1216,14 +1343,14 @@ public class TaskDaoJpa extends ProjectItemDaoJpa<TaskContent> {
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public List<Task> getUncompletedTasksByProjectIdInTimePeriod(List<Long> projectIds, String startDate, String endDate, String timezone) {
         if (!StringUtils.isBlank(startDate) && !StringUtils.isBlank(endDate)) {
-            String startTime = ZonedDateTimeHelper.toDBTimestamp(ZonedDateTimeHelper.getStartTime(startDate, null, timezone));
-            String endTime = ZonedDateTimeHelper.toDBTimestamp(ZonedDateTimeHelper.getEndTime(endDate, null, timezone));
+            Timestamp startTime = ZonedDateTimeHelper.getTimestamp(ZonedDateTimeHelper.getStartTime(startDate, null, timezone));
+            Timestamp endTime = ZonedDateTimeHelper.getTimestamp(ZonedDateTimeHelper.getEndTime(endDate, null, timezone));
             return taskRepository.findTaskWithProjectIdStartTimeEndTime(projectIds, startTime, endTime);
         } else if (!StringUtils.isBlank(startDate)) {
-            String startTime = ZonedDateTimeHelper.toDBTimestamp(ZonedDateTimeHelper.getStartTime(startDate, null, timezone));
+            Timestamp startTime = ZonedDateTimeHelper.getTimestamp(ZonedDateTimeHelper.getStartTime(startDate, null, timezone));
             return taskRepository.findTaskWithProjectIdStartTime(projectIds, startTime);
         } else if (!StringUtils.isBlank(endDate)) {
-            String endTime = ZonedDateTimeHelper.toDBTimestamp(ZonedDateTimeHelper.getEndTime(endDate, null, timezone));
+            Timestamp endTime = ZonedDateTimeHelper.getTimestamp(ZonedDateTimeHelper.getEndTime(endDate, null, timezone));
             return taskRepository.findTaskWithProjectIdEndTime(projectIds, endTime);
         } else {
             return taskRepository.findTaskWithProjectId(projectIds);
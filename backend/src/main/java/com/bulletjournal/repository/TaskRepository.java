@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,37 +19,39 @@ public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositor
 
     List<Task> findTaskByProject(Project project);
 
-    @Query(value = "SELECT * FROM tasks WHERE :assignee = ANY(tasks.assignees) AND tasks.project_id = :project_id", nativeQuery = true)
+    @Query(value = "SELECT * FROM tasks WHERE tasks.assignees @> ARRAY[CAST(:assignee AS text)] AND tasks.project_id = :project_id", nativeQuery = true)
     List<Task> findTasksByAssigneeAndProject(@Param("assignee") String assignee,
                                              @Param("project_id") Long projectId);
 
-    @Query(value = "SELECT * FROM tasks WHERE :assignee = ANY(tasks.assignees) AND tasks.recurrence_rule IS NOT NULL", nativeQuery = true)
+    @Query(value = "SELECT * FROM tasks WHERE tasks.assignees @> ARRAY[CAST(:assignee AS text)] AND tasks.recurrence_rule IS NOT NULL", nativeQuery = true)
     List<Task> findTasksByAssigneeAndRecurrenceRuleNotNull(@Param("assignee") String assignee);
 
-    @Query(value = "SELECT * FROM tasks WHERE tasks.project_id IN :projectIds AND :assignee = ANY(tasks.assignees) AND tasks.recurrence_rule IS NOT NULL", nativeQuery = true)
+    @Query(value = "SELECT * FROM tasks WHERE tasks.project_id IN :projectIds AND tasks.assignees @> ARRAY[CAST(:assignee AS text)] AND tasks.recurrence_rule IS NOT NULL", nativeQuery = true)
     List<Task> findTasksInProjectsByAssigneeAndRecurrenceRuleNotNull(@Param("assignee") String assignee, @Param("projectIds") List<Long> projectIds);
 
     List<Task> findTasksByRecurrenceRuleNotNull();
 
     List<Task> findTaskByProjectAndRecurrenceRuleNotNull(Project project);
 
-    @Query(value = "SELECT * FROM tasks WHERE tasks.start_time IS NOT NULL AND tasks.reminder_date_time IS NOT NULL"
-            + " AND tasks.start_time >= to_timestamp(:start, 'YYYY-MM-DD HH24:MI:SS') AND tasks.reminder_date_time <= to_timestamp(:end, 'YYYY-MM-DD HH24:MI:SS')", nativeQuery = true)
-    List<Task> findRemindingTasksBetween(@Param("start") String start, @Param("end") String end);
+    @Query(value = "SELECT task FROM Task task WHERE task.startTime IS NOT NULL AND task.reminderDateTime IS NOT NULL"
+            + " AND task.startTime >= :start AND task.reminderDateTime <= :end")
+    List<Task> findRemindingTasksBetween(@Param("start") Timestamp start, @Param("end") Timestamp end);
 
     Optional<Task> findTaskByGoogleCalendarEventIdAndProject(String googleCalendarEventId, Project project);
 
-    @Query(value = "SELECT * FROM tasks WHERE :assignee = ANY(tasks.assignees) AND tasks.start_time IS NOT NULL AND tasks.reminder_date_time IS NOT NULL"
-            + " AND tasks.start_time >= to_timestamp(:start, 'YYYY-MM-DD HH24:MI:SS') AND tasks.reminder_date_time <= to_timestamp(:now, 'YYYY-MM-DD HH24:MI:SS')", nativeQuery = true)
-    List<Task> findRemindingTasks(@Param("assignee") String assignee, @Param("now") String now,
-                                  @Param("start") String start);
+    List<Task> findTasksByProjectAndGoogleCalendarEventIdIn(Project project, Collection<String> googleCalendarEventIds);
 
-    @Query(value = "SELECT * FROM tasks WHERE tasks.project_id IN :projectIds AND :assignee = ANY(tasks.assignees) AND tasks.start_time IS NOT NULL AND "
+    @Query(value = "SELECT * FROM tasks WHERE tasks.assignees @> ARRAY[CAST(:assignee AS text)] AND tasks.start_time IS NOT NULL AND tasks.reminder_date_time IS NOT NULL"
+            + " AND tasks.start_time >= :start AND tasks.reminder_date_time <= :now", nativeQuery = true)
+    List<Task> findRemindingTasks(@Param("assignee") String assignee, @Param("now") Timestamp now,
+                                  @Param("start") Timestamp start);
+
+    @Query(value = "SELECT * FROM tasks WHERE tasks.project_id IN :projectIds AND tasks.assignees @> ARRAY[CAST(:assignee AS text)] AND tasks.start_time IS NOT NULL AND "
             + "tasks.end_time IS NOT NULL AND "
-            + "((tasks.start_time >= to_timestamp(:startTime, 'YYYY-MM-DD HH24:MI:SS') AND tasks.start_time <= to_timestamp(:endTime, 'YYYY-MM-DD HH24:MI:SS')) OR "
-            + "(tasks.end_time >= to_timestamp(:startTime, 'YYYY-MM-DD HH24:MI:SS') AND tasks.end_time <= to_timestamp(:endTime, 'YYYY-MM-DD HH24:MI:SS')))", nativeQuery = true)
-    List<Task> findTasksOfAssigneeBetween(@Param("assignee") String assignee, @Param("startTime") String startTime,
-                                          @Param("endTime") String endTime, @Param("projectIds") List<Long> projectIds);
+            + "((tasks.start_time >= :startTime AND tasks.start_time <= :endTime) OR "
+            + "(tasks.end_time >= :startTime AND tasks.end_time <= :endTime))", nativeQuery = true)
+    List<Task> findTasksOfAssigneeBetween(@Param("assignee") String assignee, @Param("startTime") Timestamp startTime,
+                                          @Param("endTime") Timestamp endTime, @Param("projectIds") List<Long> projectIds);
 
     @Query(value = "SELECT task FROM Task task WHERE task.project = :project AND "
             + "task.startTime IS NOT NULL AND task.endTime IS NOT NULL AND "
@@ -58,26 +61,27 @@ public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositor
                                 @Param("startTime") Timestamp startTime,
                                 @Param("endTime") Timestamp endTime);
 
-    @Query(value = "SELECT task FROM Task task WHERE " +
-            "task.project IN (:projects) AND task.updatedAt >= :startTime AND task.updatedAt <= :endTime")
-    List<Task> findTasksBetween(@Param("startTime") Timestamp startTime,
-                                @Param("endTime") Timestamp endTime,
-                                @Param("projects") List<Project> projects);
-
-    @Query(value = "SELECT * FROM tasks WHERE tasks.project_id in :projectIds AND tasks.start_time IS NOT NULL AND " +
-            "tasks.end_time IS NOT NULL AND " +
-            "((tasks.start_time >= to_timestamp(:startTime, 'YYYY-MM-DD HH24:MI:SS') AND tasks.start_time <= to_timestamp(:endTime, 'YYYY-MM-DD HH24:MI:SS')) OR " +
-            "(tasks.end_time >= to_timestamp(:startTime, 'YYYY-MM-DD HH24:MI:SS') AND tasks.end_time <= to_timestamp(:endTime, 'YYYY-MM-DD HH24:MI:SS')))", nativeQuery = true)
-    List<Task> findTaskWithProjectIdStartTimeEndTime(List<Long> projectIds, String startTime, String endTime);
-
-    @Query(value = "SELECT * FROM tasks WHERE tasks.project_id in :projectIds AND (tasks.end_time is NULL " +
-            "OR tasks.end_time >= to_timestamp(:startTime, 'YYYY-MM-DD HH24:MI:SS'))", nativeQuery = true)
-    List<Task> findTaskWithProjectIdStartTime(List<Long> projectIds, String startTime);
-
-    @Query(value = "SELECT * FROM tasks WHERE tasks.project_id in :projectIds AND (tasks.start_time is NOT NULL " +
-            "AND tasks.start_time <= to_timestamp(:endTime, 'YYYY-MM-DD HH24:MI:SS'))", nativeQuery = true)
-    List<Task> findTaskWithProjectIdEndTime(List<Long> projectIds, String endTime);
-
-    @Query(value = "SELECT * FROM tasks WHERE tasks.project_id in :projectIds", nativeQuery = true)
-    List<Task> findTaskWithProjectId(List<Long> projectIds);
+    @Query("SELECT task FROM Task task JOIN FETCH task.project WHERE task.id IN :ids")
+    List<Task> findAllWithProjectByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT task FROM Task task WHERE task.project.id IN :projectIds AND task.startTime IS NOT NULL AND " +
+            "task.endTime IS NOT NULL AND " +
+            "((task.startTime >= :startTime AND task.startTime <= :endTime) OR " +
+            "(task.endTime >= :startTime AND task.endTime <= :endTime))")
+    List<Task> findTaskWithProjectIdStartTimeEndTime(@Param("projectIds") List<Long> projectIds,
+                                                     @Param("startTime") Timestamp startTime,
+                                                     @Param("endTime") Timestamp endTime);
+
+    @Query(value = "SELECT task FROM Task task WHERE task.project.id IN :projectIds AND (task.endTime IS NULL " +
+            "OR task.endTime >= :startTime)")
+    List<Task> findTaskWithProjectIdStartTime(@Param("projectIds") List<Long> projectIds,
+                                              @Param("startTime") Timestamp startTime);
+
+    @Query(value = "SELECT task FROM Task task WHERE task.project.id IN :projectIds AND (task.startTime IS NOT NULL " +
+            "AND task.startTime <= :endTime)")
+    List<Task> findTaskWithProjectIdEndTime(@Param("projectIds") List<Long> projectIds,
+                                            @Param("endTime") Timestamp endTime);
+
+    @Query(value = "SELECT task FROM Task task WHERE task.project.id IN :projectIds")
+    List<Task> findTaskWithProjectId(@Param("projectIds") List<Long> projectIds);
 }
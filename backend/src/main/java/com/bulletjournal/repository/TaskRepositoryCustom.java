@@ -2,6 +2,7 @@ package com.bulletjournal.repository;
 
 import com.bulletjournal.repository.models.Task;
 
+import java.sql.Timestamp;
 import java.util.List;
 
 public interface TaskRepositoryCustom {
@@ -9,4 +10,11 @@ public interface TaskRepositoryCustom {
     List<Task> findTasksByLabelId(Long labelId);
 
     List<Task> findTasksByLabelIds(List<Long> labelIds);
+
+    /**
+     * Removes the label from all tasks
+     *
+     * @return number of rows updated
+     */
+    int removeLabel(Long labelId, Timestamp updatedAt);
 }
@@ -1,6 +1,7 @@
 package com.bulletjournal.repository;
 
 import com.bulletjournal.repository.models.Task;
+import com.bulletjournal.repository.utils.DaoHelper;
 import com.google.common.collect.ImmutableList;
 import org.springframework.stereotype.Repository;
 
@@ -8,6 +9,8 @@ import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.transaction.Transactional;
+import java.sql.Timestamp;
+import java.util.Collections;
 import java.util.List;
 
 @Repository
@@ -24,14 +27,20 @@ public class TaskRepositoryImpl implements TaskRepositoryCustom {
 
     @Override
     public List<Task> findTasksByLabelIds(List<Long> labelIds) {
-        StringBuilder queryString = new StringBuilder("SELECT * FROM tasks WHERE ? = ANY(tasks.labels)");
-        for (int i = 1; i < labelIds.size(); i++) {
-            queryString.append(" and ? = ANY(tasks.labels)");
+        if (labelIds.isEmpty()) {
+            return Collections.emptyList();
         }
-        Query query = entityManager.createNativeQuery(queryString.toString(), Task.class);
+        String queryString = "SELECT * FROM tasks WHERE " + DaoHelper.labelsContainAll("tasks.labels", labelIds.size());
+        Query query = entityManager.createNativeQuery(queryString, Task.class);
         for (int i = 1; i <= labelIds.size(); i++) {
             query.setParameter(i, labelIds.get(i - 1));
         }
         return query.getResultList();
     }
+
+    @Override
+    public int removeLabel(Long labelId, Timestamp updatedAt) {
+        return DaoHelper.createRemoveLabelQuery(entityManager, Task.class, "tasks", "", labelId, updatedAt)
+                .executeUpdate();
+    }
 }
@@ -4,6 +4,7 @@ import com.bulletjournal.controller.utils.ZonedDateTimeHelper;
 import com.bulletjournal.notifications.ProjectItemAuditable;
 import com.bulletjournal.repository.models.Transaction;
 import com.bulletjournal.repository.models.TransactionAuditable;
+import com.bulletjournal.repository.utils.DaoHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -43,7 +44,9 @@ public class TransactionAuditableDaoJpa {
           PageRequest.of(pageInd, pageSize, Sort.by("activityTime").descending()));
     }
 
-    return this.transactionAuditableRepository.findAllByTransaction(
-        transaction, PageRequest.of(pageInd, pageSize, Sort.by("activityTime").descending()));
+    return this.transactionAuditableRepository.findAllByTransactionAndActivityTimeGreaterThanEqual(
+        transaction,
+        DaoHelper.getEarliestActivityTime(transaction),
+        PageRequest.of(pageInd, pageSize, Sort.by("activityTime").descending()));
   }
 }
@@ -12,7 +12,8 @@ import java.sql.Timestamp;
 @Repository
 public interface TransactionAuditableRepository
     extends PagingAndSortingRepository<TransactionAuditable, Long> {
-  Page<TransactionAuditable> findAllByTransaction(Transaction transaction, Pageable pageable);
+  Page<TransactionAuditable> findAllByTransactionAndActivityTimeGreaterThanEqual(
+      Transaction transaction, Timestamp activityTimeStart, Pageable pageable);
 
   Page<TransactionAuditable> findAllByTransactionAndActivityTimeBetween(
       Transaction transaction,
@@ -14,6 +14,10 @@ import java.util.List;
 public interface TransactionContentRepository extends JpaRepository<TransactionContent, Long> {
     List<TransactionContent> findTransactionContentByTransaction(Transaction transaction);
 
+    @Query("SELECT new com.bulletjournal.repository.models.TransactionContent(transactionContent.id, transactionContent.owner, transactionContent.text, "
+            + "transactionContent.createdAt, transactionContent.updatedAt) FROM TransactionContent transactionContent WHERE transactionContent.transaction = :transaction")
+    List<TransactionContent> findTransactionContentTextsByTransaction(@Param("transaction") Transaction transaction);
+
     @Query("SELECT transactionContent FROM TransactionContent transactionContent WHERE transactionContent.updatedAt >= :startTime AND transactionContent.updatedAt <= :endTime")
     List<TransactionContent> findRecentTransactionContentsBetween(@Param("startTime") Timestamp startTime,
                                                                   @Param("endTime") Timestamp endTime);
@@ -37,8 +37,6 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.ZonedDateTime;
@@ -54,8 +52,6 @@ public class TransactionDaoJpa extends ProjectItemDaoJpa<TransactionContent> {
     private static final Logger LOGGER = LoggerFactory.getLogger(TransactionDaoJpa.class);
     private static final Gson GSON = new Gson();
 
-    @PersistenceContext
-    EntityManager entityManager;
     @Autowired
     private TransactionRepository transactionRepository;
     @Autowired
@@ -459,6 +455,11 @@ public class TransactionDaoJpa extends ProjectItemDaoJpa<TransactionContent> {
         return this.transactionContentRepository.findTransactionContentByTransaction((Transaction) projectItem);
     }
 
+    @Override
+    public <T extends ProjectItemModel> List<TransactionContent> findContentTexts(T projectItem) {
+        return this.transactionContentRepository.findTransactionContentTextsByTransaction((Transaction) projectItem);
+    }
+
     @Override
     public TransactionContent newContent(String text) {
         return new TransactionContent(text);
@@ -470,28 +471,15 @@ public class TransactionDaoJpa extends ProjectItemDaoJpa<TransactionContent> {
     }
 
     @Override
-    List<Transaction> findRecentProjectItemsBetween(Timestamp startTime, Timestamp endTime, List projects) {
-        return this.transactionRepository.findTransactionsBetween(startTime, endTime, projects);
+    List<Transaction> findProjectItemsWithProject(Collection<Long> ids) {
+        return this.transactionRepository.findAllWithProjectByIdIn(ids);
     }
 
     @Override
-    public List<Object[]> findRecentProjectItemContentsBetween(Timestamp startTime, Timestamp endTime, List projectIds) {
-        StringBuilder queryBuilder = new StringBuilder(
-                "SELECT transactions_join_transaction_contents.id, transactions_join_transaction_contents.most_recent_time " +
-                        "FROM transactions_join_transaction_contents " +
-                        "WHERE transactions_join_transaction_contents.most_recent_time >= ? " +
-                        "AND transactions_join_transaction_contents.most_recent_time <= ? " +
-                        "AND transactions_join_transaction_contents.project_id IN (");
-        projectIds.stream().forEach(pi -> queryBuilder.append(pi).append(","));
-        int tail = queryBuilder.length() - 1;
-        if (queryBuilder.charAt(tail) == ',') {
-            queryBuilder.deleteCharAt(tail);
-        }
-        queryBuilder.append(")");
-        return entityManager.createNativeQuery(queryBuilder.toString())
-                .setParameter(1, startTime)
-                .setParameter(2, endTime)
-                .getResultList();
+    List<Object[]> findRecentProjectItemIdsBetween(
+            Timestamp startTime, Timestamp endTime, List<Long> projectIds, Integer limit) {
+        return DaoHelper.findRecentProjectItemIds(this.entityManager, "transactions", "transaction_contents", "transaction_id",
+                startTime, endTime, projectIds, limit);
     }
 
     public List<String> getDeleteESDocumentIdsForProjectItem(String requester, Long transactionId) {
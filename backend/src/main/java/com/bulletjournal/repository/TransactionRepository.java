@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -37,11 +38,9 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>,
                                                               @Param("endTime") Timestamp endTime);
 
 
-    @Query(value = "SELECT transaction FROM Transaction transaction WHERE " +
-            "transaction.project IN (:projects) AND transaction.updatedAt >= :startTime AND transaction.updatedAt <= :endTime")
-    List<Transaction> findTransactionsBetween(@Param("startTime") Timestamp startTime,
-                                              @Param("endTime") Timestamp endTime,
-                                              @Param("projects") List<Project> projects);
+    @Query("SELECT transaction FROM Transaction transaction JOIN FETCH transaction.project "
+            + "LEFT JOIN FETCH transaction.bankAccount WHERE transaction.id IN :ids")
+    List<Transaction> findAllWithProjectByIdIn(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT transaction FROM Transaction transaction where transaction.project = :project AND "
             + "transaction.recurrenceRule IS NOT NULL")
@@ -81,4 +80,4 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>,
     List<Transaction> findByBankAccountAndRecurrenceRuleNotNull(@Param("bankAccount") BankAccount bankAccount);
 
     List<Transaction> findByBankAccount(BankAccount bankAccount);
-}
\ No newline at end of file
+}
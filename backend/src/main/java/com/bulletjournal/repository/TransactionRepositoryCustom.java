@@ -2,10 +2,18 @@ package com.bulletjournal.repository;
 
 import com.bulletjournal.repository.models.Transaction;
 
+import java.sql.Timestamp;
 import java.util.List;
 
 public interface TransactionRepositoryCustom {
     List<Transaction> findTransactionsByLabelIds(List<Long> labelIds);
 
     List<Transaction> findTransactionsByLabelId(Long labelId);
+
+    /**
+     * Removes the label from all transactions
+     *
+     * @return number of rows updated
+     */
+    int removeLabel(Long labelId, Timestamp updatedAt);
 }
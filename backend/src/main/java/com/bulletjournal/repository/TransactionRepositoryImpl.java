@@ -2,6 +2,7 @@ package com.bulletjournal.repository;
 
 
 import com.bulletjournal.repository.models.Transaction;
+import com.bulletjournal.repository.utils.DaoHelper;
 import com.google.common.collect.ImmutableList;
 import org.springframework.stereotype.Repository;
 
@@ -9,6 +10,8 @@ import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.transaction.Transactional;
+import java.sql.Timestamp;
+import java.util.Collections;
 import java.util.List;
 
 @Repository
@@ -20,11 +23,11 @@ public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
 
     @Override
     public List<Transaction> findTransactionsByLabelIds(List<Long> labelIds) {
-        StringBuilder queryString = new StringBuilder("SELECT * FROM transactions WHERE ? = ANY(transactions.labels)");
-        for (int i = 1; i < labelIds.size(); i++) {
-            queryString.append(" and ? = ANY(transactions.labels)");
+        if (labelIds.isEmpty()) {
+            return Collections.emptyList();
         }
-        Query query = entityManager.createNativeQuery(queryString.toString(), Transaction.class);
+        String queryString = "SELECT * FROM transactions WHERE " + DaoHelper.labelsContainAll("transactions.labels", labelIds.size());
+        Query query = entityManager.createNativeQuery(queryString, Transaction.class);
         for (int i = 1; i <= labelIds.size(); i++) {
             query.setParameter(i, labelIds.get(i - 1));
         }
@@ -35,4 +38,10 @@ public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
     public List<Transaction> findTransactionsByLabelId(Long labelId) {
         return findTransactionsByLabelIds(ImmutableList.of(labelId));
     }
+
+    @Override
+    public int removeLabel(Long labelId, Timestamp updatedAt) {
+        return DaoHelper.createRemoveLabelQuery(entityManager, Transaction.class, "transactions", "", labelId, updatedAt)
+                .executeUpdate();
+    }
 }
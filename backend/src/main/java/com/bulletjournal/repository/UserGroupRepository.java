@@ -3,6 +3,8 @@ package com.bulletjournal.repository;
 import com.bulletjournal.repository.models.UserGroup;
 import com.bulletjournal.repository.models.UserGroupKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +14,8 @@ public interface UserGroupRepository extends JpaRepository<UserGroup, UserGroupK
     List<UserGroup> findAllByGroupIdAndAccepted(Long groupId, Boolean accepted);
 
     List<UserGroup> findAllByUserId(Long userId);
+
+    @Query("SELECT CASE WHEN COUNT(userGroup) > 0 THEN true ELSE false END FROM UserGroup userGroup "
+            + "WHERE userGroup.group.id = :groupId AND userGroup.user.name = :username AND userGroup.accepted = true")
+    boolean isAcceptedUser(@Param("groupId") Long groupId, @Param("username") String username);
 }
@@ -18,6 +18,8 @@ import java.util.Objects;
         })
 public class Project extends NamedModel {
 
+    public static final int DESCRIPTION_PREVIEW_LENGTH = 300;
+
     @Id
     @GeneratedValue(generator = "project_generator")
     @SequenceGenerator(
@@ -36,7 +38,7 @@ public class Project extends NamedModel {
     @Column(updatable = false, nullable = false)
     private Integer type;
 
-    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "group_id", nullable = false)
     @OnDelete(action = OnDeleteAction.NO_ACTION)
     private Group group;
@@ -61,6 +63,25 @@ public class Project extends NamedModel {
         this.setName(name);
     }
 
+    /**
+     * Project for list views: description cut to a preview and a group with only the columns lists show.
+     * Not meant to be saved.
+     */
+    public Project(Long id, String name, String owner, Integer type, boolean shared, String description,
+                   Long groupId, String groupName, String groupOwner, String groupUid) {
+        this.id = id;
+        this.owner = owner;
+        this.type = type;
+        this.shared = shared;
+        this.description = description;
+        this.setName(name);
+        this.group = new Group();
+        this.group.setId(groupId);
+        this.group.setName(groupName);
+        this.group.setOwner(groupOwner);
+        this.group.setUid(groupUid);
+    }
+
     public Long getId() {
         return id;
     }
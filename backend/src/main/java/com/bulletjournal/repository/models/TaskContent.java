@@ -4,6 +4,7 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import javax.persistence.*;
+import java.sql.Timestamp;
 
 @Entity
 @Table(name = "task_contents")
@@ -29,6 +30,17 @@ public class TaskContent extends ContentModel<Task> {
         this.setText(text);
     }
 
+    /**
+     * Content without its revisions, not meant to be saved back
+     */
+    public TaskContent(Long id, String owner, String text, Timestamp createdAt, Timestamp updatedAt) {
+        this.id = id;
+        this.setOwner(owner);
+        this.setText(text);
+        this.setCreatedAt(createdAt);
+        this.setUpdatedAt(updatedAt);
+    }
+
     @Override
     public Long getId() {
         return id;
@@ -2,20 +2,27 @@ package com.bulletjournal.repository.utils;
 
 import com.bulletjournal.controller.utils.ZonedDateTimeHelper;
 import com.bulletjournal.daemon.models.ReminderRecord;
+import com.bulletjournal.repository.models.ProjectItemModel;
 import com.bulletjournal.repository.models.Task;
 import com.bulletjournal.repository.models.Transaction;
 import com.bulletjournal.util.BuJoRecurrenceRule;
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.lang3.StringUtils;
 import org.dmfs.rfc5545.DateTime;
+import org.hibernate.query.NativeQuery;
 import org.dmfs.rfc5545.recur.InvalidRecurrenceRuleException;
 import org.dmfs.rfc5545.recur.RecurrenceRuleIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
 import java.sql.Timestamp;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class DaoHelper {
@@ -27,6 +34,108 @@ public class DaoHelper {
         }
     }
 
+    /**
+     * Earliest activity time of the audits of an item, none can predate the item. Audit tables are
+     * partitioned by month of activity time, so history reads bounded by it skip the older partitions.
+     * A day of slack covers clock differences between servers.
+     */
+    public static Timestamp getEarliestActivityTime(ProjectItemModel<?> item) {
+        return new Timestamp(item.getCreatedAt().getTime() - TimeUnit.DAYS.toMillis(1));
+    }
+
+    /**
+     * Runs runnable once the current transaction commits, or right away outside of a transaction.
+     * Used to drop in-memory state derived from rows the transaction changed.
+     */
+    public static void runAfterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+
+    /**
+     * Native UPDATE that strips one label from the labels column of entityClass's table. The entity is
+     * declared as the query space, so Hibernate only invalidates that entity's second-level cache region
+     * instead of every region and the query cache.
+     *
+     * @param extraPredicate additional "AND" condition with positional parameters from 3 on, or empty
+     * @return Query - with the label id bound as 1 and the update time as 2
+     */
+    public static Query createRemoveLabelQuery(EntityManager entityManager, Class<?> entityClass, String table,
+                                               String extraPredicate, Long labelId, Timestamp updatedAt) {
+        String queryString = "UPDATE " + table + " SET labels = array_remove(labels, CAST(?1 AS bigint)),"
+                + " updated_at = ?2 WHERE " + table + ".labels @> CAST(ARRAY[?1] AS bigint[])" + extraPredicate;
+        return entityManager.createNativeQuery(queryString)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(entityClass)
+                .setParameter(1, labelId)
+                .setParameter(2, updatedAt);
+    }
+
+    /**
+     * Native predicate matching rows whose labels contain every one of labelCount positional parameters.
+     * Array containment (@>) can use the GIN index on the labels column while "? = ANY(labels)" cannot.
+     * With no labels the predicate matches every labeled row, so callers must not query with an empty list.
+     *
+     * @param column     the bigint[] labels column, e.g. "tasks.labels"
+     * @param labelCount number of label ids bound after this predicate
+     * @return String - "column @> CAST(ARRAY[?, ...] AS bigint[])"
+     */
+    public static String labelsContainAll(String column, int labelCount) {
+        StringBuilder predicate = new StringBuilder(column).append(" @> CAST(ARRAY[");
+        for (int i = 0; i < labelCount; i++) {
+            if (i > 0) {
+                predicate.append(", ");
+            }
+            predicate.append('?');
+        }
+        return predicate.append("] AS bigint[])").toString();
+    }
+
+    /**
+     * Ids of items in projectIds that were updated, or had content updated, between startTime and endTime,
+     * with the most recent of those update times, newest first.
+     *
+     * @param itemTable    e.g. "tasks"
+     * @param contentTable e.g. "task_contents"
+     * @param parentColumn content column referencing the item, e.g. "task_id"
+     * @param limit        maximum number of rows, null for all
+     * @return List<Object[]> - rows of [item id, most recent update time]
+     */
+    public static List<Object[]> findRecentProjectItemIds(
+            EntityManager entityManager, String itemTable, String contentTable, String parentColumn,
+            Timestamp startTime, Timestamp endTime, List<Long> projectIds, Integer limit) {
+        String inProjects = String.join(", ", Collections.nCopies(projectIds.size(), "?"));
+        String queryString = "SELECT recent.id, MAX(recent.updated_at) AS most_recent_time FROM ("
+                + "SELECT i.id, i.updated_at FROM " + itemTable + " i"
+                + " WHERE i.project_id IN (" + inProjects + ") AND i.updated_at >= ? AND i.updated_at <= ?"
+                + " UNION ALL SELECT c." + parentColumn + ", c.updated_at FROM " + contentTable + " c"
+                + " JOIN " + itemTable + " i ON i.id = c." + parentColumn
+                + " WHERE i.project_id IN (" + inProjects + ") AND c.updated_at >= ? AND c.updated_at <= ?"
+                + ") recent GROUP BY recent.id ORDER BY most_recent_time DESC, recent.id DESC"
+                + (limit == null ? "" : " LIMIT ?");
+        Query query = entityManager.createNativeQuery(queryString);
+        int i = 1;
+        for (int part = 0; part < 2; part++) {
+            for (Long projectId : projectIds) {
+                query.setParameter(i++, projectId);
+            }
+            query.setParameter(i++, startTime);
+            query.setParameter(i++, endTime);
+        }
+        if (limit != null) {
+            query.setParameter(i, limit);
+        }
+        return query.getResultList();
+    }
+
     /**
      * Get all reminder records from given task
      * - For recurring task, return list of ReminderRecord in [startTime, endTime]
@@ -3,6 +3,7 @@ package com.bulletjournal.templates.clients;
 import com.bulletjournal.templates.config.StockApiConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -11,20 +12,25 @@ import java.util.LinkedHashMap;
 
 @Component
 public class StockApiClient {
+    private static final String POLYGON_COMPANY_PATH = "/v1/meta/symbols/{symbol}/company";
+
     private final RestTemplate restClient;
 
-    private static final String POLYGON_COMPANY_ROOT_URL = "https://api.polygon.io/v1/meta/symbols/{symbol}/company";
+    private final StockApiConfig stockApiConfig;
 
     @Autowired
-    private StockApiConfig stockApiConfig;
-
-    public StockApiClient() {
-        this.restClient = new RestTemplate();
+    public StockApiClient(StockApiConfig stockApiConfig) {
+        this.stockApiConfig = stockApiConfig;
+        // a slow upstream must not hold request threads indefinitely
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(stockApiConfig.getConnectTimeoutMillis());
+        requestFactory.setReadTimeout(stockApiConfig.getReadTimeoutMillis());
+        this.restClient = new RestTemplate(requestFactory);
     }
 
     public LinkedHashMap getCompany(String symbol) {
         String url = UriComponentsBuilder.fromHttpUrl(
-                POLYGON_COMPANY_ROOT_URL)
+                this.stockApiConfig.getRootUrl() + POLYGON_COMPANY_PATH)
                 .queryParam("apiKey", this.stockApiConfig.getApiKey())
                 .buildAndExpand(symbol).toUriString();
         LinkedHashMap resp = this.restClient
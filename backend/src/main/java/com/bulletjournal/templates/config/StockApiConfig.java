@@ -1,11 +1,54 @@
 package com.bulletjournal.templates.config;
 
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@ConfigurationProperties(prefix = "stock.api")
 public class StockApiConfig {
 
+    private String rootUrl = "https://api.polygon.io";
+
+    private int connectTimeoutMillis = 2000;
+
+    private int readTimeoutMillis = 5000;
+
+    // how long looked up ticker details are kept in memory
+    private int cacheTtlMinutes = 30;
+
     public String getApiKey() {
         return System.getenv("POLYGON_API_KEY");
     }
+
+    public String getRootUrl() {
+        return rootUrl;
+    }
+
+    public void setRootUrl(String rootUrl) {
+        this.rootUrl = rootUrl;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public void setReadTimeoutMillis(int readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    public int getCacheTtlMinutes() {
+        return cacheTtlMinutes;
+    }
+
+    public void setCacheTtlMinutes(int cacheTtlMinutes) {
+        this.cacheTtlMinutes = cacheTtlMinutes;
+    }
 }
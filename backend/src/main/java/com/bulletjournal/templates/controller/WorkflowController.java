@@ -4,6 +4,7 @@ import com.bulletjournal.clients.UserClient;
 import com.bulletjournal.controller.models.Content;
 import com.bulletjournal.controller.models.ReminderSetting;
 import com.bulletjournal.controller.models.User;
+import com.bulletjournal.exceptions.ResourceNotFoundException;
 import com.bulletjournal.exceptions.UnAuthorizedException;
 import com.bulletjournal.repository.UserDaoJpa;
 import com.bulletjournal.templates.controller.model.SampleTask;
@@ -16,6 +17,7 @@ import com.bulletjournal.templates.repository.model.Choice;
 import com.bulletjournal.templates.repository.model.Step;
 import com.bulletjournal.templates.repository.model.*;
 import com.bulletjournal.templates.workflow.engine.RuleEngine;
+import com.bulletjournal.templates.workflow.engine.SampleTaskImporter;
 import com.bulletjournal.templates.workflow.models.RuleExpression;
 import com.bulletjournal.util.DeltaContent;
 import com.google.common.collect.ImmutableList;
@@ -38,6 +40,7 @@ public class WorkflowController {
     public static final String NEXT_STEP_ROUTE = "/api/public/steps/{stepId}/next";
     public static final String PUBLIC_SAMPLE_TASKS_ROUTE = "/api/public/sampleTasks";
     public static final String SAMPLE_TASKS_IMPORT_ROUTE = "/api/sampleTasks/import";
+    public static final String SAMPLE_TASKS_IMPORT_PROGRESS_ROUTE = "/api/sampleTasks/import/progress";
     public static final String SAMPLE_TASKS_ROUTE = "/api/sampleTasks";
     public static final String ADMIN_SAMPLE_TASK_ROUTE = "/api/admin/sampleTasks/{sampleTaskId}";
     public static final String PUBLIC_SAMPLE_TASK_ROUTE = "/api/public/sampleTasks/{sampleTaskId}";
@@ -75,6 +78,9 @@ public class WorkflowController {
     @Autowired
     private RuleEngine ruleEngine;
 
+    @Autowired
+    private SampleTaskImporter sampleTaskImporter;
+
     @Autowired
     private UserCategoryDaoJpa userCategoryDaoJpa;
 
@@ -166,7 +172,8 @@ public class WorkflowController {
 
     private NextStep checkIfSelectionsMatchCategoryRules(Long stepId, List<Long> selections) {
         Category category = categoryDaoJpa.getById(stepId);
-        List<CategoryRule> categoryRules = category.getCategoryRules();
+        // sort a copy, the rules collection is cached
+        List<CategoryRule> categoryRules = new ArrayList<>(category.getCategoryRules());
         categoryRules.sort((rule1, rule2) -> rule2.getPriority() - rule1.getPriority());
         NextStep nextStep = new NextStep();
         for (CategoryRule categoryRule : categoryRules) {
@@ -186,7 +193,7 @@ public class WorkflowController {
 
     private NextStep checkIfSelectionsMatchStepRules(Long stepId, List<Long> selections) {
         Step step = stepDaoJpa.getById(stepId);
-        List<StepRule> stepRules = step.getStepRules();
+        List<StepRule> stepRules = new ArrayList<>(step.getStepRules());
         stepRules.sort((rule1, rule2) -> rule2.getPriority() - rule1.getPriority());
         NextStep nextStep = new NextStep();
         for (StepRule stepRule : stepRules) {
@@ -287,6 +294,16 @@ public class WorkflowController {
         return sampleTasks;
     }
 
+    @GetMapping(SAMPLE_TASKS_IMPORT_PROGRESS_ROUTE)
+    public SampleTaskImportProgress getSampleTasksImportProgress() {
+        String username = MDC.get(UserClient.USER_NAME_KEY);
+        SampleTaskImportProgress progress = this.sampleTaskImporter.getProgress(username);
+        if (progress == null) {
+            throw new ResourceNotFoundException("No sample task import found for " + username);
+        }
+        return progress;
+    }
+
     @PostMapping(SAMPLE_TASKS_ROUTE)
     public SampleTask createSampleTask(@Valid @RequestBody CreateSampleTaskParams createSampleTaskParams) {
         validateRequester();
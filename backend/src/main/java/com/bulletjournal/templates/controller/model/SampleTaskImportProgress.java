@@ -0,0 +1,61 @@
+package com.bulletjournal.templates.controller.model;
+
+public class SampleTaskImportProgress {
+    private Long projectId;
+
+    private int total;
+
+    private volatile int imported;
+
+    private volatile boolean done;
+
+    private volatile boolean failed;
+
+    public SampleTaskImportProgress() {
+    }
+
+    public SampleTaskImportProgress(Long projectId, int total) {
+        this.projectId = projectId;
+        this.total = total;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public void setDone(boolean done) {
+        this.done = done;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+}
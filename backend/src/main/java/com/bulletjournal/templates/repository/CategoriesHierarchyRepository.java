@@ -3,12 +3,17 @@ package com.bulletjournal.templates.repository;
 import com.bulletjournal.templates.repository.model.CategoriesHierarchy;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 @Repository
 public interface CategoriesHierarchyRepository extends JpaRepository<CategoriesHierarchy, Integer> {
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query("SELECT c from CategoriesHierarchy c WHERE c.id = 1")
     CategoriesHierarchy getCategoriesHierarchy();
 }
@@ -69,23 +69,12 @@ public class CategoryDaoJpa {
         if (category == null) {
             throw new ResourceNotFoundException("Category with id " + id + " doesn't exist");
         }
-        sortChoicesForCategory(category);
         return category;
     }
 
-    private void sortChoicesForCategory(Category category) {
-        if (category.getChoiceOrder() == null || category.getChoices() == null) {
-            return;
-        }
-        List<Long> choiceIdOrder = category.getChoiceOrderById();
-        category.getChoices().sort(Comparator.comparingInt(a -> choiceIdOrder.indexOf(a.getId())));
-    }
-
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public List<Category> getAllCategories() {
-        List<Category> categories = categoryRepository.findAll();
-        categories.forEach(this::sortChoicesForCategory);
-        return categories;
+        return categoryRepository.findAll();
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
@@ -2,12 +2,22 @@ package com.bulletjournal.templates.repository;
 
 import com.bulletjournal.templates.repository.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     Category getByName(String name);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Category getById(Long id);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Category> findAll();
 }
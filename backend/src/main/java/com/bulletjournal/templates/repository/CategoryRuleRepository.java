@@ -2,9 +2,15 @@ package com.bulletjournal.templates.repository;
 
 import com.bulletjournal.templates.repository.model.CategoryRule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface CategoryRuleRepository extends JpaRepository<CategoryRule, Long> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     CategoryRule getById(Long id);
 }
@@ -3,6 +3,7 @@ package com.bulletjournal.templates.repository;
 import com.bulletjournal.exceptions.ResourceNotFoundException;
 import com.bulletjournal.templates.repository.model.Choice;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +17,10 @@ public class ChoiceDaoJpa {
     @Autowired
     private ChoiceRepository choiceRepository;
 
+    @Lazy
+    @Autowired
+    private ChoiceMetadataKeywordDaoJpa choiceMetadataKeywordDaoJpa;
+
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public Choice getById(Long id) {
         Choice choice = choiceRepository.getById(id);
@@ -51,6 +56,8 @@ public class ChoiceDaoJpa {
             throw new ResourceNotFoundException("Choice with id: " + id + " doesn't exist, cannot delete.");
         }
         choiceRepository.deleteById(id);
+        // keywords of the choice are deleted with it
+        this.choiceMetadataKeywordDaoJpa.evictChoiceMatcher();
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
@@ -2,15 +2,21 @@ package com.bulletjournal.templates.repository;
 
 import com.bulletjournal.exceptions.BadRequestException;
 import com.bulletjournal.exceptions.ResourceNotFoundException;
+import com.bulletjournal.repository.utils.DaoHelper;
 import com.bulletjournal.templates.repository.model.Choice;
 import com.bulletjournal.templates.repository.model.ChoiceMetadataKeyword;
+import com.bulletjournal.util.KeywordMatcher;
+import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Repository
@@ -21,12 +27,44 @@ public class ChoiceMetadataKeywordDaoJpa {
     @Autowired
     private ChoiceDaoJpa choiceDaoJpa;
 
+    // (generation it was built in, keyword -> choice id)
+    private volatile Pair<Long, KeywordMatcher<Long>> choiceMatcher;
+    private final AtomicLong choiceMatcherGeneration = new AtomicLong();
+
+    /**
+     * Automaton over all choice keywords, only rebuilt after keywords or choices change
+     */
+    public KeywordMatcher<Long> getChoiceMatcher() {
+        long generation = this.choiceMatcherGeneration.get();
+        Pair<Long, KeywordMatcher<Long>> cached = this.choiceMatcher;
+        if (cached != null && cached.getLeft() == generation) {
+            return cached.getRight();
+        }
+        Map<String, Long> keywords = new HashMap<>();
+        this.choiceMetadataKeywordRepository.findAll()
+                .forEach(keyword -> keywords.put(keyword.getKeyword(), keyword.getChoice().getId()));
+        KeywordMatcher<Long> matcher = new KeywordMatcher<>(keywords);
+        this.choiceMatcher = Pair.of(generation, matcher);
+        return matcher;
+    }
+
+    /**
+     * Drops the keyword automaton once the current transaction commits
+     */
+    public void evictChoiceMatcher() {
+        DaoHelper.runAfterCommit(() -> {
+            this.choiceMatcherGeneration.incrementAndGet();
+            this.choiceMatcher = null;
+        });
+    }
+
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public ChoiceMetadataKeyword save(Long choiceId, String keyword) {
         Choice choice = this.choiceDaoJpa.getById(choiceId);
         ChoiceMetadataKeyword choiceMetadataKeyword = new ChoiceMetadataKeyword();
         choiceMetadataKeyword.setChoice(choice);
         choiceMetadataKeyword.setKeyword(keyword);
+        evictChoiceMatcher();
         return this.choiceMetadataKeywordRepository.save(choiceMetadataKeyword);
     }
 
@@ -36,6 +74,7 @@ public class ChoiceMetadataKeywordDaoJpa {
             throw new ResourceNotFoundException("Keyword not found");
         }
         choiceMetadataKeywordRepository.deleteById(keyword);
+        evictChoiceMatcher();
     }
 
 
@@ -45,6 +84,7 @@ public class ChoiceMetadataKeywordDaoJpa {
                 .orElseThrow(() -> new ResourceNotFoundException("Keyword not found"));
         Choice choice = choiceDaoJpa.getById(choiceId);
         choiceMetadataKeyword.setChoice(choice);
+        evictChoiceMatcher();
         return choiceMetadataKeywordRepository.save(choiceMetadataKeyword);
     }
 
@@ -56,5 +96,6 @@ public class ChoiceMetadataKeywordDaoJpa {
         List<ChoiceMetadataKeyword> list = choiceMetadataKeywordRepository.findAllById(keywords)
                 .stream().filter(Objects::nonNull).collect(Collectors.toList());
         choiceMetadataKeywordRepository.deleteAll(list);
+        evictChoiceMatcher();
     }
 }
@@ -3,11 +3,18 @@ package com.bulletjournal.templates.repository;
 import com.bulletjournal.templates.repository.model.Choice;
 import com.bulletjournal.templates.repository.model.ChoiceMetadataKeyword;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface ChoiceMetadataKeywordRepository extends JpaRepository<ChoiceMetadataKeyword, String> {
     ChoiceMetadataKeyword findByChoice(Choice choice);
-}
-
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<ChoiceMetadataKeyword> findAll();
+}
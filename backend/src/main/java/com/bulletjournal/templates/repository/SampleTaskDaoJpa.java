@@ -13,6 +13,7 @@ import com.bulletjournal.repository.UserDaoJpa;
 import com.bulletjournal.repository.models.Notification;
 import com.bulletjournal.repository.models.Task;
 import com.bulletjournal.repository.models.User;
+import com.bulletjournal.repository.utils.DaoHelper;
 import com.bulletjournal.templates.controller.model.AuditSampleTaskParams;
 import com.bulletjournal.templates.controller.model.CreateSampleTaskParams;
 import com.bulletjournal.templates.controller.model.UpdateSampleTaskParams;
@@ -44,7 +45,10 @@ public class SampleTaskDaoJpa {
     private SampleTaskRuleDaoJpa sampleTaskRuleDaoJpa;
 
     @Autowired
-    private ChoiceMetadataKeywordRepository choiceMetadataKeywordRepository;
+    private ChoiceMetadataKeywordDaoJpa choiceMetadataKeywordDaoJpa;
+
+    @Autowired
+    private ChoiceRepository choiceRepository;
 
     @Autowired
     private SelectionMetadataKeywordDaoJpa selectionMetadataKeywordDaoJpa;
@@ -104,19 +108,10 @@ public class SampleTaskDaoJpa {
         if (!sampleTask.isPending()) {
             return null;
         }
-        List<ChoiceMetadataKeyword> keywords = this.choiceMetadataKeywordRepository.findAll();
-        int maxLen = 0;
-        ChoiceMetadataKeyword keyword = null;
-        for (ChoiceMetadataKeyword candidate : keywords) {
-            if (candidate.getKeyword().length() > maxLen && sampleTask.getMetadata().contains(candidate.getKeyword())) {
-                maxLen = candidate.getKeyword().length();
-                keyword = candidate;
-            }
-        }
-        if (keyword == null) {
-            return null;
-        }
-        return keyword.getChoice();
+        // the longest keyword found in metadata decides the choice
+        Optional<Long> choiceId = this.choiceMetadataKeywordDaoJpa.getChoiceMatcher()
+                .findLongest(sampleTask.getMetadata());
+        return choiceId.map(id -> this.choiceRepository.getById(id)).orElse(null);
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
@@ -161,6 +156,7 @@ public class SampleTaskDaoJpa {
             throw new ResourceNotFoundException("sampleTask id " + sampleTaskId + " not exit");
         }
         sampleTaskRepository.deleteById(sampleTaskId);
+        this.sampleTaskRuleDaoJpa.removeSampleTask(sampleTaskId);
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
@@ -273,6 +269,8 @@ public class SampleTaskDaoJpa {
                 stockTickerDetails.setDetails("");
                 stockTickerDetails.setTicker(investmentUtil.getTicker());
                 stockTickerDetails = stockTickerDetailsRepository.save(stockTickerDetails);
+                String ticker = stockTickerDetails.getTicker();
+                DaoHelper.runAfterCommit(() -> this.stockTickerDetailsDaoJpa.evict(ticker));
                 LOGGER.info("Created stock detail {}", stockTickerDetails);
             }
         }
@@ -296,13 +294,7 @@ public class SampleTaskDaoJpa {
 
         if (stockTickerDetails == null) {
             String sampleTaskName = sampleTask.getName().toLowerCase();
-            Long selectionId = null;
-            for (Map.Entry<Long, List<String>> entry : StockTickerDetailsDaoJpa.SECTOR_KEYWORD.entrySet()) {
-                if (entry.getValue().stream().anyMatch(v -> sampleTaskName.contains(v))) {
-                    selectionId = entry.getKey();
-                    break;
-                }
-            }
+            Long selectionId = StockTickerDetailsDaoJpa.getSectorSelection(sampleTaskName);
             if (selectionId != null) {
                 final long targetSelectionId = selectionId;
                 Selection selection = selectionRepository.findById(targetSelectionId).orElseThrow(
@@ -313,6 +305,8 @@ public class SampleTaskDaoJpa {
                 sd.setDetails("");
                 sd.setTicker(investmentUtil.getTicker());
                 sd = stockTickerDetailsRepository.save(sd);
+                String ticker = sd.getTicker();
+                DaoHelper.runAfterCommit(() -> this.stockTickerDetailsDaoJpa.evict(ticker));
                 stockTickerDetails = sd.toPresentationModelWithChoice();
             }
         }
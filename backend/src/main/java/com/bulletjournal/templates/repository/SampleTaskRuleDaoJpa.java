@@ -1,9 +1,13 @@
 package com.bulletjournal.templates.repository;
 
 import com.bulletjournal.exceptions.ResourceNotFoundException;
+import com.bulletjournal.repository.utils.DaoHelper;
 import com.bulletjournal.templates.repository.model.*;
+import com.bulletjournal.templates.workflow.engine.SampleTaskRuleIndex;
 import com.bulletjournal.util.StringUtil;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.hibernate.Cache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,9 +15,11 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Repository
@@ -22,26 +28,89 @@ public class SampleTaskRuleDaoJpa {
     private SampleTaskRuleRepository sampleTaskRuleRepository;
     private StepRepository stepRepository;
     private StepMetadataKeywordRepository stepMetadataKeywordRepository;
+    private SelectionRepository selectionRepository;
+    private SampleTaskRepository sampleTaskRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // step id -> (generation it was built in, rule index)
+    private final Map<Long, Pair<Long, SampleTaskRuleIndex>> ruleIndexes = new ConcurrentHashMap<>();
+    private final AtomicLong ruleIndexGeneration = new AtomicLong();
 
     @Autowired
     SampleTaskRuleDaoJpa(SampleTaskRuleRepository sampleTaskRuleRepository,
                          StepRepository stepRepository,
-                         StepMetadataKeywordRepository stepMetadataKeywordRepository) {
+                         StepMetadataKeywordRepository stepMetadataKeywordRepository,
+                         SelectionRepository selectionRepository,
+                         SampleTaskRepository sampleTaskRepository) {
         this.sampleTaskRuleRepository = sampleTaskRuleRepository;
         this.stepRepository = stepRepository;
         this.stepMetadataKeywordRepository = stepMetadataKeywordRepository;
+        this.selectionRepository = selectionRepository;
+        this.sampleTaskRepository = sampleTaskRepository;
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public void saveAll(Iterable<SampleTaskRule> sampleTaskRules) {
         this.sampleTaskRuleRepository.saveAll(sampleTaskRules);
+        evictRuleIndexes();
+    }
+
+    /**
+     * Rule index of a step, only built from the database after rules, sample tasks or selections changed.
+     * Not transactional on purpose, a hit must not take a connection.
+     */
+    public SampleTaskRuleIndex getRuleIndex(Long stepId) {
+        long generation = this.ruleIndexGeneration.get();
+        Pair<Long, SampleTaskRuleIndex> cached = this.ruleIndexes.get(stepId);
+        if (cached != null && cached.getLeft() == generation) {
+            return cached.getRight();
+        }
+        // built from the generation read above, an eviction committed meanwhile makes it stale right away
+        SampleTaskRuleIndex ruleIndex = buildRuleIndex(stepId);
+        this.ruleIndexes.put(stepId, Pair.of(generation, ruleIndex));
+        return ruleIndex;
+    }
+
+    private SampleTaskRuleIndex buildRuleIndex(Long stepId) {
+        if (!this.stepRepository.existsById(stepId)) {
+            throw new ResourceNotFoundException("Step with id " + stepId + " doesn't exist");
+        }
+        List<SampleTaskRule> rules = this.sampleTaskRuleRepository.findAllByStepId(stepId);
+        Set<Long> selectionIds = new HashSet<>();
+        Set<Long> sampleTaskIds = new HashSet<>();
+        rules.forEach(rule -> {
+            selectionIds.addAll(rule.getSelectionIds());
+            sampleTaskIds.addAll(rule.getSampleTaskIds());
+        });
+        Map<Long, Long> selectionChoices = new HashMap<>();
+        if (!selectionIds.isEmpty()) {
+            this.selectionRepository.findChoiceIdsByIdIn(selectionIds)
+                    .forEach(row -> selectionChoices.put((Long) row[0], (Long) row[1]));
+        }
+        Set<Long> existingSampleTaskIds = sampleTaskIds.isEmpty() ? Collections.emptySet() :
+                new HashSet<>(this.sampleTaskRepository.findIdsByIdIn(sampleTaskIds));
+        LOGGER.info("Built sample task rule index for step {} with {} rules", stepId, rules.size());
+        return SampleTaskRuleIndex.build(rules, selectionChoices, existingSampleTaskIds);
+    }
+
+    /**
+     * Drops every rule index once the current transaction commits
+     */
+    public void evictRuleIndexes() {
+        DaoHelper.runAfterCommit(() -> {
+            this.ruleIndexGeneration.incrementAndGet();
+            this.ruleIndexes.clear();
+        });
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public SampleTaskRule upsert(Long stepId, String selectionCombo, String taskIds) {
         selectionCombo = StringUtils.join(StringUtil.convertNumArray(selectionCombo), ",");
         taskIds = StringUtils.join(StringUtil.convertNumArray(taskIds), ",");
-        return this.sampleTaskRuleRepository.upsert(stepId, selectionCombo, taskIds);
+        SampleTaskRule rule = this.sampleTaskRuleRepository.upsert(stepId, selectionCombo, taskIds);
+        evictCachedRules();
+        return rule;
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
@@ -52,6 +121,35 @@ public class SampleTaskRuleDaoJpa {
                     "with selectionCombo " + selectionCombo + " doesn't exist, cannot delete.");
         }
         sampleTaskRuleRepository.deleteById(stepId, selectionCombo);
+        evictCachedRules();
+    }
+
+    /**
+     * upsert and delete are native statements that hibernate can't see, so drop the cached rules
+     * once they are committed
+     */
+    private void evictCachedRules() {
+        Cache cache = this.entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        DaoHelper.runAfterCommit(() -> {
+            cache.evictEntityData(SampleTaskRule.class);
+            cache.evictCollectionData(Step.class.getName() + ".sampleTaskRules");
+            cache.evictQueryRegions();
+        });
+        evictRuleIndexes();
+    }
+
+    /**
+     * Takes a deleted sample task out of the rules that still list it
+     */
+    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
+    public void removeSampleTask(Long sampleTaskId) {
+        for (SampleTaskRule rule : this.sampleTaskRuleRepository.findAll()) {
+            List<Long> taskIds = rule.getSampleTaskIds();
+            if (taskIds.remove(sampleTaskId)) {
+                this.upsert(rule.getStep().getId(), rule.getSelectionCombo(), StringUtils.join(taskIds, ","));
+            }
+        }
+        evictRuleIndexes();
     }
 
     private Step fetchStepWithId(Long stepId) {
@@ -5,13 +5,22 @@ import com.bulletjournal.templates.repository.model.SampleTaskRuleId;
 import com.bulletjournal.templates.repository.model.Step;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 public interface SampleTaskRuleRepository extends JpaRepository<SampleTaskRule, SampleTaskRuleId> {
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<SampleTaskRule> findAllByStep(Step step);
 
+    @Query("SELECT rule FROM SampleTaskRule rule WHERE rule.step.id = :stepId")
+    List<SampleTaskRule> findAllByStepId(@Param("stepId") Long stepId);
+
     @Query(value = "insert into template.sample_task_rules (task_ids, step_id, selection_combo) "
             + "values(:taskIds, :stepId, :selectionCombo) "
             + "on conflict (step_id, selection_combo) "
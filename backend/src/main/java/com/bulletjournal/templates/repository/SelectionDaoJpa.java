@@ -6,6 +6,7 @@ import com.bulletjournal.templates.repository.model.Choice;
 import com.bulletjournal.templates.repository.model.Selection;
 import com.bulletjournal.templates.repository.model.SelectionIntroduction;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +24,9 @@ public class SelectionDaoJpa {
     private SelectionIntroductionRepository selectionIntroductionRepository;
     @Autowired
     private ChoiceDaoJpa choiceDaoJpa;
+    @Lazy
+    @Autowired
+    private SampleTaskRuleDaoJpa sampleTaskRuleDaoJpa;
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public Selection save(Long choiceId, String icon, String text) {
@@ -42,6 +46,7 @@ public class SelectionDaoJpa {
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public Selection save(Selection selection) {
+        this.sampleTaskRuleDaoJpa.evictRuleIndexes();
         return this.selectionRepository.save(selection);
     }
 
@@ -68,6 +73,7 @@ public class SelectionDaoJpa {
             throw new ResourceNotFoundException("Selection with id: " + id + " doesn't exist, cannot delete.");
         }
         selectionRepository.deleteById(id);
+        this.sampleTaskRuleDaoJpa.evictRuleIndexes();
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
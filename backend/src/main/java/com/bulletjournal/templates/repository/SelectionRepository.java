@@ -3,13 +3,29 @@ package com.bulletjournal.templates.repository;
 import com.bulletjournal.templates.repository.model.Choice;
 import com.bulletjournal.templates.repository.model.Selection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface SelectionRepository extends JpaRepository<Selection, Long> {
     boolean existsSelectionByChoiceAndText(Choice choice, String text);
 
     List<Selection> getAllByChoiceId(Long choiceId);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Selection> findAllById(Iterable<Long> ids);
+
+    /**
+     * @return pairs of selection id and its choice id
+     */
+    @Query("SELECT selection.id, selection.choice.id FROM Selection selection WHERE selection.id IN :ids")
+    List<Object[]> findChoiceIdsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -11,7 +11,6 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -53,6 +52,7 @@ public class StepDaoJpa {
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public void deleteById(Long stepId) {
         stepRepository.deleteById(stepId);
+        sampleTaskRuleDaoJpa.evictRuleIndexes();
     }
 
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
@@ -61,18 +61,9 @@ public class StepDaoJpa {
         if (step == null) {
             throw new ResourceNotFoundException("Step with id " + stepId + " doesn't exist");
         }
-        sortChoicesForStep(step);
         return step;
     }
 
-    private void sortChoicesForStep(Step step) {
-        if (step.getChoiceOrder() == null || step.getChoices() == null) {
-            return;
-        }
-        List<Long> choiceIdOrder = step.getChoiceOrderById();
-        step.getChoices().sort(Comparator.comparingInt(a -> choiceIdOrder.indexOf(a.getId())));
-    }
-
     @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
     public void updateChoicesForStep(Long stepId, List<Long> choicesIds) {
         Step step = this.getById(stepId);
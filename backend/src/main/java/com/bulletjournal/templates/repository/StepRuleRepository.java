@@ -2,9 +2,15 @@ package com.bulletjournal.templates.repository;
 
 import com.bulletjournal.templates.repository.model.StepRule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface StepRuleRepository extends JpaRepository<StepRule, Long> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     StepRule getById(Long id);
 }
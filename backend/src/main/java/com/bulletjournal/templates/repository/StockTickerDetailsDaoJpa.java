@@ -1,17 +1,25 @@
 package com.bulletjournal.templates.repository;
 
 import com.bulletjournal.templates.clients.StockApiClient;
+import com.bulletjournal.templates.config.StockApiConfig;
 import com.bulletjournal.templates.controller.model.StockTickerDetails;
 import com.bulletjournal.templates.repository.model.Selection;
+import com.bulletjournal.util.KeywordMatcher;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.gson.Gson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
 import java.sql.Timestamp;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Repository
 public class StockTickerDetailsDaoJpa {
@@ -21,6 +29,9 @@ public class StockTickerDetailsDaoJpa {
 
     public static Map<Long, List<String>> SECTOR_KEYWORD = new HashMap<>();
 
+    // keyword -> sector selection id
+    private static final KeywordMatcher<Long> SECTOR_MATCHER;
+
     static {
         SECTOR_KEYWORD.put(254L, ImmutableList.of("bank", "acquisition", "capita", "financial"));
         SECTOR_KEYWORD.put(255L, ImmutableList.of("pharmaceutical", "medicine",
@@ -29,10 +40,16 @@ public class StockTickerDetailsDaoJpa {
         SECTOR_KEYWORD.put(252L, ImmutableList.of("education"));
         SECTOR_KEYWORD.put(260L, ImmutableList.of("utility", "utilities"));
         SECTOR_KEYWORD.put(253L, ImmutableList.of("petroleum", "energy"));
+
+        Map<String, Long> sectors = new HashMap<>();
+        SECTOR_KEYWORD.forEach((selectionId, keywords) -> keywords.forEach(k -> sectors.put(k, selectionId)));
+        SECTOR_MATCHER = new KeywordMatcher<>(sectors);
     }
 
     public static final long MILLS_IN_YEAR = 1000L * 60 * 60 * 24 * 365;
 
+    private static final int MAX_CACHED_TICKERS = 10000;
+
     @Autowired
     private StockTickerDetailsRepository stockTickerDetailsRepository;
 
@@ -42,7 +59,52 @@ public class StockTickerDetailsDaoJpa {
     @Autowired
     private SelectionDaoJpa selectionDaoJpa;
 
+    @Autowired
+    private StockApiConfig stockApiConfig;
+
+    private Cache<String, Optional<StockTickerDetails>> tickerDetailsCache;
+
+    @PostConstruct
+    public void postConstruct() {
+        this.tickerDetailsCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(this.stockApiConfig.getCacheTtlMinutes(), TimeUnit.MINUTES)
+                .maximumSize(MAX_CACHED_TICKERS)
+                .build();
+    }
+
+    /**
+     * @param companyName lower case company name
+     * @return sector selection id of the first sector in SECTOR_KEYWORD with a keyword in the name, null if none
+     */
+    public static Long getSectorSelection(String companyName) {
+        Set<Long> matched = new HashSet<>(SECTOR_MATCHER.findAll(companyName));
+        return SECTOR_KEYWORD.keySet().stream().filter(matched::contains).findFirst().orElse(null);
+    }
+
+    /**
+     * Ticker details from memory, then the table, then the stock api. Concurrent lookups of the same
+     * symbol wait for a single load instead of each calling the stock api.
+     *
+     * @return null if the symbol can't be resolved
+     */
     public StockTickerDetails get(String symbol) {
+        try {
+            return this.tickerDetailsCache.get(symbol, () -> Optional.ofNullable(load(symbol))).orElse(null);
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            // failed loads are not cached, the next lookup tries again
+            LOGGER.info("Unable to find StockTickerDetails for {}", symbol);
+            return null;
+        }
+    }
+
+    /**
+     * Drops the cached details of a ticker whose row was written elsewhere
+     */
+    public void evict(String symbol) {
+        this.tickerDetailsCache.invalidate(symbol);
+    }
+
+    private StockTickerDetails load(String symbol) {
         Optional<com.bulletjournal.templates.repository.model.StockTickerDetails> stockTickerDetailsOptional =
                 this.stockTickerDetailsRepository.findById(symbol);
         if (stockTickerDetailsOptional.isPresent() && stockTickerDetailsOptional.get().
@@ -50,15 +112,7 @@ public class StockTickerDetailsDaoJpa {
             return stockTickerDetailsOptional.get().toPresentationModelWithChoice();
         }
 
-        LinkedHashMap resp;
-        try {
-            resp = this.stockApiClient.getCompany(symbol);
-        } catch (Exception ex) {
-            LOGGER.info("Unable to find StockTickerDetails for {}", symbol);
-            // LOGGER.error("stockApiClient#getCompany failed", ex);
-            return null;
-        }
-
+        LinkedHashMap resp = this.stockApiClient.getCompany(symbol);
         LOGGER.info(resp.toString());
         String sector = (String) resp.get("sector");
         Long selectionId;
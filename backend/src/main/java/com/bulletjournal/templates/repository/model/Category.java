@@ -1,15 +1,20 @@
 package com.bulletjournal.templates.repository.model;
 
 import com.bulletjournal.repository.models.NamedModel;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "categories", schema = "template")
 public class Category extends NamedModel {
 
@@ -45,9 +50,11 @@ public class Category extends NamedModel {
             inverseJoinColumns = {
                     @JoinColumn(name = "choice_id", referencedColumnName = "id",
                             nullable = false, updatable = false)})
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Choice> choices;
 
     @OneToMany(mappedBy = "category", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<CategoryRule> categoryRules;
 
     @Column(name = "choice_order")
@@ -118,12 +125,17 @@ public class Category extends NamedModel {
         this.nextStep = nextStep;
     }
 
+    /**
+     * Distinct choices in choiceOrder, built on a copy so reading never dirties the cached collection
+     */
     public List<Choice> getChoices() {
         if (choices == null) {
             return Collections.emptyList();
         }
-        choices = choices.stream().distinct().collect(Collectors.toList());
-        return choices;
+        List<Long> choiceIdOrder = getChoiceOrderById();
+        return choices.stream().distinct()
+                .sorted(Comparator.comparingInt(choice -> choiceIdOrder.indexOf(choice.getId())))
+                .collect(Collectors.toList());
     }
 
     public void setChoices(List<Choice> choices) {
@@ -1,6 +1,8 @@
 package com.bulletjournal.templates.repository.model;
 
 import com.bulletjournal.repository.models.NamedModel;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -10,6 +12,8 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "choices", schema = "template")
 public class Choice extends NamedModel {
     @Id
@@ -21,6 +25,7 @@ public class Choice extends NamedModel {
     private Long id;
 
     @OneToMany(mappedBy = "choice", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Selection> selections;
 
     @ManyToMany(targetEntity = Category.class, mappedBy = "choices", fetch = FetchType.LAZY)
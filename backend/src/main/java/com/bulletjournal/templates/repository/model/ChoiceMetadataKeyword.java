@@ -1,12 +1,16 @@
 package com.bulletjournal.templates.repository.model;
 
 import com.bulletjournal.repository.models.AuditModel;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import javax.persistence.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "choice_metadata_keywords", schema = "template")
 public class ChoiceMetadataKeyword extends AuditModel {
 
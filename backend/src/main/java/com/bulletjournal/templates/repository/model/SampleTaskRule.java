@@ -2,6 +2,8 @@ package com.bulletjournal.templates.repository.model;
 
 import com.bulletjournal.util.StringUtil;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -10,6 +12,8 @@ import java.io.Serializable;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "sample_task_rules", schema = "template")
 @IdClass(SampleTaskRuleId.class)
 public class SampleTaskRule implements Serializable {
@@ -1,6 +1,8 @@
 package com.bulletjournal.templates.repository.model;
 
 import com.bulletjournal.repository.models.AuditModel;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -12,6 +14,8 @@ import javax.persistence.*;
  * One selection can only belong to one choice
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "selections", schema = "template")
 public class Selection extends AuditModel {
 
@@ -1,16 +1,21 @@
 package com.bulletjournal.templates.repository.model;
 
 import com.bulletjournal.repository.models.NamedModel;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
 
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "steps", schema = "template")
 public class Step extends NamedModel {
 
@@ -27,6 +32,7 @@ public class Step extends NamedModel {
             inverseJoinColumns = {
                     @JoinColumn(name = "choice_id", referencedColumnName = "id",
                             nullable = false, updatable = false)})
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Choice> choices;
 
     @Type(type = "long-array")
@@ -41,9 +47,11 @@ public class Step extends NamedModel {
     private Step nextStep;
 
     @OneToMany(mappedBy = "step", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<StepRule> stepRules = new ArrayList<>();
 
     @OneToMany(mappedBy = "step", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<SampleTaskRule> sampleTaskRules = new ArrayList<>();
 
     @Column(name = "choice_order")
@@ -96,12 +104,17 @@ public class Step extends NamedModel {
         this.nextStep = nextStep;
     }
 
+    /**
+     * Distinct choices in choiceOrder, built on a copy so reading never dirties the cached collection
+     */
     public List<Choice> getChoices() {
         if (choices == null) {
             return Collections.emptyList();
         }
-        choices = choices.stream().distinct().collect(Collectors.toList());
-        return choices;
+        List<Long> choiceIdOrder = getChoiceOrderById();
+        return choices.stream().distinct()
+                .sorted(Comparator.comparingInt(choice -> choiceIdOrder.indexOf(choice.getId())))
+                .collect(Collectors.toList());
     }
 
     public void setChoices(List<Choice> choices) {
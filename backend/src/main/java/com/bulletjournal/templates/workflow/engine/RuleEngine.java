@@ -2,21 +2,17 @@ package com.bulletjournal.templates.workflow.engine;
 
 import com.bulletjournal.controller.utils.ZonedDateTimeHelper;
 import com.bulletjournal.notifications.ImportSampleTasksEvent;
-import com.bulletjournal.notifications.NotificationService;
 import com.bulletjournal.repository.TaskDaoJpa;
 import com.bulletjournal.repository.UserDaoJpa;
 import com.bulletjournal.repository.models.User;
 import com.bulletjournal.templates.controller.model.RemoveUserSampleTasksParams;
 import com.bulletjournal.templates.repository.*;
 import com.bulletjournal.templates.repository.model.SampleTask;
-import com.bulletjournal.templates.repository.model.SampleTaskRule;
-import com.bulletjournal.templates.repository.model.Selection;
 import com.bulletjournal.templates.repository.model.SelectionMetadataKeyword;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,15 +29,6 @@ public class RuleEngine {
     @Autowired
     private SampleTaskDaoJpa sampleTaskDaoJpa;
 
-    @Autowired
-    private StepDaoJpa stepDaoJpa;
-
-    @Autowired
-    private SelectionDaoJpa selectionDaoJpa;
-
-    @Autowired
-    private SampleTaskRuleRepository sampleTaskRuleRepository;
-
     @Autowired
     private SampleTaskRuleDaoJpa sampleTaskRuleDaoJpa;
 
@@ -54,9 +41,8 @@ public class RuleEngine {
     @Autowired
     private SelectionMetadataKeywordDaoJpa selectionMetadataKeywordDaoJpa;
 
-    @Lazy
     @Autowired
-    private NotificationService notificationService;
+    private SampleTaskImporter sampleTaskImporter;
 
     public static List<com.bulletjournal.templates.controller.model.SampleTask> sortSampleTasks(
             List<com.bulletjournal.templates.controller.model.SampleTask> sampleTasks) {
@@ -124,7 +110,7 @@ public class RuleEngine {
         sampleTasks.sort(
                 Comparator.comparing(s -> (s.getDueDate() + (StringUtils.isBlank(s.getDueTime()) ? "00:00" : s.getDueTime()))));
 
-        this.notificationService.handleImportSampleTasksEvent(
+        this.sampleTaskImporter.submit(
                 new ImportSampleTasksEvent(importTasksParams, requester, sampleTasks, repoSampleTasks));
         return sampleTasks;
     }
@@ -141,104 +127,19 @@ public class RuleEngine {
         return 6;
     }
 
-    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
+    /**
+     * Evaluated against the in-memory rule index of the step, see {@link SampleTaskRuleIndex}
+     */
     public Set<Long> getSampleTasksForFinalStep(long stepId,
                                                 List<Long> selections,
                                                 List<Long> prevSelections) {
-        if (selections == null) {
-            selections = Collections.emptyList();
+        Set<Long> allSelectionIds = new HashSet<>();
+        if (selections != null) {
+            allSelectionIds.addAll(selections);
         }
-        if (prevSelections == null) {
-            prevSelections = Collections.emptyList();
-        }
-        Set<Long> allSelectionIds = new HashSet<>(selections);
-        allSelectionIds.addAll(prevSelections);
-        List<Selection> allSelections =
-                this.selectionDaoJpa.getSelectionsById(allSelectionIds);
-        Map<Long, Selection> selectionMap = allSelections.stream()
-                .collect(Collectors.toMap(Selection::getId, s -> s));
-
-        // get task rules
-        List<SampleTaskRule> rules = this.sampleTaskRuleRepository
-                .findAllByStep(this.stepDaoJpa.getById(stepId));
-        // filter rules so that only selections related rules are left
-        rules = rules.stream().filter(rule -> rule
-                .getSelectionIds().stream().allMatch(s -> allSelectionIds.contains(s)))
-                .collect(Collectors.toList());
-
-        // some choices are not applicable such as Intensity or 'Computer Science Category'
-        Set<Long> applicableChoices = new HashSet<>();
-        validateRuleSelectionIds(rules);
-        rules.forEach(rule -> rule.getSelectionIds()
-                .forEach(s -> {
-                    Long choiceId = selectionMap.get(s).getChoice().getId();
-                    if (!applicableChoices.contains(choiceId)) {
-                        applicableChoices.add(choiceId);
-                    }
-                }));
-
-        // choice id -> its selections
-        Map<Long, List<Selection>> allChoices = new HashMap<>();
-        allSelections.forEach(s -> {
-            Long choiceId = s.getChoice().getId();
-            if (applicableChoices.contains(choiceId)) {
-                allChoices.computeIfAbsent(choiceId, k -> new ArrayList<>()).add(s);
-            }
-        });
-        Map<String, SampleTaskRule> ruleMap = rules.stream()
-                .collect(Collectors.toMap(SampleTaskRule::getSelectionCombo, r -> r));
-
-        // resulting sample task ids
-        Set<Long> result = new HashSet<>();
-        boolean fistTime = true;
-        // find choice combo if there is selection combo in any task rule
-        for (SampleTaskRule rule : rules) {
-            if (rule.getSelectionIds().size() < 2) {
-                continue;
-            }
-            Set<Long> choiceIds = new HashSet<>();
-            rule.getSelectionIds().forEach(s -> choiceIds.add(selectionMap.get(s).getChoice().getId()));
-            if (choiceIds.size() < 2) {
-                continue;
-            }
-            // union for choice combo
-            result.addAll(rule.getSampleTaskIds());
-            fistTime = false;
-
-            choiceIds.forEach(choiceId -> allChoices.remove(choiceId));
-        }
-
-        for (List<Selection> selected : allChoices.values()) {
-            Set<Long> tmpResult = new HashSet<>();
-            for (Selection selection : selected) {
-                // Selections in one choice => union of List<SampleTask>
-                SampleTaskRule r = ruleMap.remove(Long.toString(selection.getId()));
-                if (r != null) {
-                    tmpResult.addAll(r.getSampleTaskIds());
-                }
-            }
-
-            // Selections between choices => intersection of List<SampleTask>
-            if (fistTime) {
-                result.addAll(tmpResult);
-                fistTime = false;
-            } else {
-                result.retainAll(tmpResult);
-            }
-        }
-
-        return result;
-    }
-
-    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED)
-    protected void validateRuleSelectionIds(List<SampleTaskRule> rules) {
-        for (SampleTaskRule rule : rules) {
-            List<Long> l = this.sampleTaskDaoJpa.findAllById(rule.getSampleTaskIds())
-                    .stream().map(s -> s.getId()).sorted().collect(Collectors.toList());
-            String valid = StringUtils.join(l, ",");
-            if (!Objects.equals(valid, rule.getTaskIds())) {
-                this.sampleTaskRuleDaoJpa.upsert(rule.getStep().getId(), rule.getSelectionCombo(), valid);
-            }
+        if (prevSelections != null) {
+            allSelectionIds.addAll(prevSelections);
         }
+        return this.sampleTaskRuleDaoJpa.getRuleIndex(stepId).getSampleTaskIds(allSelectionIds);
     }
 }
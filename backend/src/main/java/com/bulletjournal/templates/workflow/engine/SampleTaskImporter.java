@@ -0,0 +1,86 @@
+package com.bulletjournal.templates.workflow.engine;
+
+import com.bulletjournal.notifications.ImportSampleTasksEvent;
+import com.bulletjournal.repository.TaskDaoJpa;
+import com.bulletjournal.templates.controller.model.RemoveUserSampleTasksParams;
+import com.bulletjournal.templates.controller.model.SampleTaskImportProgress;
+import com.bulletjournal.util.CustomThreadFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports sample tasks into user projects on its own thread, so a large plan doesn't hold up the
+ * notification pipeline. Progress of the latest import of each user is kept for an hour.
+ */
+@Service
+public class SampleTaskImporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SampleTaskImporter.class);
+
+    private final ExecutorService executorService =
+            Executors.newSingleThreadExecutor(new CustomThreadFactory("sample-task-import"));
+
+    private final Cache<String, SampleTaskImportProgress> progresses = CacheBuilder.newBuilder()
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .build();
+
+    @Autowired
+    private TaskDaoJpa taskDaoJpa;
+
+    public SampleTaskImportProgress submit(ImportSampleTasksEvent event) {
+        RemoveUserSampleTasksParams importTasksParams = event.getImportTasksParams();
+        SampleTaskImportProgress progress = new SampleTaskImportProgress(
+                importTasksParams.getProjectId(), event.getSampleTasks().size());
+        this.progresses.put(event.getRequester(), progress);
+        this.executorService.submit(() -> importSampleTasks(event, progress));
+        return progress;
+    }
+
+    public SampleTaskImportProgress getProgress(String requester) {
+        return this.progresses.getIfPresent(requester);
+    }
+
+    private void importSampleTasks(ImportSampleTasksEvent event, SampleTaskImportProgress progress) {
+        RemoveUserSampleTasksParams importTasksParams = event.getImportTasksParams();
+        long start = System.currentTimeMillis();
+        try {
+            List<Long> taskIds = this.taskDaoJpa.importSampleTasks(
+                    importTasksParams.getProjectId(),
+                    event.getRequester(),
+                    event.getSampleTasks(),
+                    event.getRepoSampleTasks(),
+                    importTasksParams.getReminderBefore(),
+                    importTasksParams.getAssignees(),
+                    importTasksParams.getLabels(),
+                    progress::setImported);
+            LOGGER.info("Imported {} sample tasks for {} in {} ms",
+                    taskIds.size(), event.getRequester(), System.currentTimeMillis() - start);
+        } catch (Exception ex) {
+            LOGGER.error("Error on importing sample tasks for " + event.getRequester(), ex);
+            progress.setImported(0);
+            progress.setFailed(true);
+        } finally {
+            progress.setDone(true);
+        }
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        this.executorService.shutdown();
+        try {
+            // wait 5 seconds for the running import
+            this.executorService.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.bulletjournal.templates.workflow.engine;
+
+import com.bulletjournal.templates.repository.model.SampleTaskRule;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Sample task rules of one step compiled into bitmaps, so picking the sample tasks of a final step
+ * is a few unions and intersections without going to the database.
+ * <p>
+ * Instances are immutable and shared by concurrent requests.
+ * </p>
+ */
+public class SampleTaskRuleIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SampleTaskRuleIndex.class);
+
+    // selection id -> choice id, for every selection used by a rule
+    private final Map<Long, Long> selectionChoices;
+
+    // rules with a single selection: selection id -> sample task ids
+    private final Map<Long, RoaringBitmap> selectionRules;
+
+    // rules with several selections
+    private final List<ComboRule> comboRules;
+
+    private SampleTaskRuleIndex(Map<Long, Long> selectionChoices,
+                                Map<Long, RoaringBitmap> selectionRules,
+                                List<ComboRule> comboRules) {
+        this.selectionChoices = selectionChoices;
+        this.selectionRules = selectionRules;
+        this.comboRules = comboRules;
+    }
+
+    /**
+     * @param rules            all sample task rules of the step
+     * @param selectionChoices selection id -> choice id for the selections the rules use
+     * @param sampleTaskIds    ids of the sample tasks that still exist, stale ids in rules are dropped
+     */
+    public static SampleTaskRuleIndex build(
+            List<SampleTaskRule> rules, Map<Long, Long> selectionChoices, Set<Long> sampleTaskIds) {
+        Map<Long, RoaringBitmap> selectionRules = new HashMap<>();
+        List<ComboRule> comboRules = new ArrayList<>();
+        for (SampleTaskRule rule : rules) {
+            List<Long> selectionIds = rule.getSelectionIds();
+            if (selectionIds.isEmpty() || !selectionChoices.keySet().containsAll(selectionIds)) {
+                LOGGER.warn("Skipping sample task rule {} with unknown selections", rule.getSelectionCombo());
+                continue;
+            }
+            RoaringBitmap sampleTasks = new RoaringBitmap();
+            for (Long sampleTaskId : rule.getSampleTaskIds()) {
+                if (sampleTaskIds.contains(sampleTaskId)) {
+                    sampleTasks.add(Math.toIntExact(sampleTaskId));
+                }
+            }
+            sampleTasks.runOptimize();
+            if (selectionIds.size() == 1) {
+                selectionRules.put(selectionIds.get(0), sampleTasks);
+                continue;
+            }
+            Set<Long> choiceIds = new HashSet<>();
+            selectionIds.forEach(s -> choiceIds.add(selectionChoices.get(s)));
+            comboRules.add(new ComboRule(new HashSet<>(selectionIds), choiceIds, sampleTasks));
+        }
+        return new SampleTaskRuleIndex(new HashMap<>(selectionChoices), selectionRules, comboRules);
+    }
+
+    /**
+     * Rules whose selections were all picked apply. Combo rules across choices are unioned, selections
+     * in one choice are unioned and the results of different choices are intersected.
+     *
+     * @param selections selections picked in the current and all previous steps
+     * @return sample task ids
+     */
+    public Set<Long> getSampleTaskIds(Set<Long> selections) {
+        // some choices are not applicable such as Intensity or 'Computer Science Category'
+        Set<Long> applicableChoices = new HashSet<>();
+        for (Long selectionId : selections) {
+            if (this.selectionRules.containsKey(selectionId)) {
+                applicableChoices.add(this.selectionChoices.get(selectionId));
+            }
+        }
+
+        RoaringBitmap result = new RoaringBitmap();
+        boolean firstTime = true;
+        Set<Long> comboChoices = new HashSet<>();
+        for (ComboRule rule : this.comboRules) {
+            if (!selections.containsAll(rule.selectionIds)) {
+                continue;
+            }
+            applicableChoices.addAll(rule.choiceIds);
+            if (rule.choiceIds.size() < 2) {
+                continue;
+            }
+            // union for choice combo
+            result.or(rule.sampleTasks);
+            firstTime = false;
+            comboChoices.addAll(rule.choiceIds);
+        }
+
+        // Selections in one choice => union of sample tasks
+        Map<Long, RoaringBitmap> choiceResults = new HashMap<>();
+        for (Long selectionId : selections) {
+            Long choiceId = this.selectionChoices.get(selectionId);
+            if (choiceId == null || !applicableChoices.contains(choiceId) || comboChoices.contains(choiceId)) {
+                continue;
+            }
+            RoaringBitmap choiceResult = choiceResults.computeIfAbsent(choiceId, k -> new RoaringBitmap());
+            RoaringBitmap sampleTasks = this.selectionRules.get(selectionId);
+            if (sampleTasks != null) {
+                choiceResult.or(sampleTasks);
+            }
+        }
+
+        // Selections between choices => intersection of sample tasks
+        for (RoaringBitmap choiceResult : choiceResults.values()) {
+            if (firstTime) {
+                result.or(choiceResult);
+                firstTime = false;
+            } else {
+                result.and(choiceResult);
+            }
+        }
+
+        Set<Long> sampleTaskIds = new HashSet<>();
+        for (int id : result.toArray()) {
+            sampleTaskIds.add((long) id);
+        }
+        return sampleTaskIds;
+    }
+
+    private static class ComboRule {
+        private final Set<Long> selectionIds;
+        private final Set<Long> choiceIds;
+        private final RoaringBitmap sampleTasks;
+
+        private ComboRule(Set<Long> selectionIds, Set<Long> choiceIds, RoaringBitmap sampleTasks) {
+            this.selectionIds = selectionIds;
+            this.choiceIds = choiceIds;
+            this.sampleTasks = sampleTasks;
+        }
+    }
+}
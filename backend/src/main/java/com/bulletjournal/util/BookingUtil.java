@@ -9,7 +9,6 @@ import com.bulletjournal.repository.models.BookingLink;
 import com.bulletjournal.repository.models.Task;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.StringUtils;
 import org.dmfs.rfc5545.DateTime;
 import org.dmfs.rfc5545.recur.InvalidRecurrenceRuleException;
@@ -18,9 +17,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class BookingUtil {
     private static final Logger LOGGER = LoggerFactory.getLogger(BookingUtil.class);
@@ -28,123 +29,224 @@ public class BookingUtil {
     private static final Gson EXPOSE_GSON = new GsonBuilder()
             .excludeFieldsWithoutExposeAnnotation().create();
 
+    /**
+     * Calculate booking slots between startDate and endDate.
+     * <p>
+     * Tasks and recurring spans are turned into busy intervals over epoch seconds and mapped onto slot
+     * index ranges directly, so the cost is linear in slots plus intervals rather than their product.
+     * Overrides and bookings are looked up by (date, index).
+     * </p>
+     */
     public static List<BookingSlot> calculateSlots(
             String timezone, String requestTimezone,
             List<BookingSlot> slotsOverride,
             String startDate, String endDate, int slotSpan, boolean includeTaskWithoutDuration,
             int beforeBuffer, int afterBuffer, List<Task> tasksBetween, String recurrences, List<Booking> bookings) {
 
-        List<RecurringSpan> recurringSpans = toList(recurrences);
-        List<Pair<ZonedDateTime, ZonedDateTime>> recurringTimes = new ArrayList<>();
-        recurringSpans.forEach(s -> {
-                    try {
-                        DateTime startDateTime = ZonedDateTimeHelper.getDateTime(ZonedDateTimeHelper.getStartTime(startDate, null, timezone));
-                        DateTime endDateTime = ZonedDateTimeHelper.getDateTime(ZonedDateTimeHelper.getEndTime(endDate, null, timezone));
-                        String recurrenceRule = s.getRecurrenceRule();
-                        BuJoRecurrenceRule rule = new BuJoRecurrenceRule(recurrenceRule, timezone);
-                        RecurrenceRuleIterator it = rule.getIterator();
-                        while (it.hasNext()) {
-                            DateTime currDateTime = it.nextDateTime();
-                            if (currDateTime.after(endDateTime)) {
-                                break;
-                            }
-                            if (currDateTime.before(startDateTime)) {
-                                continue;
-                            }
-                            recurringTimes.add(Pair.of(ZonedDateTimeHelper.getZonedDateTime(currDateTime),
-                                    ZonedDateTimeHelper.getZonedDateTime(currDateTime).plusMinutes(s.getDuration())));
-                        }
-                    } catch (InvalidRecurrenceRuleException e) {
-                        LOGGER.error("Error parsing recurrence rule: {} in BookingUtil.calculateSlot",
-                                e.toString());
-                    } catch (NumberFormatException e) {
-                        throw new IllegalArgumentException("Recurrence rule format invalid");
-                    }
-                }
-
-        );
-
-
-        if (!includeTaskWithoutDuration) {
-            tasksBetween = tasksBetween.stream().filter(t -> t.hasDuration()).collect(Collectors.toList());
-        }
-        Map<Task, Pair<ZonedDateTime, ZonedDateTime>> taskTimes = new HashMap<>();
-        tasksBetween.forEach(t -> taskTimes.put(t, Pair.of(
-                ZonedDateTimeHelper.getDateTimeInDifferentZone(t.getDueDate(), t.getDueTime(), t.getTimezone(), timezone).minusMinutes(beforeBuffer),
-                t.hasDuration() ? ZonedDateTimeHelper.getDateTimeInDifferentZone(t.getDueDate(), t.getDueTime(), t.getTimezone(), timezone)
-                        .plusMinutes(t.getDuration()).plusMinutes(afterBuffer)
-                        : ZonedDateTimeHelper.getDateTimeInDifferentZone(
-                        t.getDueDate(), t.getDueTime(), t.getTimezone(), timezone).plusMinutes(slotSpan).plusMinutes(afterBuffer)
-        )));
-
         List<BookingSlot> slots = new ArrayList<>();
+        if (slotSpan <= 0) return slots;
+
         ZonedDateTime startTime = ZonedDateTimeHelper.getStartTime(startDate, null, timezone);
         ZonedDateTime endTime = ZonedDateTimeHelper.getEndTime(endDate, null, timezone);
-        endTime.plusMinutes(1);
-
-        if (slotSpan <= 0) return slots;
 
         int durationMinutes = (int) Duration.between(startTime, endTime).toMinutes();
 
         int slotsNumber = durationMinutes / slotSpan;
+        if (slotsNumber <= 0) return slots;
 
         int totalIndexes = (24 * 60) / slotSpan;
 
+        SlotIntervals intervals = new SlotIntervals(startTime.toEpochSecond(), slotSpan * 60L, slotsNumber);
+
+        for (Task t : tasksBetween) {
+            if (!includeTaskWithoutDuration && !t.hasDuration()) {
+                continue;
+            }
+            long due = ZonedDateTimeHelper.getDateTimeInDifferentZone(
+                    t.getDueDate(), t.getDueTime(), t.getTimezone(), timezone).toEpochSecond();
+            int minutes = t.hasDuration() ? t.getDuration() : slotSpan;
+            intervals.addTask(t, due - beforeBuffer * 60L, due + (minutes + afterBuffer) * 60L);
+        }
+
+        addRecurringSpans(intervals, toList(recurrences), startTime, endTime, timezone);
+
+        Map<String, Map<Integer, Boolean>> overrides = new HashMap<>();
+        for (BookingSlot override : slotsOverride) {
+            overrides.computeIfAbsent(override.getDate(), k -> new HashMap<>())
+                    .putIfAbsent(override.getIndex(), override.isOn());
+        }
+        Map<String, Map<Integer, Booking>> bookingsBySlot = new HashMap<>();
+        if (bookings != null) {
+            for (Booking booking : bookings) {
+                bookingsBySlot.computeIfAbsent(booking.getSlotDate(), k -> new HashMap<>())
+                        .putIfAbsent(booking.getSlotIndex(), booking);
+            }
+        }
+
+        ZoneId requestZone = ZoneId.of(requestTimezone);
+        boolean[] busy = intervals.sweepBusy();
+        ZonedDateTime startT = startTime;
+        ZonedDateTime displayStartTime = toDisplayTime(startT, requestZone);
+        LocalDate localDate = null;
+        String date = null;
         for (int i = 0; i < slotsNumber; i++) {
-            ZonedDateTime startT = startTime.plusMinutes(i * slotSpan);
             ZonedDateTime endT = startTime.plusMinutes((i + 1) * slotSpan);
-            String date = ZonedDateTimeHelper.getDate(startT);
+            ZonedDateTime displayEndTime = toDisplayTime(endT, requestZone);
+            if (!startT.toLocalDate().equals(localDate)) {
+                localDate = startT.toLocalDate();
+                date = ZonedDateTimeHelper.getDate(startT);
+            }
             int index = i % totalIndexes;
-            List<SlotEvent> slotEvents = new ArrayList<>();
+            List<SlotEvent> slotEvents = intervals.getEvents(i);
 
             BookingSlot bookingSlot = new BookingSlot();
             bookingSlot.setIndex(index);
             bookingSlot.setDate(date);
-            bookingSlot.setOn(true);
-            bookingSlot.setEvents(slotEvents);
+            bookingSlot.setOn(!busy[i]);
+            bookingSlot.setEvents(slotEvents == null ? new ArrayList<>() : slotEvents);
 
             // display to client
-            ZonedDateTime displayStartTime = ZonedDateTimeHelper.getDateTimeInDifferentZone(ZonedDateTimeHelper.getDate(startT),
-                    ZonedDateTimeHelper.getTime(startT), timezone, requestTimezone);
-            ZonedDateTime displayEndTime = ZonedDateTimeHelper.getDateTimeInDifferentZone(ZonedDateTimeHelper.getDate(endT),
-                    ZonedDateTimeHelper.getTime(endT), timezone, requestTimezone);
             bookingSlot.setStartTime(ZonedDateTimeHelper.getTime(displayStartTime));
             bookingSlot.setEndTime(ZonedDateTimeHelper.getTime(displayEndTime));
             bookingSlot.setDisplayDate(ZonedDateTimeHelper.getDate(displayStartTime));
 
-            List<Task> tasks = tasksBetween.stream().filter(t -> isBetweenSlot(taskTimes.get(t).getLeft(),
-                    taskTimes.get(t).getRight(), startT, endT)).collect(Collectors.toList());
-            if (tasks.size() > 0) {
-                bookingSlot.setOn(false);
-                for (Task t : tasks) {
-                    slotEvents.add(new SlotEvent(t.getName(), t.getId()));
-                }
-                bookingSlot.setEvents(slotEvents);
+            Map<Integer, Boolean> dateOverrides = overrides.get(date);
+            if (dateOverrides != null && dateOverrides.containsKey(index)) {
+                bookingSlot.setOn(dateOverrides.get(index));
             }
 
-            if (recurringTimes.stream().anyMatch(r -> isBetweenSlot(r.getLeft(), r.getRight(), startT, endT))) {
+            Map<Integer, Booking> dateBookings = bookingsBySlot.get(date);
+            Booking existingBooking = dateBookings == null ? null : dateBookings.get(index);
+            if (existingBooking != null) {
+                bookingSlot.setBooking(existingBooking.toPresentationModel());
                 bookingSlot.setOn(false);
             }
+            slots.add(bookingSlot);
 
-            Optional<BookingSlot> match = slotsOverride.stream().filter(s -> Objects.equals(s, bookingSlot)).findFirst();
-            match.ifPresent(slot -> bookingSlot.setOn(slot.isOn()));
+            startT = endT;
+            displayStartTime = displayEndTime;
+        }
+
+        return slots;
+    }
 
-            if (bookings != null) {
-                Optional<Booking> existingBooking = bookings.stream().filter(
-                        b -> b.getSlotIndex() == index && b.getSlotDate().equals(date)).findAny();
-                if (existingBooking.isPresent()) {
-                    bookingSlot.setBooking(existingBooking.get().toPresentationModel());
-                    bookingSlot.setOn(false);
+    private static void addRecurringSpans(
+            SlotIntervals intervals, List<RecurringSpan> recurringSpans,
+            ZonedDateTime startTime, ZonedDateTime endTime, String timezone) {
+        if (recurringSpans.isEmpty()) {
+            return;
+        }
+        DateTime startDateTime = ZonedDateTimeHelper.getDateTime(startTime);
+        DateTime endDateTime = ZonedDateTimeHelper.getDateTime(endTime);
+        for (RecurringSpan s : recurringSpans) {
+            try {
+                BuJoRecurrenceRule rule = new BuJoRecurrenceRule(s.getRecurrenceRule(), timezone);
+                RecurrenceRuleIterator it = rule.getIterator();
+                // skip instances before the window instead of stepping through them one by one
+                it.fastForward(startDateTime);
+                while (it.hasNext()) {
+                    DateTime currDateTime = it.nextDateTime();
+                    if (currDateTime.after(endDateTime)) {
+                        break;
+                    }
+                    if (currDateTime.before(startDateTime)) {
+                        continue;
+                    }
+                    long from = currDateTime.getTimestamp() / 1000;
+                    intervals.addBusy(from, from + s.getDuration() * 60L);
                 }
+            } catch (InvalidRecurrenceRuleException e) {
+                LOGGER.error("Error parsing recurrence rule: {} in BookingUtil.calculateSlot",
+                        e.toString());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Recurrence rule format invalid");
             }
-            slots.add(bookingSlot);
         }
+    }
 
-        return slots;
+    /**
+     * Same wall clock time in the booking link timezone, shown in requester's timezone
+     */
+    private static ZonedDateTime toDisplayTime(ZonedDateTime dateTime, ZoneId requestZone) {
+        return dateTime.toLocalDateTime().truncatedTo(ChronoUnit.MINUTES)
+                .atZone(dateTime.getZone()).withZoneSameInstant(requestZone);
     }
 
-    private static boolean isBetweenSlot(ZonedDateTime startTime, ZonedDateTime endTime, ZonedDateTime startT, ZonedDateTime endT) {
-        return startTime.compareTo(endT) < 0 && endTime.compareTo(startT) > 0;
+    /**
+     * Busy intervals mapped onto slot indexes. Slot i covers [windowStart + i * span, windowStart + (i + 1) * span)
+     * and an interval [from, to) touches it when from < slotEnd and to > slotStart.
+     */
+    private static class SlotIntervals {
+        private final long windowStart;
+        private final long spanSeconds;
+        private final int slotsNumber;
+        // busy interval starts +1 / ends -1, swept once into per-slot flags
+        private final int[] busyDelta;
+        private final List<List<SlotEvent>> events;
+
+        SlotIntervals(long windowStart, long spanSeconds, int slotsNumber) {
+            this.windowStart = windowStart;
+            this.spanSeconds = spanSeconds;
+            this.slotsNumber = slotsNumber;
+            this.busyDelta = new int[slotsNumber + 1];
+            this.events = new ArrayList<>(Collections.nCopies(slotsNumber, null));
+        }
+
+        void addTask(Task task, long from, long to) {
+            int first = firstSlot(from);
+            int last = lastSlot(to);
+            if (first > last) {
+                return;
+            }
+            markBusy(first, last);
+            SlotEvent slotEvent = new SlotEvent(task.getName(), task.getId());
+            for (int i = first; i <= last; i++) {
+                List<SlotEvent> slotEvents = this.events.get(i);
+                if (slotEvents == null) {
+                    slotEvents = new ArrayList<>();
+                    this.events.set(i, slotEvents);
+                }
+                slotEvents.add(slotEvent);
+            }
+        }
+
+        void addBusy(long from, long to) {
+            int first = firstSlot(from);
+            int last = lastSlot(to);
+            if (first <= last) {
+                markBusy(first, last);
+            }
+        }
+
+        List<SlotEvent> getEvents(int slot) {
+            return this.events.get(slot);
+        }
+
+        boolean[] sweepBusy() {
+            boolean[] busy = new boolean[this.slotsNumber];
+            int open = 0;
+            for (int i = 0; i < this.slotsNumber; i++) {
+                open += this.busyDelta[i];
+                busy[i] = open > 0;
+            }
+            return busy;
+        }
+
+        private void markBusy(int first, int last) {
+            this.busyDelta[first]++;
+            this.busyDelta[last + 1]--;
+        }
+
+        // first slot whose end is after from
+        private int firstSlot(long from) {
+            return (int) Math.max(0, Math.min(this.slotsNumber, Math.floorDiv(from - this.windowStart, this.spanSeconds)));
+        }
+
+        // last slot whose start is before to
+        private int lastSlot(long to) {
+            long last = -Math.floorDiv(this.windowStart - to, this.spanSeconds) - 1;
+            return (int) Math.min(this.slotsNumber - 1, Math.max(-1, last));
+        }
     }
 
     public static List<BookingSlot> getBookingLinkSlots(BookingLink bookingLink) {
@@ -0,0 +1,34 @@
+package com.bulletjournal.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter: the n-th delay is drawn uniformly from
+ * [initial, min(max, initial * 2^n)].
+ */
+public class ExponentialBackoff {
+
+    private final long initialMillis;
+    private final long maxMillis;
+
+    private int attempt;
+
+    public ExponentialBackoff(long initialMillis, long maxMillis) {
+        this.initialMillis = initialMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    public synchronized long nextDelayMillis() {
+        long ceiling = this.initialMillis << Math.min(this.attempt, 30);
+        if (ceiling <= 0 || ceiling > this.maxMillis) {
+            ceiling = this.maxMillis;
+        } else {
+            this.attempt++;
+        }
+        return ThreadLocalRandom.current().nextLong(this.initialMillis, ceiling + 1);
+    }
+
+    public synchronized void reset() {
+        this.attempt = 0;
+    }
+}
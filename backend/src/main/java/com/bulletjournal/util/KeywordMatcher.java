@@ -0,0 +1,117 @@
+package com.bulletjournal.util;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton over a fixed set of keywords. Finding every keyword in a text takes one pass
+ * over the text no matter how many keywords there are. Matching is case sensitive and instances are
+ * immutable once built.
+ *
+ * @param <V> value attached to each keyword
+ */
+public class KeywordMatcher<V> {
+
+    private final Node root = new Node();
+
+    private final List<String> keywords = new ArrayList<>();
+
+    private final List<V> values = new ArrayList<>();
+
+    public KeywordMatcher(Map<String, V> keywordValues) {
+        keywordValues.forEach((keyword, value) -> {
+            if (keyword == null || keyword.isEmpty()) {
+                return;
+            }
+            Node node = this.root;
+            for (int i = 0; i < keyword.length(); i++) {
+                node = node.children.computeIfAbsent(keyword.charAt(i), c -> new Node());
+            }
+            node.keyword = this.keywords.size();
+            this.keywords.add(keyword);
+            this.values.add(value);
+        });
+        buildLinks();
+    }
+
+    /**
+     * Breadth first, so the fail link of every shallower node is known when a node is reached
+     */
+    private void buildLinks() {
+        Deque<Node> queue = new ArrayDeque<>();
+        for (Node child : this.root.children.values()) {
+            child.fail = this.root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                Node child = entry.getValue();
+                Node fail = node.fail;
+                while (fail != this.root && !fail.children.containsKey(entry.getKey())) {
+                    fail = fail.fail;
+                }
+                child.fail = fail.children.getOrDefault(entry.getKey(), this.root);
+                child.output = child.fail.keyword >= 0 ? child.fail : child.fail.output;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * @return indexes of the keywords found in text, in order of where they first end
+     */
+    private Set<Integer> match(String text) {
+        Set<Integer> found = new LinkedHashSet<>();
+        if (text == null) {
+            return found;
+        }
+        Node node = this.root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            while (node != this.root && !node.children.containsKey(c)) {
+                node = node.fail;
+            }
+            node = node.children.getOrDefault(c, this.root);
+            for (Node out = node.keyword >= 0 ? node : node.output; out != null; out = out.output) {
+                found.add(out.keyword);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return values of the distinct keywords found in text
+     */
+    public List<V> findAll(String text) {
+        List<V> result = new ArrayList<>();
+        match(text).forEach(k -> result.add(this.values.get(k)));
+        return result;
+    }
+
+    /**
+     * @return value of the longest keyword found in text, the one ending first on ties
+     */
+    public Optional<V> findLongest(String text) {
+        int longest = -1;
+        for (int k : match(text)) {
+            if (longest < 0 || this.keywords.get(k).length() > this.keywords.get(longest).length()) {
+                longest = k;
+            }
+        }
+        return longest < 0 ? Optional.empty() : Optional.ofNullable(this.values.get(longest));
+    }
+
+    public boolean isEmpty() {
+        return this.keywords.isEmpty();
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        // longest proper suffix of this node that is also in the trie
+        private Node fail;
+        // nearest node on the fail chain that ends a keyword
+        private Node output;
+        // index of the keyword ending here, -1 if none
+        private int keyword = -1;
+    }
+}
@@ -0,0 +1,15 @@
+-- keep the earliest booking when a slot has been booked more than once
+delete from bookings b
+    using bookings d
+where b.booking_link_id = d.booking_link_id
+  and b.slot_date = d.slot_date
+  and b.slot_index = d.slot_index
+  and (b.created_at, b.id) > (d.created_at, d.id);
+
+drop index if exists bookings_booking_link_id_index;
+
+create unique index bookings_booking_link_id_slot_date_slot_index_uindex
+    on bookings (booking_link_id, slot_date, slot_index);
+
+-- task is created after the slot is claimed
+alter table bookings alter column task_id drop not null;
@@ -0,0 +1,3 @@
+CREATE EXTENSION IF NOT EXISTS BTREE_GIN;
+-- shared items are filtered by username and label containment
+CREATE INDEX shared_project_items_labels_username_index ON public.shared_project_items USING GIN (labels, username);
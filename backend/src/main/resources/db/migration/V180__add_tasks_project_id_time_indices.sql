@@ -0,0 +1,6 @@
+-- range filters on project tasks bind typed timestamps and can use these directly
+create index if not exists tasks_project_id_start_time_index
+    on tasks (project_id, start_time);
+
+create index if not exists tasks_project_id_end_time_index
+    on tasks (project_id, end_time);
@@ -0,0 +1,3 @@
+-- keyset pagination of the inbox orders by (created_at, id) per target user
+create index if not exists notifications_target_user_created_at_id_index
+    on notifications (target_user, created_at desc, id desc);
@@ -0,0 +1,19 @@
+-- keep the earliest share when an item has been shared with the same user more than once
+delete from shared_project_items s
+    using shared_project_items d
+where s.username = d.username
+  and (s.task_id = d.task_id or s.note_id = d.note_id or s.transaction_id = d.transaction_id)
+  and s.id > d.id;
+
+-- item id leads so lookups by item keep using the index
+drop index if exists shared_project_items_task_index;
+drop index if exists shared_project_items_note_index;
+
+create unique index shared_project_items_task_id_username_uindex
+    on shared_project_items (task_id, username);
+
+create unique index shared_project_items_note_id_username_uindex
+    on shared_project_items (note_id, username);
+
+create unique index shared_project_items_transaction_id_username_uindex
+    on shared_project_items (transaction_id, username);
@@ -0,0 +1,33 @@
+-- recent items are read straight from the content tables, stop refreshing the join views on every write
+drop trigger if exists refresh_tasks_join_task_contents on tasks;
+drop trigger if exists refresh_tasks_join_task_contents on task_contents;
+drop trigger if exists refresh_notes_join_note_contents on notes;
+drop trigger if exists refresh_notes_join_note_contents on note_contents;
+drop trigger if exists refresh_transactions_join_transaction_contents on transactions;
+drop trigger if exists refresh_transactions_join_transaction_contents on transaction_contents;
+
+drop function if exists refresh_tasks_join_task_contents();
+drop function if exists refresh_notes_join_note_contents();
+drop function if exists refresh_transactions_join_transaction_contents();
+
+drop materialized view if exists tasks_join_task_contents;
+drop materialized view if exists notes_join_note_contents;
+drop materialized view if exists transactions_join_transaction_contents;
+
+create index if not exists task_contents_task_id_updated_at_index
+    on task_contents (task_id, updated_at);
+
+create index if not exists note_contents_note_id_updated_at_index
+    on note_contents (note_id, updated_at);
+
+create index if not exists transaction_contents_transaction_id_updated_at_index
+    on transaction_contents (transaction_id, updated_at);
+
+create index if not exists tasks_project_id_updated_at_index
+    on tasks (project_id, updated_at);
+
+create index if not exists notes_project_id_updated_at_index
+    on notes (project_id, updated_at);
+
+create index if not exists transactions_project_id_updated_at_index
+    on transactions (project_id, updated_at);
@@ -0,0 +1,106 @@
+-- completed tasks are only appended and read by project and completion time (created_at),
+-- range partition them by month so time-bounded reads prune and old months can be archived
+create schema if not exists archive;
+
+-- Creates the monthly partition of a range partitioned table, named <parent>_pYYYYMM.
+-- Rows that fell into <parent>_default before the month existed are moved into it.
+create or replace function create_monthly_partition(parent text, month date) returns boolean as $$
+declare
+    month_start date := date_trunc('month', month)::date;
+    month_end date := (date_trunc('month', month) + interval '1 month')::date;
+    partition_name text := parent || '_p' || to_char(month_start, 'YYYYMM');
+    partition_key text;
+begin
+    if to_regclass(partition_name) is not null then
+        return false;
+    end if;
+
+    select a.attname into partition_key
+    from pg_partitioned_table p
+             join pg_attribute a on a.attrelid = p.partrelid and a.attnum = p.partattrs[0]
+    where p.partrelid = parent::regclass;
+
+    execute format('create table %I (like %I including defaults)', partition_name, parent);
+    if to_regclass(parent || '_default') is not null then
+        execute format('with moved as (delete from %I where %I >= %L and %I < %L returning *) '
+                           'insert into %I select * from moved',
+                       parent || '_default', partition_key, month_start, partition_key, month_end,
+                       partition_name);
+    end if;
+    -- attaching clones the parent's indexes and foreign keys onto the partition
+    execute format('alter table %I attach partition %I for values from (%L) to (%L)',
+                   parent, partition_name, month_start, month_end);
+    return true;
+end;
+$$ language plpgsql;
+
+-- Detaches the monthly partitions that end on or before the given date.
+-- They are moved to archive_schema, or dropped when archive_schema is null.
+create or replace function detach_monthly_partitions(parent text, before date, archive_schema text) returns integer as $$
+declare
+    partition_name text;
+    detached integer := 0;
+begin
+    for partition_name in
+        select c.relname
+        from pg_inherits i
+                 join pg_class c on c.oid = i.inhrelid
+        where i.inhparent = parent::regclass
+          and c.relname ~ ('^' || parent || '_p[0-9]{6}$')
+          and to_date(right(c.relname, 6), 'YYYYMM') + interval '1 month' <= before
+        order by c.relname
+        loop
+            execute format('alter table %I detach partition %I', parent, partition_name);
+            if archive_schema is null then
+                execute format('drop table %I', partition_name);
+            else
+                execute format('alter table %I set schema %I', partition_name, archive_schema);
+            end if;
+            detached := detached + 1;
+        end loop;
+    return detached;
+end;
+$$ language plpgsql;
+
+alter table completed_tasks rename to completed_tasks_unpartitioned;
+
+create table completed_tasks (like completed_tasks_unpartitioned including defaults)
+    partition by range (created_at);
+
+-- catches rows of months whose partition has not been created yet
+create table completed_tasks_default partition of completed_tasks default;
+
+-- one partition per month since the first completed task, and three months ahead
+do $$
+declare
+    month date;
+begin
+    for month in
+        select generate_series(date_trunc('month', coalesce(min(created_at), now())),
+                               date_trunc('month', now()) + interval '3 month',
+                               interval '1 month')::date
+        from completed_tasks_unpartitioned
+        loop
+            perform create_monthly_partition('completed_tasks', month);
+        end loop;
+end;
+$$;
+
+insert into completed_tasks
+select *
+from completed_tasks_unpartitioned;
+
+drop table completed_tasks_unpartitioned;
+
+-- the partition key has to be part of the primary key, ids stay unique through completed_task_sequence
+alter table completed_tasks
+    add constraint completed_tasks_pkey primary key (id, created_at);
+
+alter table completed_tasks
+    add constraint completed_tasks_project_id_fkey foreign key (project_id) references projects (id) on delete cascade;
+
+create index completed_tasks_project_id_created_at_index
+    on completed_tasks (project_id, created_at);
+
+create index completed_tasks_project_id_created_at_assignee_index
+    on completed_tasks using GIN (assignees, project_id, created_at);
@@ -0,0 +1,81 @@
+-- audit rows are appended on every change, read by time and expired by age,
+-- range partition them by month of activity_time so expiry drops whole partitions
+
+-- Rebuilds a table as partitioned by month of partition_key with the same columns and rows.
+-- Indexes and constraints are dropped with the old table and added back afterwards.
+create or replace function partition_by_month(parent text, partition_key text) returns void as $$
+declare
+    month date;
+begin
+    execute format('alter table %I rename to %I', parent, parent || '_unpartitioned');
+    execute format('create table %I (like %I including defaults) partition by range (%I)',
+                   parent, parent || '_unpartitioned', partition_key);
+    execute format('create table %I partition of %I default', parent || '_default', parent);
+    for month in
+        execute format('select generate_series(date_trunc(''month'', coalesce(min(%I), now())), '
+                           'date_trunc(''month'', now()) + interval ''3 month'', interval ''1 month'')::date from %I',
+                       partition_key, parent || '_unpartitioned')
+        loop
+            perform create_monthly_partition(parent, month);
+        end loop;
+    execute format('insert into %I select * from %I', parent, parent || '_unpartitioned');
+    execute format('drop table %I', parent || '_unpartitioned');
+end;
+$$ language plpgsql;
+
+-- the partition key becomes part of the primary key, which needs it set
+update task_auditables set activity_time = created_at where activity_time is null;
+update note_auditables set activity_time = created_at where activity_time is null;
+update transaction_auditables set activity_time = created_at where activity_time is null;
+
+select partition_by_month('auditables', 'activity_time');
+select partition_by_month('task_auditables', 'activity_time');
+select partition_by_month('note_auditables', 'activity_time');
+select partition_by_month('transaction_auditables', 'activity_time');
+
+drop function partition_by_month(text, text);
+
+alter table auditables
+    add constraint auditables_pkey primary key (id, activity_time);
+
+create index auditables_project_id_activity_time_index
+    on auditables (project_id asc, activity_time desc);
+
+create index auditables_originator_index
+    on auditables (originator);
+
+create index auditables_action_index
+    on auditables (action);
+
+alter table task_auditables
+    add constraint task_auditables_pkey primary key (id, activity_time);
+
+create index task_auditables_task_id_activity_time_index
+    on task_auditables (task_id asc, activity_time desc);
+
+alter table task_auditables
+    add constraint task_auditables_tasks_id_fk
+        foreign key (task_id) references tasks
+            on delete cascade;
+
+alter table note_auditables
+    add constraint note_auditables_pkey primary key (id, activity_time);
+
+create index note_auditables_note_id_activity_time_index
+    on note_auditables (note_id asc, activity_time desc);
+
+alter table note_auditables
+    add constraint note_auditables_notes_id_fk
+        foreign key (note_id) references notes
+            on delete cascade;
+
+alter table transaction_auditables
+    add constraint transaction_auditables_pkey primary key (id, activity_time);
+
+create index transaction_auditables_transaction_id_activity_time_index
+    on transaction_auditables (transaction_id asc, activity_time desc);
+
+alter table transaction_auditables
+    add constraint transaction_auditables_transactions_id_fk
+        foreign key (transaction_id) references transactions
+            on delete cascade;
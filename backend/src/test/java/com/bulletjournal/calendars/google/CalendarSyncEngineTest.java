@@ -0,0 +1,176 @@
+package com.bulletjournal.calendars.google;
+
+import com.bulletjournal.clients.UserClient;
+import com.bulletjournal.repository.GoogleCalendarProjectDaoJpa;
+import com.bulletjournal.repository.TaskDaoJpa;
+import com.bulletjournal.repository.models.GoogleCalendarProject;
+import com.bulletjournal.repository.models.Project;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.EventDateTime;
+import com.google.api.services.calendar.model.Events;
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.MDC;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests {@link CalendarSyncEngine} against a fake calendar api
+ */
+public class CalendarSyncEngineTest {
+
+    private static final String CALENDAR_ID = "calendar@group.calendar.google.com";
+
+    private static final String OWNER = "BulletJournal";
+
+    private static final long PROJECT_ID = 7L;
+
+    private FakeCalendarEventsClient calendarEventsClient;
+
+    private TaskDaoJpa taskDaoJpa;
+
+    private GoogleCalendarProjectDaoJpa googleCalendarProjectDaoJpa;
+
+    private CalendarSyncEngine calendarSyncEngine;
+
+    @Before
+    public void setUp() {
+        this.calendarEventsClient = new FakeCalendarEventsClient();
+        this.taskDaoJpa = mock(TaskDaoJpa.class);
+        this.googleCalendarProjectDaoJpa = mock(GoogleCalendarProjectDaoJpa.class);
+        this.calendarSyncEngine = new CalendarSyncEngine();
+        ReflectionTestUtils.setField(this.calendarSyncEngine, "calendarEventsClient", this.calendarEventsClient);
+        ReflectionTestUtils.setField(this.calendarSyncEngine, "taskDaoJpa", this.taskDaoJpa);
+        ReflectionTestUtils.setField(
+                this.calendarSyncEngine, "googleCalendarProjectDaoJpa", this.googleCalendarProjectDaoJpa);
+    }
+
+    @Test
+    public void testSyncAppliesChangesOfAllPages() throws IOException {
+        this.calendarEventsClient.addChanges("t1", "t2",
+                ImmutableList.of(event("a", "confirmed", "Standup"), event("b", "cancelled", null)),
+                ImmutableList.of(event("a", "confirmed", "Moved standup"), event("c", "confirmed", "Retro")));
+
+        int changed = this.calendarSyncEngine.sync(watchedCalendar("t1"));
+
+        Assert.assertEquals(3, changed);
+        Assert.assertEquals(ImmutableList.of("t1#0", "t1#1"), this.calendarEventsClient.requests);
+        verifySynced(ImmutableList.of("b"), ImmutableList.of("a:Moved standup", "c:Retro"));
+        verify(this.googleCalendarProjectDaoJpa).setTokenByCalendarId(CALENDAR_ID, "t2");
+        Assert.assertNull(MDC.get(UserClient.USER_NAME_KEY));
+    }
+
+    @Test
+    public void testExpiredSyncTokenFallsBackToFullSync() throws IOException {
+        this.calendarEventsClient.expiredTokens.add("t1");
+        this.calendarEventsClient.addChanges(null, "t3",
+                ImmutableList.of(event("a", "confirmed", "Standup"), event("d", "confirmed", "Demo")));
+
+        MDC.put(UserClient.USER_NAME_KEY, "Xavier");
+        try {
+            Assert.assertEquals(2, this.calendarSyncEngine.sync(watchedCalendar("t1")));
+            Assert.assertEquals("Xavier", MDC.get(UserClient.USER_NAME_KEY));
+        } finally {
+            MDC.remove(UserClient.USER_NAME_KEY);
+        }
+
+        Assert.assertEquals(ImmutableList.of("t1#0", "full#0"), this.calendarEventsClient.requests);
+        verifySynced(Collections.emptyList(), ImmutableList.of("a:Standup", "d:Demo"));
+        verify(this.googleCalendarProjectDaoJpa).setTokenByCalendarId(CALENDAR_ID, "t3");
+    }
+
+    @Test
+    public void testGetSyncTokenReadsAllPages() throws IOException {
+        this.calendarEventsClient.addChanges(null, "t1",
+                ImmutableList.of(event("a", "confirmed", "Standup")),
+                ImmutableList.of(event("b", "confirmed", "Retro")),
+                Collections.emptyList());
+
+        Assert.assertEquals("t1", this.calendarSyncEngine.getSyncToken(CALENDAR_ID));
+        Assert.assertEquals(ImmutableList.of("full#0", "full#1", "full#2"), this.calendarEventsClient.requests);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifySynced(List<String> deletedEventIds, List<String> events) {
+        ArgumentCaptor<List> deleted = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List> changed = ArgumentCaptor.forClass(List.class);
+        verify(this.taskDaoJpa).syncGoogleCalendarEvents(
+                eq(PROJECT_ID), eq(OWNER), deleted.capture(), changed.capture());
+        Assert.assertEquals(deletedEventIds, deleted.getValue());
+        List<GoogleCalendarEvent> changedEvents = changed.getValue();
+        Assert.assertEquals(events, changedEvents.stream()
+                .map(e -> e.getEventId() + ":" + e.getTask().getName()).collect(Collectors.toList()));
+        for (GoogleCalendarEvent event : changedEvents) {
+            Assert.assertEquals(OWNER, event.getTask().getOwner().getName());
+        }
+    }
+
+    private static GoogleCalendarProject watchedCalendar(String syncToken) {
+        Project project = new Project();
+        project.setId(PROJECT_ID);
+        return new GoogleCalendarProject(CALENDAR_ID, project, "channel", "{}", syncToken, OWNER,
+                new Timestamp(System.currentTimeMillis()));
+    }
+
+    private static Event event(String id, String status, String summary) {
+        EventDateTime start = new EventDateTime().setDate(DateTime.parseRfc3339("2020-10-01"));
+        EventDateTime end = new EventDateTime().setDate(DateTime.parseRfc3339("2020-10-02"));
+        return new Event().setId(id).setStatus(status).setSummary(summary).setStart(start).setEnd(end);
+    }
+
+    private static class FakeCalendarEventsClient implements CalendarEventsClient {
+
+        private static final String FULL_SYNC = "full";
+
+        // sync token -> pages of events changed since
+        private final Map<String, List<Events>> changes = new HashMap<>();
+
+        private final Set<String> expiredTokens = new HashSet<>();
+
+        private final List<String> requests = new ArrayList<>();
+
+        @SafeVarargs
+        private final void addChanges(String syncToken, String nextSyncToken, List<Event>... pages) {
+            List<Events> result = new ArrayList<>();
+            for (int i = 0; i < pages.length; i++) {
+                Events events = new Events().setItems(pages[i]);
+                if (i < pages.length - 1) {
+                    events.setNextPageToken(String.valueOf(i + 1));
+                } else {
+                    events.setNextSyncToken(nextSyncToken);
+                }
+                result.add(events);
+            }
+            this.changes.put(syncToken == null ? FULL_SYNC : syncToken, result);
+        }
+
+        @Override
+        public String getTimeZone(String calendarId) {
+            return "America/Los_Angeles";
+        }
+
+        @Override
+        public Events listEvents(String calendarId, String syncToken, String pageToken) throws IOException {
+            Assert.assertEquals(CALENDAR_ID, calendarId);
+            String key = syncToken == null ? FULL_SYNC : syncToken;
+            int page = pageToken == null ? 0 : Integer.parseInt(pageToken);
+            this.requests.add(key + "#" + page);
+            if (this.expiredTokens.contains(key)) {
+                throw new SyncTokenExpiredException(calendarId, null);
+            }
+            return this.changes.get(key).get(page);
+        }
+    }
+}
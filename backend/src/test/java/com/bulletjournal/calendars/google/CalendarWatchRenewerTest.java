@@ -0,0 +1,131 @@
+package com.bulletjournal.calendars.google;
+
+import com.bulletjournal.config.GoogleCalConfig;
+import com.bulletjournal.repository.GoogleCalendarProjectDaoJpa;
+import com.bulletjournal.repository.models.GoogleCalendarProject;
+import com.google.api.services.calendar.model.Channel;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link CalendarWatchRenewer} against a fake calendar api
+ */
+public class CalendarWatchRenewerTest {
+
+    private FakeCalendarWatchClient calendarWatchClient;
+
+    private GoogleCalendarProjectDaoJpa googleCalendarProjectDaoJpa;
+
+    private CalendarWatchRenewer calendarWatchRenewer;
+
+    @Before
+    public void setUp() {
+        GoogleCalConfig config = new GoogleCalConfig();
+        config.setWatchRenewConcurrency(2);
+        config.setWatchRenewMaxAttempts(3);
+        this.calendarWatchClient = new FakeCalendarWatchClient();
+        this.googleCalendarProjectDaoJpa = mock(GoogleCalendarProjectDaoJpa.class);
+        this.calendarWatchRenewer = new CalendarWatchRenewer();
+        ReflectionTestUtils.setField(this.calendarWatchRenewer, "googleCalConfig", config);
+        ReflectionTestUtils.setField(this.calendarWatchRenewer, "calendarWatchClient", this.calendarWatchClient);
+        ReflectionTestUtils.setField(
+                this.calendarWatchRenewer, "googleCalendarProjectDaoJpa", this.googleCalendarProjectDaoJpa);
+        this.calendarWatchRenewer.postConstruct();
+    }
+
+    @After
+    public void tearDown() {
+        this.calendarWatchRenewer.preDestroy();
+    }
+
+    @Test
+    public void testRenewExpiringWatches() {
+        when(this.googleCalendarProjectDaoJpa.getExpiringWatches(any())).thenReturn(Arrays.asList(
+                Pair.of("work", "Xavier"),
+                Pair.of("flaky", "Xavier"),
+                Pair.of("broken", "Xavier"),
+                Pair.of("home", "BulletJournal"),
+                Pair.of("gym", "Michael_Zhou"),
+                Pair.of("school", "Michael_Zhou")));
+        this.calendarWatchClient.failures.put("flaky", 1);
+        this.calendarWatchClient.failures.put("broken", Integer.MAX_VALUE);
+
+        Assert.assertEquals(5, this.calendarWatchRenewer.renewExpiringWatches());
+
+        // one client per owner, never more owners at once than the concurrency
+        Assert.assertEquals(3, this.calendarWatchClient.watchers.size());
+        this.calendarWatchClient.watchers.values().forEach(count -> Assert.assertEquals(1, count.get()));
+        Assert.assertTrue(this.calendarWatchClient.maxConcurrentOwners.get() <= 2);
+
+        Assert.assertEquals(2, this.calendarWatchClient.attempts.get("flaky").get());
+        Assert.assertEquals(3, this.calendarWatchClient.attempts.get("broken").get());
+        for (String calendarId : Arrays.asList("work", "flaky", "home", "gym", "school")) {
+            verify(this.googleCalendarProjectDaoJpa).updateChannel(eq(calendarId), any(Channel.class));
+        }
+        verify(this.googleCalendarProjectDaoJpa, never()).updateChannel(eq("broken"), any(Channel.class));
+    }
+
+    @Test
+    public void testSubmitRenewal() throws Exception {
+        GoogleCalendarProject googleCalendarProject = new GoogleCalendarProject();
+        googleCalendarProject.setOwner("Xavier");
+        when(this.googleCalendarProjectDaoJpa.get("work")).thenReturn(googleCalendarProject);
+
+        this.calendarWatchRenewer.submitRenewal("work").get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, this.calendarWatchClient.watchers.get("Xavier").get());
+        verify(this.googleCalendarProjectDaoJpa).updateChannel(eq("work"), any(Channel.class));
+        verify(this.googleCalendarProjectDaoJpa, times(1)).updateChannel(anyString(), any(Channel.class));
+    }
+
+    private static class FakeCalendarWatchClient implements CalendarWatchClient {
+
+        // owner -> number of watchers created
+        private final Map<String, AtomicInteger> watchers = new ConcurrentHashMap<>();
+
+        // calendar id -> number of calls failing before watching succeeds
+        private final Map<String, Integer> failures = new HashMap<>();
+
+        private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+        private final AtomicInteger concurrentOwners = new AtomicInteger();
+
+        private final AtomicInteger maxConcurrentOwners = new AtomicInteger();
+
+        @Override
+        public CalendarWatcher getWatcher(String owner) {
+            this.watchers.computeIfAbsent(owner, k -> new AtomicInteger()).incrementAndGet();
+            return (calendarId, channel) -> {
+                this.maxConcurrentOwners.accumulateAndGet(this.concurrentOwners.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                    int attempt = this.attempts.computeIfAbsent(calendarId, k -> new AtomicInteger()).incrementAndGet();
+                    if (attempt <= this.failures.getOrDefault(calendarId, 0)) {
+                        throw new IOException("Calendar api unavailable");
+                    }
+                    channel.setExpiration(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(7));
+                    return channel;
+                } catch (InterruptedException ex) {
+                    throw new IOException(ex);
+                } finally {
+                    this.concurrentOwners.decrementAndGet();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.bulletjournal.clients;
+
+import com.bulletjournal.config.DaemonClientConfig;
+import com.bulletjournal.protobuf.daemon.grpc.services.DaemonGrpc;
+import com.bulletjournal.protobuf.daemon.grpc.types.ConvertJsonObjectsToHtmlRequest;
+import com.bulletjournal.protobuf.daemon.grpc.types.ConvertJsonObjectsToHtmlResponse;
+import com.bulletjournal.protobuf.daemon.grpc.types.NotificationStreamMsg;
+import com.bulletjournal.protobuf.daemon.grpc.types.SubscribeNotificationMsg;
+import com.bulletjournal.util.CircuitBreaker;
+import io.grpc.ManagedChannel;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcCleanupRule;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link DaemonServiceClient} against an in-process daemon server
+ */
+public class DaemonServiceClientTest {
+
+    private static final long DEADLINE_MILLIS = 200;
+
+    @Rule
+    public final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+    private final FakeDaemon fakeDaemon = new FakeDaemon();
+
+    private DaemonServiceClient client;
+
+    @Before
+    public void setup() throws Exception {
+        String serverName = InProcessServerBuilder.generateName();
+        grpcCleanup.register(InProcessServerBuilder.forName(serverName)
+                .directExecutor().addService(fakeDaemon).build().start());
+        List<ManagedChannel> channels = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            channels.add(grpcCleanup.register(InProcessChannelBuilder.forName(serverName).build()));
+        }
+
+        DaemonClientConfig config = new DaemonClientConfig();
+        config.setEnabled(true);
+        config.setDeadlineMillis(DEADLINE_MILLIS);
+        config.setFailureThreshold(3);
+        config.setCircuitOpenMillis(60000);
+        config.setReconnectInitialBackoffMillis(10);
+        config.setReconnectMaxBackoffMillis(50);
+
+        client = new DaemonServiceClient();
+        ReflectionTestUtils.setField(client, "daemonClientConfig", config);
+        client.start(new DaemonChannelPool(channels));
+    }
+
+    @After
+    public void tearDown() {
+        client.preDestroy();
+    }
+
+    @Test
+    public void testConvertDeltaToHtml() {
+        Assert.assertEquals("<p>hello</p>", client.convertDeltaToHtml("hello"));
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+
+    @Test
+    public void testSlowDaemonBoundedByDeadline() {
+        fakeDaemon.slow = true;
+        long start = System.currentTimeMillis();
+        Assert.assertNull(client.convertDeltaToHtml("hello"));
+        Assert.assertTrue(System.currentTimeMillis() - start < DEADLINE_MILLIS * 5);
+    }
+
+    @Test
+    public void testCircuitOpensAfterConsecutiveFailures() {
+        fakeDaemon.slow = true;
+        for (int i = 0; i < 3; i++) {
+            Assert.assertNull(client.convertDeltaToHtml("hello"));
+        }
+        Assert.assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+
+        int callsBefore = fakeDaemon.convertCalls.get();
+        long start = System.currentTimeMillis();
+        Assert.assertNull(client.convertDeltaToHtml("hello"));
+        Assert.assertTrue(System.currentTimeMillis() - start < DEADLINE_MILLIS);
+        Assert.assertEquals(callsBefore, fakeDaemon.convertCalls.get());
+    }
+
+    @Test
+    public void testResubscribeAfterStreamCompleted() throws Exception {
+        for (int i = 0; i < 100 && fakeDaemon.subscribeCalls.get() < 3; i++) {
+            Thread.sleep(20);
+        }
+        Assert.assertTrue(fakeDaemon.subscribeCalls.get() >= 3);
+    }
+
+    private static class FakeDaemon extends DaemonGrpc.DaemonImplBase {
+        private final AtomicInteger convertCalls = new AtomicInteger();
+        private final AtomicInteger subscribeCalls = new AtomicInteger();
+        private volatile boolean slow;
+
+        @Override
+        public void convertDeltaToHtml(ConvertJsonObjectsToHtmlRequest request,
+                                       StreamObserver<ConvertJsonObjectsToHtmlResponse> responseObserver) {
+            convertCalls.incrementAndGet();
+            if (slow) {
+                // never answer, the client deadline has to cut the call
+                return;
+            }
+            responseObserver.onNext(ConvertJsonObjectsToHtmlResponse.newBuilder()
+                    .setHtmlOutput("<p>" + request.getDeltaString() + "</p>").build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void subscribeNotification(SubscribeNotificationMsg request,
+                                          StreamObserver<NotificationStreamMsg> responseObserver) {
+            subscribeCalls.incrementAndGet();
+            // end the stream right away, the client has to come back with backoff
+            responseObserver.onCompleted();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.bulletjournal.clients;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.*;
+import com.bulletjournal.config.AWSConfig;
+import com.bulletjournal.config.FileStorageConfig;
+import com.google.common.io.ByteStreams;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link AWSS3Client} against a mocked S3 and {@link LocalFileStorageClient}
+ */
+public class FileStorageClientTest {
+
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSmallFileIsPutInOneRequest() {
+        AmazonS3 s3 = mock(AmazonS3.class);
+        AWSS3Client client = createS3Client(s3, 2);
+
+        String url = client.uploadFile(new MockMultipartFile("file", "a b.txt", "text/plain", new byte[1024]));
+        Assert.assertTrue(url.startsWith("https://s3.us-west-1.amazonaws.com/bulletjournals/"));
+        Assert.assertTrue(url.endsWith("-a_b.txt"));
+        verify(s3).putObject(any(PutObjectRequest.class));
+        verify(s3, never()).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+    }
+
+    @Test
+    public void testLargeFileIsStreamedInParts() {
+        AmazonS3 s3 = mock(AmazonS3.class);
+        InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+        initiated.setUploadId("upload");
+        when(s3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        byte[][] received = new byte[5][];
+        when(s3.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = (UploadPartRequest) invocation.getArguments()[0];
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                byte[] part = ByteStreams.toByteArray(request.getInputStream());
+                Assert.assertEquals(request.getPartSize(), part.length);
+                received[request.getPartNumber() - 1] = part;
+                Thread.sleep(50);
+                UploadPartResult result = new UploadPartResult();
+                result.setPartNumber(request.getPartNumber());
+                result.setETag("etag" + request.getPartNumber());
+                return result;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        AWSS3Client client = createS3Client(s3, 2);
+
+        byte[] content = new byte[4 * PART_SIZE + 1];
+        new Random(7).nextBytes(content);
+        client.uploadFile(new MockMultipartFile("file", "large.bin", "application/octet-stream", content));
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> completed =
+                ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3).completeMultipartUpload(completed.capture());
+        List<PartETag> partETags = completed.getValue().getPartETags();
+        Assert.assertEquals(5, partETags.size());
+        for (int i = 0; i < partETags.size(); i++) {
+            Assert.assertEquals(i + 1, partETags.get(i).getPartNumber());
+            Assert.assertEquals("etag" + (i + 1), partETags.get(i).getETag());
+        }
+        Assert.assertEquals(1, received[4].length);
+        int offset = 0;
+        for (byte[] part : received) {
+            for (byte b : part) {
+                Assert.assertEquals(content[offset++], b);
+            }
+        }
+        Assert.assertTrue(maxInFlight.get() <= 2);
+        verify(s3, never()).putObject(any(PutObjectRequest.class));
+    }
+
+    @Test
+    public void testFailedPartAbortsUpload() {
+        AmazonS3 s3 = mock(AmazonS3.class);
+        InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+        initiated.setUploadId("upload");
+        when(s3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+        when(s3.uploadPart(any(UploadPartRequest.class))).thenThrow(new IllegalStateException("S3 unavailable"));
+        AWSS3Client client = createS3Client(s3, 2);
+
+        try {
+            client.uploadFile(new MockMultipartFile("file", "large.bin", null, new byte[2 * PART_SIZE]));
+            Assert.fail("Expected upload to fail");
+        } catch (IllegalStateException expected) {
+        }
+        verify(s3).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    public void testLocalFileStorage() throws Exception {
+        FileStorageConfig config = new FileStorageConfig();
+        config.setLocalDirectory(this.folder.getRoot().getPath());
+        LocalFileStorageClient client = new LocalFileStorageClient(config);
+
+        byte[] content = "local upload".getBytes();
+        String url = client.uploadFile(new MockMultipartFile("file", "notes.txt", "text/plain", content));
+        Assert.assertArrayEquals(content, Files.readAllBytes(Paths.get(URI.create(url))));
+
+        try {
+            client.uploadFile(new MockMultipartFile("file", "../notes.txt", "text/plain", content));
+            Assert.fail("Expected file name to be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private AWSS3Client createS3Client(AmazonS3 s3, int concurrency) {
+        AWSConfig config = new AWSConfig("https://s3.us-west-1.amazonaws.com", "bulletjournals");
+        config.setUploadPartSizeBytes(PART_SIZE);
+        config.setUploadConcurrency(concurrency);
+        AWSS3Client client = new AWSS3Client();
+        ReflectionTestUtils.setField(client, "awsConfig", config);
+        client.initializeAwsConnection();
+        ReflectionTestUtils.setField(client, "amazonS3Client", s3);
+        return client;
+    }
+}
@@ -21,6 +21,11 @@ import org.springframework.web.util.UriComponentsBuilder;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.junit.Assert.assertEquals;
@@ -130,6 +135,57 @@ public class BookingLinkControllerTest {
         booking = book(bookingLink1, bookParams);
     }
 
+    @Test
+    public void testConcurrentBookSameSlot() throws Exception {
+        Group group = TestHelpers.createGroup(requestParams, USER, "bookingLink_concurrent_group");
+        Project p = TestHelpers.createProject(requestParams, USER, "bookingLink_concurrent", group, ProjectType.TODO);
+        BookingLink bookingLink = createBookingLink("2021-05-04", "2021-06-01", TIMEZONE, 30, 0, false, false, p.getId());
+
+        int threads = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatus>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Invitee invitee = new Invitee();
+            invitee.setEmail("concurrent" + i + "@test123.com");
+            invitee.setFirstName("concurrent");
+            invitee.setLastName(String.valueOf(i));
+            BookParams bookParams = new BookParams(ImmutableList.of(invitee), 2, "2021-05-05", "Seatle", null,
+                    TIMEZONE, "01:00", "01:30", "2021-05-05");
+            results.add(executorService.submit(() -> {
+                // separate client per thread so requests are not serialized by the connection pool
+                TestRestTemplate client = new TestRestTemplate();
+                client.getRestTemplate().setRequestFactory(new HttpComponentsClientHttpRequestFactory());
+                start.await();
+                return client.exchange(
+                        ROOT_URL + randomServerPort + BookingLinksController.PUBLIC_BOOKING_LINK_BOOK_ROUTE,
+                        HttpMethod.POST,
+                        TestHelpers.actAsOtherUser(bookParams, USER),
+                        String.class,
+                        bookingLink.getId()).getStatusCode();
+            }));
+        }
+        start.countDown();
+
+        int booked = 0;
+        int rejected = 0;
+        for (Future<HttpStatus> result : results) {
+            HttpStatus status = result.get(30, TimeUnit.SECONDS);
+            if (status == HttpStatus.OK) {
+                booked++;
+            } else if (status == HttpStatus.BAD_REQUEST) {
+                rejected++;
+            }
+        }
+        executorService.shutdown();
+
+        assertEquals(1, booked);
+        assertEquals(threads - 1, rejected);
+
+        BookingLink result = getBookingLink(bookingLink.getId(), TIMEZONE);
+        assertEquals(1, result.getBookings().size());
+    }
+
     private BookingLink createBookingLink(String startDate, String endDate, String timezone, int slotSpan,
                                           int bufferInMin, boolean includeTaskWithoutDuration, boolean expireOnBooking, long projectId) {
         CreateBookingLinkParams createBookingLinkParams = new CreateBookingLinkParams(
@@ -419,12 +419,20 @@ public class ProjectItemControllerTest {
     }
 
     private List<LinkedHashMap> getRecentProjectItems(String startDate, String endDate, String timezone, List<ProjectType> types) {
+        return getRecentProjectItems(startDate, endDate, timezone, types, null, null);
+    }
+
+    private List<LinkedHashMap> getRecentProjectItems(String startDate, String endDate, String timezone, List<ProjectType> types,
+                                                      Integer pageNo, Integer pageSize) {
         String url = ROOT_URL + randomServerPort + ProjectItemController.RECENT_ITEMS_ROUTE;
         UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(url)
                 .queryParam("types", types)
                 .queryParam("startDate", startDate)
                 .queryParam("endDate", endDate)
                 .queryParam("timezone", timezone);
+        if (pageSize != null) {
+            uriBuilder.queryParam("pageNo", pageNo).queryParam("pageSize", pageSize);
+        }
 
         ResponseEntity<LinkedHashMap[]> response = this.restTemplate.exchange(
                 uriBuilder.toUriString(),
@@ -487,6 +495,15 @@ public class ProjectItemControllerTest {
         assertEquals("TagOutlined", labelList.get(0).get("icon").toString());
         assertEquals("Label0", labelList.get(0).get("value").toString());
         assertEquals(t2.getId().intValue(), projectItems.get(1).get("id"));
+
+        List<LinkedHashMap> firstPage = getRecentProjectItems(YESTERDAY, TOMORROW, "America/Los_Angeles", types, 0, 1);
+        assertEquals(1, firstPage.size());
+        assertEquals(t1.getId().intValue(), firstPage.get(0).get("id"));
+        assertNotNull(firstPage.get(0).get("labels"));
+        List<LinkedHashMap> secondPage = getRecentProjectItems(YESTERDAY, TOMORROW, "America/Los_Angeles", types, 1, 1);
+        assertEquals(1, secondPage.size());
+        assertEquals(t2.getId().intValue(), secondPage.get(0).get("id"));
+        assertTrue(getRecentProjectItems(YESTERDAY, TOMORROW, "America/Los_Angeles", types, 2, 1).isEmpty());
     }
 
     private void addRecentNotes(Project p) {
@@ -4,11 +4,14 @@ import com.bulletjournal.config.ContentRevisionConfig;
 import com.bulletjournal.controller.models.*;
 import com.bulletjournal.controller.models.params.CreateContentParams;
 import com.bulletjournal.controller.models.params.CreateTaskParams;
+import com.bulletjournal.controller.models.params.ShareProjectItemParams;
 import com.bulletjournal.controller.models.params.UpdateContentParams;
 import com.bulletjournal.controller.models.params.UpdateTaskParams;
 import com.bulletjournal.controller.utils.TestHelpers;
 import com.bulletjournal.repository.TaskContentRepository;
+import com.bulletjournal.repository.SharedProjectItemRepository;
 import com.bulletjournal.repository.TaskDaoJpa;
+import com.bulletjournal.repository.models.SharedProjectItem;
 import com.bulletjournal.templates.repository.SampleTaskDaoJpa;
 import com.bulletjournal.templates.repository.model.SampleTask;
 import com.google.common.collect.ImmutableList;
@@ -32,6 +35,7 @@ import javax.transaction.Transactional;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -64,6 +68,9 @@ public class TaskControllerTest {
     @Autowired
     private TaskContentRepository taskContentRepository;
 
+    @Autowired
+    private SharedProjectItemRepository sharedProjectItemRepository;
+
     @Before
     public void setup() {
         restTemplate.getRestTemplate().setRequestFactory(new HttpComponentsClientHttpRequestFactory());
@@ -213,6 +220,42 @@ public class TaskControllerTest {
         assertEquals(users.size(), taskStatistics.getUserTaskStatistics().size());
     }
 
+    @Test
+    public void testShareTaskIsIdempotent() {
+        Group group = TestHelpers.createGroup(requestParams, USER, "Group_ShareTask");
+        int count = 1;
+        for (String username : ImmutableList.of("xlf", "ccc", "Joker")) {
+            group = TestHelpers.addUserToGroup(this.requestParams, group, username, ++count, USER);
+        }
+        Project p = TestHelpers.createProject(requestParams, USER, "share_task_project", group, ProjectType.TODO);
+        Task task = createTask(p, new CreateTaskParams("share_task", "2021-01-01", "01:01", 3,
+                new ReminderSetting(), ImmutableList.of(USER), TIMEZONE, null));
+
+        shareTask(task, new ShareProjectItemParams("xlf"));
+        shareTask(task, new ShareProjectItemParams("xlf"));
+        ShareProjectItemParams shareWithGroup = new ShareProjectItemParams();
+        shareWithGroup.setTargetGroup(group.getId());
+        shareTask(task, shareWithGroup);
+        shareTask(task, shareWithGroup);
+
+        List<String> sharedWith = this.sharedProjectItemRepository.findByTask(
+                this.taskDaoJpa.getProjectItem(task.getId(), USER))
+                .stream().map(SharedProjectItem::getUsername).collect(Collectors.toList());
+        assertEquals(sharedWith.stream().distinct().count(), sharedWith.size());
+        assertTrue(sharedWith.contains("xlf"));
+        assertFalse(sharedWith.contains(USER));
+    }
+
+    private void shareTask(Task task, ShareProjectItemParams shareProjectItemParams) {
+        ResponseEntity<String> response = this.restTemplate.exchange(
+                ROOT_URL + randomServerPort + TaskController.SHARE_TASK_ROUTE,
+                HttpMethod.POST,
+                TestHelpers.actAsOtherUser(shareProjectItemParams, USER),
+                String.class,
+                task.getId());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
     @Test
     @Transactional
     public void testCreateTaskFromSampleTask() throws Exception {
@@ -205,6 +205,39 @@ public class HierarchyProcessorProcessorTest {
         assertTrue(projects.get(0).getSubProjects().get(0).getSubProjects().isEmpty());
     }
 
+    /**
+     * Tests {@link ProjectRelationsProcessor#processRelations(Map, List, Set)} on a cached hierarchy
+     */
+    @Test
+    public void testProjectRelationsFromParsedHierarchy() {
+        List<Project> projects = new ArrayList<>();
+        for (long i = 1; i <= 6; i++) {
+            projects.add(createProject(i));
+        }
+        String projectRelations = ProjectRelationsProcessor.processRelations(createSampleProjectRelations(
+                projects.get(0), projects.get(1), projects.get(2), projects.get(3), projects.get(4), projects.get(5)));
+        Map<Long, com.bulletjournal.repository.models.Project> projectMap = new HashMap<>();
+        for (long i = 1; i <= 6; i++) {
+            com.bulletjournal.repository.models.Project p = new com.bulletjournal.repository.models.Project();
+            p.setId(i);
+            p.setType(0);
+            p.setGroup(new Group());
+            p.setName("P" + i);
+            projectMap.put(i, p);
+        }
+
+        // pruning one request must not leak into the next one parsing the same json
+        HierarchyProcessor.findAllIds(projectRelations, ImmutableSet.of(1L, 5L));
+        List<Project> parsed = ProjectRelationsProcessor.processRelations(
+                projectMap, HierarchyProcessor.findAllIds(projectRelations, null).getLeft(), null);
+        List<Project> expected = ProjectRelationsProcessor.processRelations(projectMap, projectRelations, null);
+
+        assertEquals(ProjectRelationsProcessor.processRelations(expected),
+                ProjectRelationsProcessor.processRelations(parsed));
+        assertEquals(2, parsed.get(0).getSubProjects().size());
+        assertEquals("P3", parsed.get(0).getSubProjects().get(0).getSubProjects().get(0).getName());
+    }
+
     private Project createProject(Long id) {
         Project project = new Project(id);
         project.setName("P" + id);
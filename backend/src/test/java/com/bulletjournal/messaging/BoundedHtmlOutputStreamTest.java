@@ -0,0 +1,32 @@
+package com.bulletjournal.messaging;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class BoundedHtmlOutputStreamTest {
+
+    @Test
+    public void testWriteWithinLimit() throws IOException {
+        BoundedHtmlOutputStream out = new BoundedHtmlOutputStream(64);
+        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            writer.write("<p>💯</p>");
+        }
+        Assert.assertEquals(11, out.size());
+        Assert.assertEquals("<p>💯</p>",
+                StreamUtils.copyToString(out.toInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteBeyondLimit() throws IOException {
+        BoundedHtmlOutputStream out = new BoundedHtmlOutputStream(8);
+        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            writer.write("<p>too long</p>");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.bulletjournal.messaging;
+
+import com.bulletjournal.config.DeliveryConfig;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class DeliveryQueueTest {
+
+    private DeliveryConfig config;
+
+    private DeliveryQueue<String> queue;
+
+    @Before
+    public void setup() {
+        config = new DeliveryConfig();
+        config.setQueueCapacity(1000);
+        config.setFlushIntervalMillis(20);
+        config.setMaxAttempts(3);
+        config.setInitialBackoffMillis(10);
+    }
+
+    @After
+    public void tearDown() {
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    /**
+     * Fake mail endpoint: records every request and accepts it
+     */
+    @Test
+    public void testCoalescePerKey() throws Exception {
+        List<List<String>> requests = new CopyOnWriteArrayList<>();
+        queue = new DeliveryQueue<>("TestEmail", 2, message -> message.charAt(0), batch -> {
+            requests.add(new ArrayList<>(batch));
+            return Collections.emptyList();
+        }, config);
+
+        queue.offer(Arrays.asList("a1", "b1", "a2", "a3", "b2"));
+        waitUntilDrained();
+
+        Assert.assertEquals(5, queue.getStats().getDelivered());
+        Assert.assertEquals(0, queue.getQueueDepth());
+        for (List<String> request : requests) {
+            Assert.assertTrue(request.size() <= 2);
+            Assert.assertEquals(1, request.stream().map(m -> m.charAt(0)).distinct().count());
+        }
+        Assert.assertEquals(Arrays.asList("a1", "a2", "a3", "b1", "b2"),
+                requests.stream().flatMap(List::stream).sorted().collect(Collectors.toList()));
+    }
+
+    /**
+     * Fake push endpoint: first attempt of every odd message fails transiently
+     */
+    @Test
+    public void testRetryTransientFailures() throws Exception {
+        List<String> firstAttempts = new CopyOnWriteArrayList<>();
+        queue = new DeliveryQueue<>("TestPush", 500, message -> "push", batch -> {
+            List<String> retry = new ArrayList<>();
+            for (String message : batch) {
+                if (Integer.parseInt(message) % 2 == 1 && !firstAttempts.contains(message)) {
+                    firstAttempts.add(message);
+                    retry.add(message);
+                }
+            }
+            return retry;
+        }, config);
+
+        queue.offer(IntStream.range(0, 10).mapToObj(String::valueOf).collect(Collectors.toList()));
+        waitUntilDrained();
+
+        DeliveryStats stats = queue.getStats();
+        Assert.assertEquals(10, stats.getDelivered());
+        Assert.assertEquals(5, stats.getRetried());
+        Assert.assertEquals(0, stats.getFailed());
+    }
+
+    @Test
+    public void testGiveUpAfterMaxAttempts() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        queue = new DeliveryQueue<>("TestUnavailable", 10, message -> "push", batch -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("endpoint unavailable");
+        }, config);
+
+        queue.offer(Collections.singletonList("message"));
+        waitUntilDrained();
+
+        Assert.assertEquals(3, attempts.get());
+        Assert.assertEquals(1, queue.getStats().getFailed());
+        Assert.assertEquals(0, queue.getStats().getDelivered());
+    }
+
+    private void waitUntilDrained() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Thread.sleep(50);
+            DeliveryStats stats = queue.getStats();
+            if (stats.getQueueDepth() == 0 && stats.getDelivered() + stats.getFailed() > 0) {
+                Thread.sleep(50);
+                if (queue.getQueueDepth() == 0) {
+                    return;
+                }
+            }
+        }
+        Assert.fail("Delivery queue not drained");
+    }
+}
@@ -0,0 +1,60 @@
+package com.bulletjournal.messaging.firebase;
+
+import com.bulletjournal.repository.DeviceTokenDaoJpa;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests how {@link FcmClient} handles per message failures of a batch
+ */
+public class FcmClientTest {
+
+    private DeviceTokenDaoJpa deviceTokenDaoJpa;
+
+    private FcmClient fcmClient;
+
+    @Before
+    public void setUp() {
+        this.deviceTokenDaoJpa = mock(DeviceTokenDaoJpa.class);
+        this.fcmClient = new FcmClient();
+        ReflectionTestUtils.setField(this.fcmClient, "deviceTokenDaoJpa", this.deviceTokenDaoJpa);
+    }
+
+    @Test
+    public void testInvalidTokensRemoved() {
+        FcmMessageParams delivered = new FcmMessageParams("delivered");
+        FcmMessageParams expired = new FcmMessageParams("expired");
+        FcmMessageParams unavailable = new FcmMessageParams("unavailable");
+        FcmMessageParams invalid = new FcmMessageParams("invalid-argument");
+        FcmMessageParams unregistered = new FcmMessageParams("unregistered");
+        when(this.deviceTokenDaoJpa.deleteTokens(Arrays.asList("expired", "unregistered"))).thenReturn(2);
+
+        List<FcmMessageParams> retry = this.fcmClient.processErrors(
+                Arrays.asList(delivered, expired, unavailable, invalid, unregistered),
+                Arrays.asList(null, "registration-token-not-registered", "server-unavailable",
+                        "invalid-argument", "registration-token-not-registered"));
+
+        Assert.assertEquals(Collections.singletonList(unavailable), retry);
+        verify(this.deviceTokenDaoJpa).deleteTokens(Arrays.asList("expired", "unregistered"));
+    }
+
+    @Test
+    public void testNoCleanupWithoutInvalidTokens() {
+        FcmMessageParams throttled = new FcmMessageParams("throttled");
+
+        List<FcmMessageParams> retry = this.fcmClient.processErrors(
+                Arrays.asList(new FcmMessageParams("delivered"), throttled),
+                Arrays.asList(null, "message-rate-exceeded"));
+
+        Assert.assertEquals(Collections.singletonList(throttled), retry);
+        verify(this.deviceTokenDaoJpa, never()).deleteTokens(anyCollection());
+    }
+}
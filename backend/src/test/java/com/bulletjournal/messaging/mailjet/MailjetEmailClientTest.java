@@ -0,0 +1,44 @@
+package com.bulletjournal.messaging.mailjet;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests which emails of a failed Send API v3.1 request are retried
+ */
+public class MailjetEmailClientTest {
+
+    private static final List<String> BATCH = Arrays.asList("sent", "throttled", "bad address", "server error");
+
+    @Test
+    public void testRetryOnlyTransientMessageFailures() {
+        JSONObject body = new JSONObject().put("Messages", new JSONArray()
+                .put(new JSONObject().put("Status", "success"))
+                .put(error(429))
+                .put(error(400))
+                .put(error(500)));
+
+        Assert.assertEquals(Arrays.asList("throttled", "server error"),
+                MailjetEmailClient.getTransientFailures(BATCH, 400, new JSONArray().put(body)));
+    }
+
+    @Test
+    public void testRetryWholeBatchOnlyWhenRejectedBeforeSending() {
+        JSONArray data = new JSONArray().put(new JSONObject().put("ErrorMessage", "Too many requests"));
+
+        Assert.assertEquals(BATCH, MailjetEmailClient.getTransientFailures(BATCH, 429, data));
+        Assert.assertEquals(BATCH, MailjetEmailClient.getTransientFailures(BATCH, 503, new JSONArray()));
+        Assert.assertEquals(Collections.emptyList(), MailjetEmailClient.getTransientFailures(BATCH, 401, data));
+    }
+
+    private static JSONObject error(int statusCode) {
+        return new JSONObject().put("Status", "error")
+                .put("Errors", new JSONArray().put(new JSONObject().put("StatusCode", statusCode)));
+    }
+}
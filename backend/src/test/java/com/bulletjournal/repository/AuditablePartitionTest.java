@@ -0,0 +1,132 @@
+package com.bulletjournal.repository;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Checks that audit tables are partitioned by month and expiry archives whole partitions
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class AuditablePartitionTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditableDaoJpa auditableDaoJpa;
+
+    @Autowired
+    private PartitionDaoJpa partitionDaoJpa;
+
+    @Test
+    public void testHistoryReadPrunesPartitions() {
+        this.jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT create_monthly_partition('task_auditables', '1999-01-01')");
+                String plan = explain(statement, "SELECT * FROM task_auditables WHERE task_id = 1"
+                        + " AND activity_time >= '1999-01-01' AND activity_time <= '1999-01-31'");
+                Assert.assertTrue(plan, plan.contains("task_auditables_p199901"));
+                Assert.assertFalse(plan, plan.contains("task_auditables_default"));
+
+                plan = explain(statement, "SELECT * FROM task_auditables WHERE task_id = 1"
+                        + " AND activity_time >= now() - interval '1 day' ORDER BY activity_time DESC LIMIT 10");
+                Assert.assertFalse(plan, plan.contains("task_auditables_p199901"));
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void testExpiryDropsPartitions() {
+        this.jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                long partitions = count(statement, "SELECT count(*) FROM pg_inherits"
+                        + " WHERE inhparent = 'auditables'::regclass");
+                statement.execute("SELECT create_monthly_partition('auditables', '1999-01-01')");
+                Assert.assertEquals(partitions + 1, count(statement, "SELECT count(*) FROM pg_inherits"
+                        + " WHERE inhparent = 'auditables'::regclass"));
+
+                Assert.assertEquals(1, count(statement,
+                        "SELECT detach_monthly_partitions('auditables', '1999-02-01', null)"));
+                Assert.assertEquals(partitions, count(statement, "SELECT count(*) FROM pg_inherits"
+                        + " WHERE inhparent = 'auditables'::regclass"));
+                Assert.assertEquals(0, count(statement,
+                        "SELECT count(*) FROM pg_class WHERE relname = 'auditables_p199901'"));
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return null;
+        });
+    }
+
+    @Test
+    @Transactional
+    public void testExpiredHistoryIsArchived() {
+        for (String table : PartitionDaoJpa.AUDIT_TABLES) {
+            this.partitionDaoJpa.createMonthlyPartition(table, LocalDate.of(1999, 1, 1));
+            this.partitionDaoJpa.createMonthlyPartition(table, LocalDate.of(1999, 2, 1));
+        }
+
+        Assert.assertEquals(1, this.auditableDaoJpa.deleteAllExpiredHistory(Timestamp.valueOf("1999-02-15 00:00:00")));
+
+        // only project history expires, to the archive schema
+        Assert.assertEquals("archive", schemaOf("auditables_p199901"));
+        Assert.assertFalse(isPartitionOf("auditables", "auditables_p199901"));
+        Assert.assertTrue(isPartitionOf("auditables", "auditables_p199902"));
+        for (String table : Arrays.asList("task_auditables", "note_auditables", "transaction_auditables")) {
+            Assert.assertEquals("public", schemaOf(table + "_p199901"));
+            Assert.assertTrue(isPartitionOf(table, table + "_p199901"));
+        }
+    }
+
+    private String schemaOf(String table) {
+        return this.jdbcTemplate.queryForObject("SELECT n.nspname FROM pg_class c"
+                + " JOIN pg_namespace n ON n.oid = c.relnamespace WHERE c.relname = ?", String.class, table);
+    }
+
+    private boolean isPartitionOf(String parent, String partition) {
+        return this.jdbcTemplate.queryForObject("SELECT count(*) FROM pg_inherits i"
+                        + " JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = CAST(? AS regclass) AND c.relname = ?",
+                Long.class, parent, partition) == 1;
+    }
+
+    private static String explain(Statement statement, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static long count(Statement statement, String sql) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            Assert.assertTrue(resultSet.next());
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.bulletjournal.repository;
+
+import com.bulletjournal.repository.models.Notification;
+import org.hibernate.Session;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares bulk insert throughput with and without JDBC batching.
+ * <p>
+ * Only runs with -Dbenchmark.bulkInsert=true against a local Postgres, every run is rolled back.
+ * </p>
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class BulkInsertBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkInsertBenchmarkTest.class);
+
+    private static final int ROWS = 20000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void testBulkInsertThroughput() {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark.bulkInsert"));
+        // warm up
+        measure(1, ROWS / 10);
+        measure(50, ROWS / 10);
+
+        long unbatched = measure(1, ROWS);
+        long batched = measure(50, ROWS);
+        LOGGER.info("{} rows: {} ms one by one, {} ms batched", ROWS, unbatched, batched);
+    }
+
+    private long measure(int jdbcBatchSize, int rows) {
+        return this.transactionTemplate.execute(status -> {
+            this.entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            List<Notification> notifications = new ArrayList<>();
+            for (int i = 0; i < rows; i++) {
+                notifications.add(new Notification(
+                        "BulletJournal", "bulk " + i, null, "bulk_insert_user", "CreateProjectEvent", (long) i, null));
+            }
+            long start = System.nanoTime();
+            this.notificationRepository.saveAll(notifications);
+            this.entityManager.flush();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            status.setRollbackOnly();
+            return elapsedMillis;
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.bulletjournal.repository;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that completed_tasks is partitioned by month and time-bounded reads prune to the months they need
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class CompletedTaskPartitionTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testTimeBoundedQueryPrunesPartitions() {
+        String plan = this.jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                return readPlan(statement, "EXPLAIN SELECT * FROM completed_tasks WHERE project_id = 9"
+                        + " AND created_at >= '2020-03-01' AND created_at <= '2020-03-31'");
+            }
+        });
+        Assert.assertTrue(plan, plan.contains("completed_tasks_p202003"));
+        Assert.assertFalse(plan, plan.contains("completed_tasks_p202004"));
+        Assert.assertFalse(plan, plan.contains("completed_tasks_default"));
+    }
+
+    @Test
+    public void testDeleteByPrimaryKeyPrunesPartitions() {
+        String plan = this.jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                return readPlan(statement, "EXPLAIN DELETE FROM completed_tasks WHERE id = 1"
+                        + " AND created_at = '2020-03-15 10:00:00'");
+            }
+        });
+        Assert.assertTrue(plan, plan.contains("completed_tasks_p202003"));
+        Assert.assertFalse(plan, plan.contains("completed_tasks_p202004"));
+        Assert.assertFalse(plan, plan.contains("completed_tasks_default"));
+    }
+
+    @Test
+    public void testCreatePartitionMovesRowsOutOfDefault() {
+        this.jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO completed_tasks (id, created_at, updated_at, name, owner, timezone,"
+                        + " project_id) SELECT -1, '2100-01-15', '2100-01-15', 'far future', owner, 'UTC', id"
+                        + " FROM projects LIMIT 1");
+                Assert.assertEquals("completed_tasks_default", partitionOf(statement, -1));
+
+                try (ResultSet resultSet = statement.executeQuery(
+                        "SELECT create_monthly_partition('completed_tasks', '2100-01-20')")) {
+                    Assert.assertTrue(resultSet.next());
+                    Assert.assertTrue(resultSet.getBoolean(1));
+                }
+                Assert.assertEquals("completed_tasks_p210001", partitionOf(statement, -1));
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return null;
+        });
+    }
+
+    private static String partitionOf(Statement statement, long id) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(
+                "SELECT tableoid::regclass::text FROM completed_tasks WHERE id = " + id)) {
+            Assert.assertTrue(resultSet.next());
+            return resultSet.getString(1);
+        }
+    }
+
+    private static String readPlan(Statement statement, String sql) throws SQLException {
+        List<String> lines = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                lines.add(resultSet.getString(1));
+            }
+        }
+        return String.join("\n", lines);
+    }
+}
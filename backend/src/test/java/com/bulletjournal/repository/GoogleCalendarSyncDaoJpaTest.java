@@ -0,0 +1,137 @@
+package com.bulletjournal.repository;
+
+import com.bulletjournal.calendars.google.Converter;
+import com.bulletjournal.calendars.google.GoogleCalendarEvent;
+import com.bulletjournal.clients.UserClient;
+import com.bulletjournal.controller.models.ProjectType;
+import com.bulletjournal.repository.models.Group;
+import com.bulletjournal.repository.models.Project;
+import com.bulletjournal.repository.models.Task;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.EventDateTime;
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies calendar deltas through TaskDaoJpa.syncGoogleCalendarEvents and checks the rows
+ * left in tasks and task_contents
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class GoogleCalendarSyncDaoJpaTest {
+
+    private static final String OWNER = "BulletJournal";
+
+    private static final long GROUP_ID = 98L;
+
+    private static final String TIMEZONE = "America/Los_Angeles";
+
+    @Autowired
+    private TaskDaoJpa taskDaoJpa;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Project project;
+
+    @Before
+    public void setUp() {
+        MDC.put(UserClient.USER_NAME_KEY, OWNER);
+        Group group = this.groupRepository.findById(GROUP_ID).get();
+        Project project = new Project("google_calendar_sync", ProjectType.TODO.getValue(), group, false);
+        project.setOwner(OWNER);
+        this.project = this.projectRepository.save(project);
+    }
+
+    @After
+    public void tearDown() {
+        this.projectRepository.delete(this.project);
+        MDC.remove(UserClient.USER_NAME_KEY);
+    }
+
+    @Test
+    public void testSyncAppliesDelta() {
+        this.taskDaoJpa.syncGoogleCalendarEvents(this.project.getId(), OWNER, Collections.emptyList(),
+                ImmutableList.of(event("standup", "Standup", "daily"), event("retro", "Retro", "sprint")));
+        Map<String, Task> synced = getTasks();
+        Assert.assertEquals(2, synced.size());
+        Assert.assertEquals(1, countContents(synced.get("standup"), "daily"));
+        Assert.assertEquals(1, countContents(synced.get("retro"), "sprint"));
+
+        // "retro" is cancelled, "standup" moved, "planning" created and then changed within the same delta
+        this.taskDaoJpa.syncGoogleCalendarEvents(this.project.getId(), OWNER, ImmutableList.of("retro"),
+                ImmutableList.of(event("standup", "Standup moved", "weekly"),
+                        event("planning", "Planning", "draft"),
+                        event("planning", "Planning v2", "final")));
+
+        Map<String, Task> tasks = getTasks();
+        Assert.assertEquals(2, tasks.size());
+        Assert.assertFalse(tasks.containsKey("retro"));
+        Assert.assertFalse(this.taskRepository.existsById(synced.get("retro").getId()));
+
+        Task standup = tasks.get("standup");
+        Assert.assertEquals("Standup moved", standup.getName());
+        Assert.assertEquals(1, countContents(standup, "weekly"));
+        Assert.assertEquals(0, countContents(standup, "daily"));
+        Assert.assertEquals(0, countContents(synced.get("standup"), null));
+
+        Task planning = tasks.get("planning");
+        Assert.assertEquals("Planning v2", planning.getName());
+        Assert.assertEquals(1, countContents(planning, "final"));
+        Assert.assertEquals(0, countContents(planning, "draft"));
+    }
+
+    private Map<String, Task> getTasks() {
+        List<Task> tasks = this.taskRepository.findTasksByProjectAndGoogleCalendarEventIdIn(this.project,
+                ImmutableList.of("standup", "retro", "planning"));
+        Assert.assertEquals(tasks.size(), tasks.stream().map(Task::getGoogleCalendarEventId).distinct().count());
+        return tasks.stream().collect(Collectors.toMap(Task::getGoogleCalendarEventId, Function.identity()));
+    }
+
+    private int countContents(Task task, String text) {
+        if (text == null) {
+            return this.jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM task_contents WHERE task_id = ?", Integer.class, task.getId());
+        }
+        return this.jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM task_contents WHERE task_id = ? AND owner = ? AND text LIKE ?",
+                Integer.class, task.getId(), OWNER, "%" + text + "%");
+    }
+
+    private static GoogleCalendarEvent event(String id, String summary, String description) {
+        Event event = new Event()
+                .setId(id)
+                .setSummary(summary)
+                .setDescription(description)
+                .setStart(new EventDateTime().setDateTime(new DateTime("2020-06-01T09:00:00-07:00")))
+                .setEnd(new EventDateTime().setDateTime(new DateTime("2020-06-01T09:30:00-07:00")));
+        return Converter.toTask(event, TIMEZONE);
+    }
+}
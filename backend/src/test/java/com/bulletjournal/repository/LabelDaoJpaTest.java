@@ -0,0 +1,153 @@
+package com.bulletjournal.repository;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Checks that deleting a label strips only that label from labeled items, and only from the requester's
+ * shared items. Runs in a rolled back transaction.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class LabelDaoJpaTest {
+
+    private static final String OWNER = "BulletJournal";
+
+    private static final String OTHER_USER = "Michael_Zhou";
+
+    private static final Timestamp OLD_UPDATED_AT = Timestamp.valueOf("2020-01-01 00:00:00");
+
+    private static final long NOTE_ID = 100L;
+
+    private static final long TRANSACTION_ID = 7L;
+
+    @Autowired
+    private LabelDaoJpa labelDaoJpa;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private SharedProjectItemRepository sharedProjectItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long target;
+
+    private Long kept;
+
+    private Long taskId;
+
+    private Long otherTaskId;
+
+    @Before
+    public void setUp() {
+        this.target = this.labelDaoJpa.create("label_delete_target", OWNER, null).getId();
+        this.kept = this.labelDaoJpa.create("label_delete_kept", OWNER, null).getId();
+
+        this.taskId = this.jdbcTemplate.queryForObject("SELECT id FROM tasks WHERE owner = ? AND id NOT IN"
+                + " (SELECT task_id FROM shared_project_items WHERE task_id IS NOT NULL) ORDER BY id LIMIT 1",
+                Long.class, OWNER);
+        this.otherTaskId = this.jdbcTemplate.queryForObject(
+                "SELECT id FROM tasks WHERE id <> ? ORDER BY id LIMIT 1", Long.class, this.taskId);
+
+        setLabels("tasks", this.taskId, this.target, this.kept);
+        setLabels("tasks", this.otherTaskId, this.kept);
+        setLabels("notes", NOTE_ID, this.target, this.kept);
+        setLabels("transactions", TRANSACTION_ID, this.kept, this.target);
+
+        this.jdbcTemplate.update("INSERT INTO shared_project_items (id, created_at, updated_at, username, task_id,"
+                        + " labels) VALUES (-1, ?, ?, ?, ?, ARRAY[?, ?]), (-2, ?, ?, ?, ?, ARRAY[?, ?])",
+                OLD_UPDATED_AT, OLD_UPDATED_AT, OWNER, this.taskId, this.target, this.kept,
+                OLD_UPDATED_AT, OLD_UPDATED_AT, OTHER_USER, this.taskId, this.target, this.kept);
+    }
+
+    @Test
+    public void testDeleteRemovesOnlyTargetLabel() {
+        this.labelDaoJpa.delete(OWNER, this.target);
+
+        Assert.assertEquals(0, this.jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM labels WHERE id = ?", Integer.class, this.target).intValue());
+
+        assertLabels("tasks", this.taskId, this.kept);
+        assertUpdated("tasks", this.taskId);
+        assertLabels("notes", NOTE_ID, this.kept);
+        assertUpdated("notes", NOTE_ID);
+        assertLabels("transactions", TRANSACTION_ID, this.kept);
+        assertUpdated("transactions", TRANSACTION_ID);
+
+        // items without the label are left alone
+        assertLabels("tasks", this.otherTaskId, this.kept);
+        assertNotUpdated("tasks", this.otherTaskId);
+
+        assertLabels("shared_project_items", -1L, this.kept);
+        assertUpdated("shared_project_items", -1L);
+        assertLabels("shared_project_items", -2L, this.target, this.kept);
+        assertNotUpdated("shared_project_items", -2L);
+    }
+
+    @Test
+    public void testEmptyLabelsMatchNothing() {
+        List<Long> labels = Collections.emptyList();
+        Assert.assertTrue(this.taskRepository.findTasksByLabelIds(labels).isEmpty());
+        Assert.assertTrue(this.noteRepository.findNotesByLabelIds(labels).isEmpty());
+        Assert.assertTrue(this.transactionRepository.findTransactionsByLabelIds(labels).isEmpty());
+        Assert.assertTrue(this.sharedProjectItemRepository.findSharedProjectItemsByLabelIds(OWNER, labels).isEmpty());
+        Assert.assertTrue(this.labelDaoJpa.getItemsByLabels("America/Los_Angeles", labels, OWNER).isEmpty());
+    }
+
+    private void setLabels(String table, Long id, Long... labels) {
+        this.jdbcTemplate.update("UPDATE " + table + " SET labels = ?::bigint[], updated_at = ? WHERE id = ?",
+                toArrayLiteral(labels), OLD_UPDATED_AT, id);
+    }
+
+    private void assertLabels(String table, Long id, Long... labels) {
+        Assert.assertEquals(toArrayLiteral(labels), this.jdbcTemplate.queryForObject(
+                "SELECT labels::text FROM " + table + " WHERE id = ?", String.class, id));
+    }
+
+    private void assertUpdated(String table, Long id) {
+        Assert.assertTrue(table + " " + id, getUpdatedAt(table, id).after(OLD_UPDATED_AT));
+    }
+
+    private void assertNotUpdated(String table, Long id) {
+        Assert.assertEquals(table + " " + id, OLD_UPDATED_AT, getUpdatedAt(table, id));
+    }
+
+    private Timestamp getUpdatedAt(String table, Long id) {
+        return this.jdbcTemplate.queryForObject(
+                "SELECT updated_at FROM " + table + " WHERE id = ?", Timestamp.class, id);
+    }
+
+    private static String toArrayLiteral(Long... labels) {
+        StringBuilder literal = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            literal.append(labels[i]);
+        }
+        return literal.append('}').toString();
+    }
+}
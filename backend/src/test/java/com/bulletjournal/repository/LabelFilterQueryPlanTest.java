@@ -0,0 +1,151 @@
+package com.bulletjournal.repository;
+
+import com.bulletjournal.repository.utils.DaoHelper;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that label and assignee filters, and label removal, are planned against the GIN indexes.
+ * <p>
+ * The 1M row latency comparison only runs with -Dbenchmark.labels=true against a local Postgres.
+ * </p>
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class LabelFilterQueryPlanTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LabelFilterQueryPlanTest.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testLabelFilterUsesGinIndex() {
+        String plan = explain("SELECT * FROM tasks WHERE "
+                + withLabels(DaoHelper.labelsContainAll("tasks.labels", 2), 1L, 2L));
+        Assert.assertTrue(plan, plan.contains("tasks_labels_project_id_index"));
+
+        plan = explain("SELECT * FROM notes WHERE "
+                + withLabels(DaoHelper.labelsContainAll("notes.labels", 1), 1L));
+        Assert.assertTrue(plan, plan.contains("notes_labels_project_id_index"));
+
+        plan = explain("SELECT * FROM transactions WHERE "
+                + withLabels(DaoHelper.labelsContainAll("transactions.labels", 1), 1L));
+        Assert.assertTrue(plan, plan.contains("transactions_labels_project_id_index"));
+
+        plan = explain("SELECT * FROM shared_project_items WHERE "
+                + withLabels(DaoHelper.labelsContainAll("shared_project_items.labels", 1), 1L));
+        Assert.assertTrue(plan, plan.contains("shared_project_items_labels_username_index"));
+    }
+
+    @Test
+    public void testLabelRemovalUsesGinIndex() {
+        for (String table : new String[]{"tasks", "notes", "transactions"}) {
+            String plan = explain("UPDATE " + table + " SET labels = array_remove(labels, CAST(1 AS bigint))"
+                    + " WHERE " + table + ".labels @> CAST(ARRAY[1] AS bigint[])");
+            Assert.assertTrue(plan, plan.contains(table + "_labels_project_id_index"));
+        }
+
+        String plan = explain("UPDATE shared_project_items SET labels = array_remove(labels, CAST(1 AS bigint))"
+                + " WHERE shared_project_items.username = 'BulletJournal'"
+                + " AND shared_project_items.labels @> CAST(ARRAY[1] AS bigint[])");
+        Assert.assertTrue(plan, plan.contains("shared_project_items_labels_username_index"));
+    }
+
+    @Test
+    public void testAssigneeFilterUsesGinIndex() {
+        String plan = explain("SELECT * FROM tasks WHERE tasks.assignees @> ARRAY[CAST('BulletJournal' AS text)]"
+                + " AND tasks.project_id = 11");
+        Assert.assertTrue(plan, plan.contains("tasks_assignees_"));
+    }
+
+    @Test
+    public void testLabelFilterLatencyOnMillionRows() {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark.labels"));
+        this.jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMP TABLE label_filter_benchmark ON COMMIT DROP AS "
+                        + "SELECT i AS id, i % 1000 AS project_id, "
+                        + "ARRAY[i % 997, i % 991, i % 983]::bigint[] AS labels, "
+                        + "ARRAY['user' || (i % 5000)]::text[] AS assignees "
+                        + "FROM generate_series(1, 1000000) AS i");
+                statement.execute("CREATE INDEX ON label_filter_benchmark USING GIN (labels, project_id)");
+                statement.execute("CREATE INDEX ON label_filter_benchmark USING GIN (assignees, project_id)");
+                statement.execute("ANALYZE label_filter_benchmark");
+
+                benchmark(statement, "labels ANY",
+                        "SELECT * FROM label_filter_benchmark WHERE 5 = ANY(labels) AND 7 = ANY(labels)");
+                benchmark(statement, "labels @>",
+                        "SELECT * FROM label_filter_benchmark WHERE labels @> CAST(ARRAY[5, 7] AS bigint[])");
+                benchmark(statement, "assignee ANY",
+                        "SELECT * FROM label_filter_benchmark WHERE 'user42' = ANY(assignees) AND project_id = 42");
+                String plan = benchmark(statement, "assignee @>",
+                        "SELECT * FROM label_filter_benchmark WHERE assignees @> ARRAY[CAST('user42' AS text)]"
+                                + " AND project_id = 42");
+                Assert.assertFalse(plan, plan.contains("Seq Scan"));
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return null;
+        });
+    }
+
+    private String benchmark(Statement statement, String name, String sql) throws SQLException {
+        String plan = readPlan(statement, "EXPLAIN (ANALYZE, BUFFERS) " + sql);
+        LOGGER.info("{}:\n{}", name, plan);
+        return plan;
+    }
+
+    /**
+     * EXPLAIN with sequential scans discouraged, the test tables are too small for the planner to pick
+     * an index on its own
+     */
+    private String explain(String sql) {
+        return this.jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL enable_seqscan = off");
+                return readPlan(statement, "EXPLAIN " + sql);
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    private static String readPlan(Statement statement, String sql) throws SQLException {
+        List<String> lines = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                lines.add(resultSet.getString(1));
+            }
+        }
+        return String.join("\n", lines);
+    }
+
+    private static String withLabels(String predicate, Long... labelIds) {
+        for (Long labelId : labelIds) {
+            predicate = predicate.replaceFirst("\\?", String.valueOf(labelId));
+        }
+        return predicate;
+    }
+}
@@ -0,0 +1,102 @@
+package com.bulletjournal.repository;
+
+import com.bulletjournal.controller.models.Notification;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class NotificationDaoJpaTest {
+
+    private static final String TARGET_USER = "inbox_keyset_user";
+
+    private static final String ORIGINATOR = "BulletJournal";
+
+    private static final int TOTAL = 10000;
+
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private NotificationDaoJpa notificationDaoJpa;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @After
+    public void tearDown() {
+        this.notificationRepository.deleteByTargetUser(TARGET_USER);
+    }
+
+    @Test
+    public void testKeysetPagination() {
+        List<com.bulletjournal.repository.models.Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < TOTAL; i++) {
+            notifications.add(new com.bulletjournal.repository.models.Notification(
+                    ORIGINATOR, "title " + i, null, TARGET_USER, "CreateProjectEvent", (long) i, null));
+        }
+        this.notificationRepository.saveAll(notifications);
+
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        long firstPageNanos = 0;
+        long maxPageNanos = 0;
+        do {
+            long start = System.nanoTime();
+            Pair<List<Notification>, String> page = this.notificationDaoJpa.getNotifications(
+                    TARGET_USER, cursor, PAGE_SIZE);
+            long elapsed = System.nanoTime() - start;
+            if (pages == 0) {
+                firstPageNanos = elapsed;
+            } else {
+                maxPageNanos = Math.max(maxPageNanos, elapsed);
+            }
+            pages++;
+
+            Assert.assertTrue(page.getLeft().size() <= PAGE_SIZE);
+            for (Notification notification : page.getLeft()) {
+                Assert.assertTrue("duplicate " + notification.getId(), seen.add(notification.getId()));
+                Assert.assertEquals(ORIGINATOR, notification.getOriginator().getName());
+            }
+            cursor = page.getRight();
+        } while (cursor != null);
+
+        Assert.assertEquals(TOTAL, seen.size());
+        Assert.assertEquals(TOTAL / PAGE_SIZE + 1, pages);
+        // deep pages cost about the same as the first one, allowing for jitter and a cold first call
+        Assert.assertTrue(maxPageNanos < Math.max(firstPageNanos, 50_000_000L) * 10);
+    }
+
+    @Test
+    public void testDefaultFirstPage() {
+        List<com.bulletjournal.repository.models.Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            notifications.add(new com.bulletjournal.repository.models.Notification(
+                    ORIGINATOR, "title " + i, null, TARGET_USER, "CreateProjectEvent", (long) i, null));
+        }
+        this.notificationRepository.saveAll(notifications);
+
+        List<Notification> inbox = this.notificationDaoJpa.getNotifications(TARGET_USER);
+        Assert.assertEquals(3, inbox.size());
+        Assert.assertNull(this.notificationDaoJpa.getNotifications(TARGET_USER, null, 5).getRight());
+
+        String cursor = this.notificationDaoJpa.getNotifications(TARGET_USER, null, 3).getRight();
+        Assert.assertNotNull(cursor);
+        Pair<List<Notification>, String> last = this.notificationDaoJpa.getNotifications(TARGET_USER, cursor, 3);
+        Assert.assertTrue(last.getLeft().isEmpty());
+        Assert.assertNull(last.getRight());
+    }
+}
@@ -0,0 +1,121 @@
+package com.bulletjournal.repository;
+
+import com.bulletjournal.controller.models.ProjectType;
+import com.bulletjournal.repository.models.Group;
+import com.bulletjournal.repository.models.Project;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the slim project projection used by project lists.
+ * <p>
+ * The full entity vs projection comparison only runs with -Dbenchmark.projects=true.
+ * </p>
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProjectDaoJpaTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectDaoJpaTest.class);
+
+    private static final String OWNER = "BulletJournal";
+
+    private static final long GROUP_ID = 98L;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ProjectDaoJpa projectDaoJpa;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Project> created = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        this.projectRepository.deleteAll(this.created);
+        this.created.clear();
+    }
+
+    @Test
+    public void testSummariesByOwner() {
+        createProjects(3, 1000);
+        Set<Long> ids = this.created.stream().map(Project::getId).collect(Collectors.toSet());
+
+        List<Project> summaries = this.projectRepository.findSummariesByOwner(OWNER).stream()
+                .filter(p -> ids.contains(p.getId())).collect(Collectors.toList());
+        Assert.assertEquals(3, summaries.size());
+        for (Project summary : summaries) {
+            Assert.assertEquals(Project.DESCRIPTION_PREVIEW_LENGTH, summary.getDescription().length());
+            Assert.assertEquals(OWNER, summary.getOwner());
+            Assert.assertEquals(ProjectType.TODO.getValue(), summary.getType().intValue());
+            Assert.assertEquals(GROUP_ID, summary.getGroup().getId().longValue());
+            Assert.assertEquals(Group.DEFAULT_NAME, summary.getGroup().getName());
+        }
+
+        Set<Long> userProjects = this.projectDaoJpa.getUserProjects(OWNER).stream()
+                .map(Project::getId).collect(Collectors.toSet());
+        Assert.assertTrue(userProjects.containsAll(ids));
+    }
+
+    @Test
+    public void testProjectListBenchmark() {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark.projects"));
+        createProjects(500, 20000);
+
+        measure("full entities", () -> this.projectRepository.findByOwner(OWNER));
+        measure("summaries", () -> this.projectRepository.findSummariesByOwner(OWNER));
+    }
+
+    private void measure(String name, Supplier<List<Project>> query) {
+        for (int i = 0; i < 3; i++) {
+            this.transactionTemplate.execute(status -> query.get());
+        }
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+        List<Project> projects = this.transactionTemplate.execute(status -> query.get());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+        long descriptionChars = projects.stream().mapToLong(p -> StringUtils.length(p.getDescription())).sum();
+        LOGGER.info("{}: {} projects in {} ms, {} description chars, ~{} KB allocated",
+                name, projects.size(), elapsedMillis, descriptionChars, (usedAfter - usedBefore) / 1024);
+    }
+
+    private void createProjects(int count, int descriptionLength) {
+        Group group = this.groupRepository.findById(GROUP_ID).get();
+        String description = StringUtils.repeat('d', descriptionLength);
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Project project = new Project("slim_project_" + i, ProjectType.TODO.getValue(), group, false);
+            project.setOwner(OWNER);
+            project.setDescription(description);
+            projects.add(project);
+        }
+        this.created.addAll(this.projectRepository.saveAll(projects));
+    }
+}
@@ -0,0 +1,59 @@
+package com.bulletjournal.repository;
+
+import com.bulletjournal.repository.models.TaskContent;
+import com.google.gson.Gson;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ProjectItemDaoJpaTest {
+
+    private static final Gson GSON = new Gson();
+
+    @Test
+    public void testOrderContentsWithoutOrder() {
+        List<TaskContent> contents = Arrays.asList(content(1L, 100), content(2L, 300), content(3L, 200));
+        Assert.assertEquals(Arrays.asList(2L, 3L, 1L), ids(ProjectItemDaoJpa.orderContents(null, contents)));
+    }
+
+    @Test
+    public void testOrderContents() {
+        List<TaskContent> contents = Arrays.asList(
+                content(1L, 100), content(2L, 300), content(3L, 200), content(4L, 400), content(5L, 500));
+        // 9 was deleted, 4 and 5 were added after the order was saved
+        String order = GSON.toJson(Arrays.asList(3L, 9L, 1L, 2L));
+        Assert.assertEquals(Arrays.asList(5L, 4L, 3L, 1L, 2L), ids(ProjectItemDaoJpa.orderContents(order, contents)));
+    }
+
+    @Test
+    public void testOrderManyContents() {
+        int n = 20000;
+        List<TaskContent> contents = new ArrayList<>();
+        List<Long> order = new ArrayList<>();
+        for (long i = 0; i < n; i++) {
+            contents.add(content(i, i));
+            order.add(i);
+        }
+        Collections.reverse(order);
+
+        long start = System.currentTimeMillis();
+        List<TaskContent> ordered = ProjectItemDaoJpa.orderContents(GSON.toJson(order), contents);
+        Assert.assertTrue(System.currentTimeMillis() - start < 2000);
+        Assert.assertEquals(order, ids(ordered));
+    }
+
+    private static TaskContent content(Long id, long updatedAt) {
+        Timestamp timestamp = new Timestamp(updatedAt);
+        return new TaskContent(id, "BulletJournal", "text " + id, timestamp, timestamp);
+    }
+
+    private static List<Long> ids(List<TaskContent> contents) {
+        return contents.stream().map(TaskContent::getId).collect(Collectors.toList());
+    }
+}
@@ -197,6 +197,22 @@ public class WorkflowControllerTest {
 
         assertEquals(18, tasks.size());
 
+        SampleTaskImportProgress progress;
+        do {
+            ResponseEntity<SampleTaskImportProgress> progressResponse = this.restTemplate.exchange(
+                    ROOT_URL + randomServerPort + WorkflowController.SAMPLE_TASKS_IMPORT_PROGRESS_ROUTE,
+                    HttpMethod.GET,
+                    TestHelpers.actAsOtherUser(null, USER),
+                    SampleTaskImportProgress.class);
+            assertEquals(HttpStatus.OK, progressResponse.getStatusCode());
+            progress = progressResponse.getBody();
+            Thread.sleep(100);
+        } while (!progress.isDone());
+        assertFalse(progress.isFailed());
+        assertEquals(16L, progress.getProjectId().longValue());
+        assertEquals(18, progress.getTotal());
+        assertEquals(18, progress.getImported());
+
         for (int i = 0; i < 16; i++) {
             Task task = tasks.get(i);
             assertEquals("America/Los_Angeles", task.getTimezone());
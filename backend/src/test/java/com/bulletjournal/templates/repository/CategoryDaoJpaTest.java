@@ -0,0 +1,59 @@
+package com.bulletjournal.templates.repository;
+
+import com.bulletjournal.templates.repository.model.Category;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Checks that template categories are served from the second-level cache.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class CategoryDaoJpaTest {
+
+    @Autowired
+    private CategoryDaoJpa categoryDaoJpa;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long categoryId;
+
+    @After
+    public void tearDown() {
+        if (this.categoryId != null) {
+            this.categoryDaoJpa.deleteById(this.categoryId);
+        }
+    }
+
+    @Test
+    public void testCategoryIsCached() {
+        Category category = this.categoryDaoJpa.create("cached_category", "description", null, null,
+                null, null, null, false);
+        this.categoryId = category.getId();
+        Cache cache = this.entityManagerFactory.getCache();
+        cache.evict(Category.class);
+
+        Category loaded = this.categoryDaoJpa.getById(this.categoryId);
+        Assert.assertEquals("cached_category", loaded.getName());
+        Assert.assertTrue(cache.contains(Category.class, this.categoryId));
+
+        this.categoryDaoJpa.updateCategory(this.categoryId, "cached_category_renamed", null, null, null,
+                "description", null, null, false);
+        Assert.assertEquals("cached_category_renamed", this.categoryDaoJpa.getById(this.categoryId).getName());
+
+        this.categoryDaoJpa.deleteById(this.categoryId);
+        this.categoryId = null;
+        Assert.assertFalse(cache.contains(Category.class, category.getId()));
+    }
+}
@@ -0,0 +1,145 @@
+package com.bulletjournal.templates.repository;
+
+import com.bulletjournal.templates.clients.StockApiClient;
+import com.bulletjournal.templates.config.StockApiConfig;
+import com.bulletjournal.templates.controller.model.StockTickerDetails;
+import com.bulletjournal.templates.repository.model.Choice;
+import com.bulletjournal.templates.repository.model.Selection;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs ticker lookups against a stub stock api to check that they are coalesced, cached and bounded.
+ */
+public class StockTickerDetailsDaoJpaTest {
+
+    private static final String COMPANY = "{\"sector\":\"Technology\",\"industry\":\"Internet\",\"ceo\":\"Sundar Pichai\","
+            + "\"url\":\"https://abc.xyz\",\"description\":\"Search\",\"exchange\":\"Nasdaq\",\"name\":\"Alphabet Inc.\","
+            + "\"tags\":[\"Technology\"],\"similar\":[\"MSFT\"]}";
+
+    private static final long UPSTREAM_DELAY_MILLIS = 300;
+
+    private HttpServer server;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/v1/meta/symbols/", exchange -> {
+            this.requests.incrementAndGet();
+            long delay = exchange.getRequestURI().getPath().contains("SLOW") ? 10 * UPSTREAM_DELAY_MILLIS : UPSTREAM_DELAY_MILLIS;
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = COMPANY.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            try {
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (IOException e) {
+                // client gave up waiting
+            }
+        });
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.start();
+    }
+
+    @After
+    public void tearDown() {
+        this.server.stop(0);
+    }
+
+    @Test
+    public void testConcurrentLookupsShareOneRequest() throws Exception {
+        StockTickerDetailsDaoJpa dao = createDao(5000);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<StockTickerDetails>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return dao.get("GOOG");
+            }));
+        }
+        start.countDown();
+        for (Future<StockTickerDetails> future : futures) {
+            StockTickerDetails details = future.get(10, TimeUnit.SECONDS);
+            Assert.assertNotNull(details);
+            Assert.assertEquals("Alphabet Inc.", details.getName());
+            Assert.assertEquals(257L, details.getSelection().getId().longValue());
+        }
+        executor.shutdown();
+        Assert.assertEquals(1, this.requests.get());
+
+        Assert.assertNotNull(dao.get("GOOG"));
+        Assert.assertEquals(1, this.requests.get());
+
+        dao.evict("GOOG");
+        Assert.assertNotNull(dao.get("GOOG"));
+        Assert.assertEquals(2, this.requests.get());
+    }
+
+    @Test
+    public void testSlowUpstreamTimesOut() {
+        StockTickerDetailsDaoJpa dao = createDao(500);
+        long start = System.currentTimeMillis();
+        Assert.assertNull(dao.get("SLOW"));
+        Assert.assertTrue(System.currentTimeMillis() - start < 10 * UPSTREAM_DELAY_MILLIS);
+
+        // failures are not cached
+        Assert.assertNull(dao.get("SLOW"));
+        Assert.assertEquals(2, this.requests.get());
+    }
+
+    private StockTickerDetailsDaoJpa createDao(int readTimeoutMillis) {
+        StockApiConfig config = new StockApiConfig();
+        config.setRootUrl("http://localhost:" + this.server.getAddress().getPort());
+        config.setConnectTimeoutMillis(500);
+        config.setReadTimeoutMillis(readTimeoutMillis);
+
+        StockTickerDetailsRepository repository = mock(StockTickerDetailsRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        when(repository.save(any(com.bulletjournal.templates.repository.model.StockTickerDetails.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[0]);
+
+        Choice choice = new Choice("Sector", false);
+        choice.setId(17L);
+        Selection selection = new Selection(choice, null, "Technology");
+        selection.setId(257L);
+        SelectionDaoJpa selectionDaoJpa = mock(SelectionDaoJpa.class);
+        when(selectionDaoJpa.getById(257L)).thenReturn(selection);
+
+        StockTickerDetailsDaoJpa dao = new StockTickerDetailsDaoJpa();
+        ReflectionTestUtils.setField(dao, "stockTickerDetailsRepository", repository);
+        ReflectionTestUtils.setField(dao, "selectionDaoJpa", selectionDaoJpa);
+        ReflectionTestUtils.setField(dao, "stockApiClient", new StockApiClient(config));
+        ReflectionTestUtils.setField(dao, "stockApiConfig", config);
+        dao.postConstruct();
+        return dao;
+    }
+}
@@ -0,0 +1,63 @@
+package com.bulletjournal.templates.workflow.engine;
+
+import com.bulletjournal.templates.repository.model.SampleTaskRule;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class SampleTaskRuleIndexTest {
+
+    // choice 1 has selections 11 and 12, choice 2 has 21 and 22, choice 3 has 31
+    private static final Map<Long, Long> SELECTION_CHOICES = new HashMap<>();
+
+    static {
+        SELECTION_CHOICES.put(11L, 1L);
+        SELECTION_CHOICES.put(12L, 1L);
+        SELECTION_CHOICES.put(21L, 2L);
+        SELECTION_CHOICES.put(22L, 2L);
+        SELECTION_CHOICES.put(31L, 3L);
+    }
+
+    private final SampleTaskRuleIndex index = SampleTaskRuleIndex.build(Arrays.asList(
+            new SampleTaskRule(null, "11", "1,2,3"),
+            new SampleTaskRule(null, "12", "4"),
+            // sample task 9 was deleted
+            new SampleTaskRule(null, "21", "2,3,4,9"),
+            new SampleTaskRule(null, "22", "5"),
+            new SampleTaskRule(null, "11,31", "7"),
+            // selection 99 doesn't exist
+            new SampleTaskRule(null, "99", "1")
+    ), SELECTION_CHOICES, new HashSet<>(Arrays.asList(1L, 2L, 3L, 4L, 5L, 7L)));
+
+    @Test
+    public void testUnionWithinChoice() {
+        Assert.assertEquals(ids(1L, 2L, 3L), this.index.getSampleTaskIds(ids(11L)));
+        Assert.assertEquals(ids(1L, 2L, 3L, 4L), this.index.getSampleTaskIds(ids(11L, 12L)));
+        Assert.assertEquals(ids(2L, 3L, 4L), this.index.getSampleTaskIds(ids(21L)));
+    }
+
+    @Test
+    public void testIntersectionBetweenChoices() {
+        Assert.assertEquals(ids(2L, 3L, 4L), this.index.getSampleTaskIds(ids(11L, 12L, 21L)));
+        Assert.assertEquals(ids(2L, 3L), this.index.getSampleTaskIds(ids(11L, 21L)));
+        Assert.assertEquals(ids(), this.index.getSampleTaskIds(ids(12L, 22L)));
+    }
+
+    @Test
+    public void testChoiceCombo() {
+        Assert.assertEquals(ids(7L), this.index.getSampleTaskIds(ids(11L, 31L)));
+        Assert.assertEquals(ids(), this.index.getSampleTaskIds(ids(11L, 22L, 31L)));
+    }
+
+    @Test
+    public void testNotApplicableSelections() {
+        Assert.assertEquals(ids(1L, 2L, 3L), this.index.getSampleTaskIds(ids(11L, 99L, 100L)));
+        Assert.assertEquals(ids(), this.index.getSampleTaskIds(ids(31L)));
+        Assert.assertEquals(ids(), this.index.getSampleTaskIds(ids()));
+    }
+
+    private static Set<Long> ids(Long... ids) {
+        return new HashSet<>(Arrays.asList(ids));
+    }
+}
@@ -0,0 +1,296 @@
+package com.bulletjournal.util;
+
+import com.bulletjournal.controller.models.BookingSlot;
+import com.bulletjournal.controller.models.RecurringSpan;
+import com.bulletjournal.controller.models.SlotEvent;
+import com.bulletjournal.controller.utils.ZonedDateTimeHelper;
+import com.bulletjournal.repository.models.Booking;
+import com.bulletjournal.repository.models.Task;
+import org.apache.commons.lang3.tuple.Pair;
+import org.dmfs.rfc5545.DateTime;
+import org.dmfs.rfc5545.recur.InvalidRecurrenceRuleException;
+import org.dmfs.rfc5545.recur.RecurrenceRuleIterator;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Tests {@link BookingUtil#calculateSlots} against the original slot-by-slot scan.
+ * <p>
+ * The latency run only happens with -Dbenchmark.booking=true.
+ * </p>
+ */
+public class BookingUtilTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BookingUtilTest.class);
+
+    private static final String[] TIMEZONES = {
+            "America/Los_Angeles", "America/Chicago", "Asia/Kolkata", "Australia/Lord_Howe", "UTC"};
+    private static final int[] SLOT_SPANS = {15, 20, 30, 45, 60, 90};
+    private static final DateTimeFormatter RRULE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    @Test
+    public void testParityWithSlotScan() {
+        Random random = new Random(20201019L);
+        for (int round = 0; round < 300; round++) {
+            String timezone = pick(random, TIMEZONES);
+            String requestTimezone = pick(random, TIMEZONES);
+            int slotSpan = SLOT_SPANS[random.nextInt(SLOT_SPANS.length)];
+            // cover both DST transitions of 2020
+            LocalDate start = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(330));
+            LocalDate end = start.plusDays(random.nextInt(35));
+            boolean includeTaskWithoutDuration = random.nextBoolean();
+            int beforeBuffer = random.nextInt(4) * 10;
+            int afterBuffer = random.nextInt(4) * 10;
+
+            List<Task> tasks = randomTasks(random, start, end, round);
+            String recurrences = BookingUtil.toString(randomRecurrences(random, start));
+            List<BookingSlot> overrides = randomSlots(random, start, end, slotSpan);
+            List<Booking> bookings = randomBookings(random, start, end, slotSpan);
+
+            List<BookingSlot> expected = scanSlots(timezone, requestTimezone, overrides,
+                    start.toString(), end.toString(), slotSpan, includeTaskWithoutDuration,
+                    beforeBuffer, afterBuffer, tasks, recurrences, bookings);
+            List<BookingSlot> actual = BookingUtil.calculateSlots(timezone, requestTimezone, overrides,
+                    start.toString(), end.toString(), slotSpan, includeTaskWithoutDuration,
+                    beforeBuffer, afterBuffer, tasks, recurrences, bookings);
+
+            Assert.assertEquals("round " + round, expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertSlotEquals("round " + round + " slot " + i, expected.get(i), actual.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testMonthOfQuarterHourSlots() {
+        Random random = new Random(1L);
+        LocalDate start = LocalDate.of(2020, 3, 1);
+        LocalDate end = LocalDate.of(2020, 3, 31);
+        List<Task> tasks = randomTasks(random, start, end, 0);
+        String recurrences = BookingUtil.toString(randomRecurrences(random, start));
+
+        List<BookingSlot> slots = BookingUtil.calculateSlots("America/Los_Angeles", "America/Chicago",
+                Collections.emptyList(), start.toString(), end.toString(), 15, true,
+                10, 10, tasks, recurrences, Collections.emptyList());
+        // one hour is lost to the DST switch on March 8th
+        Assert.assertEquals(31 * 96 - 4 - 1, slots.size());
+    }
+
+    @Test
+    public void testMonthOfQuarterHourSlotsLatency() {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark.booking"));
+        Random random = new Random(1L);
+        LocalDate start = LocalDate.of(2020, 3, 1);
+        LocalDate end = LocalDate.of(2020, 3, 31);
+        List<Task> tasks = randomTasks(random, start, end, 0);
+        String recurrences = BookingUtil.toString(randomRecurrences(random, start));
+
+        long elapsed = Long.MAX_VALUE;
+        for (int i = 0; i < 20; i++) {
+            long begin = System.nanoTime();
+            BookingUtil.calculateSlots("America/Los_Angeles", "America/Chicago",
+                    Collections.emptyList(), start.toString(), end.toString(), 15, true,
+                    10, 10, tasks, recurrences, Collections.emptyList());
+            elapsed = Math.min(elapsed, System.nanoTime() - begin);
+        }
+        LOGGER.info("calculateSlots for a month of 15 min slots took {}us", elapsed / 1000);
+    }
+
+    private static void assertSlotEquals(String message, BookingSlot expected, BookingSlot actual) {
+        Assert.assertEquals(message, expected.getIndex(), actual.getIndex());
+        Assert.assertEquals(message, expected.getDate(), actual.getDate());
+        Assert.assertEquals(message, expected.isOn(), actual.isOn());
+        Assert.assertEquals(message, expected.getStartTime(), actual.getStartTime());
+        Assert.assertEquals(message, expected.getEndTime(), actual.getEndTime());
+        Assert.assertEquals(message, expected.getDisplayDate(), actual.getDisplayDate());
+        Assert.assertEquals(message, expected.getBooking() == null ? null : expected.getBooking().getId(),
+                actual.getBooking() == null ? null : actual.getBooking().getId());
+        Assert.assertEquals(message, toTaskIds(expected.getEvents()), toTaskIds(actual.getEvents()));
+    }
+
+    private static List<Long> toTaskIds(List<SlotEvent> events) {
+        return events.stream().map(SlotEvent::getTaskId).collect(Collectors.toList());
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static List<Task> randomTasks(Random random, LocalDate start, LocalDate end, int round) {
+        List<Task> tasks = new ArrayList<>();
+        int days = (int) Duration.between(start.atStartOfDay(), end.atStartOfDay()).toDays() + 3;
+        int count = random.nextInt(40);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setId(round * 1000L + i);
+            task.setName("task" + i);
+            task.setDueDate(start.minusDays(1).plusDays(random.nextInt(days)).toString());
+            task.setDueTime(String.format("%02d:%02d", random.nextInt(24), random.nextInt(60)));
+            task.setTimezone(pick(random, TIMEZONES));
+            if (random.nextBoolean()) {
+                task.setDuration(random.nextInt(300));
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static List<RecurringSpan> randomRecurrences(Random random, LocalDate start) {
+        List<RecurringSpan> spans = new ArrayList<>();
+        int count = random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            String dtStart = start.minusDays(random.nextInt(60)).atTime(random.nextInt(24), random.nextInt(4) * 15)
+                    .format(RRULE_FORMATTER);
+            String rule = random.nextBoolean()
+                    ? "FREQ=DAILY;INTERVAL=" + (1 + random.nextInt(3))
+                    : "FREQ=WEEKLY;BYDAY=MO,WE,FR;INTERVAL=1";
+            spans.add(new RecurringSpan(15 + random.nextInt(240), "DTSTART:" + dtStart + "Z RRULE:" + rule));
+        }
+        return spans;
+    }
+
+    private static List<BookingSlot> randomSlots(Random random, LocalDate start, LocalDate end, int slotSpan) {
+        List<BookingSlot> slots = new ArrayList<>();
+        int days = (int) Duration.between(start.atStartOfDay(), end.atStartOfDay()).toDays() + 1;
+        int count = random.nextInt(20);
+        for (int i = 0; i < count; i++) {
+            BookingSlot slot = new BookingSlot();
+            slot.setDate(start.plusDays(random.nextInt(days)).toString());
+            slot.setIndex(random.nextInt(24 * 60 / slotSpan));
+            slot.setOn(random.nextBoolean());
+            slots.add(slot);
+        }
+        return slots;
+    }
+
+    private static List<Booking> randomBookings(Random random, LocalDate start, LocalDate end, int slotSpan) {
+        List<Booking> bookings = new ArrayList<>();
+        int days = (int) Duration.between(start.atStartOfDay(), end.atStartOfDay()).toDays() + 1;
+        int count = random.nextInt(10);
+        for (int i = 0; i < count; i++) {
+            Booking booking = new Booking();
+            booking.setId("booking" + i);
+            booking.setSlotDate(start.plusDays(random.nextInt(days)).toString());
+            booking.setSlotIndex(random.nextInt(24 * 60 / slotSpan));
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    /**
+     * The original implementation, scanning every task, recurrence, override and booking for each slot
+     */
+    private static List<BookingSlot> scanSlots(
+            String timezone, String requestTimezone,
+            List<BookingSlot> slotsOverride,
+            String startDate, String endDate, int slotSpan, boolean includeTaskWithoutDuration,
+            int beforeBuffer, int afterBuffer, List<Task> tasksBetween, String recurrences, List<Booking> bookings) {
+
+        List<RecurringSpan> recurringSpans = BookingUtil.toList(recurrences);
+        List<Pair<ZonedDateTime, ZonedDateTime>> recurringTimes = new ArrayList<>();
+        recurringSpans.forEach(s -> {
+            try {
+                DateTime startDateTime = ZonedDateTimeHelper.getDateTime(ZonedDateTimeHelper.getStartTime(startDate, null, timezone));
+                DateTime endDateTime = ZonedDateTimeHelper.getDateTime(ZonedDateTimeHelper.getEndTime(endDate, null, timezone));
+                BuJoRecurrenceRule rule = new BuJoRecurrenceRule(s.getRecurrenceRule(), timezone);
+                RecurrenceRuleIterator it = rule.getIterator();
+                while (it.hasNext()) {
+                    DateTime currDateTime = it.nextDateTime();
+                    if (currDateTime.after(endDateTime)) {
+                        break;
+                    }
+                    if (currDateTime.before(startDateTime)) {
+                        continue;
+                    }
+                    recurringTimes.add(Pair.of(ZonedDateTimeHelper.getZonedDateTime(currDateTime),
+                            ZonedDateTimeHelper.getZonedDateTime(currDateTime).plusMinutes(s.getDuration())));
+                }
+            } catch (InvalidRecurrenceRuleException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        if (!includeTaskWithoutDuration) {
+            tasksBetween = tasksBetween.stream().filter(t -> t.hasDuration()).collect(Collectors.toList());
+        }
+        Map<Task, Pair<ZonedDateTime, ZonedDateTime>> taskTimes = new HashMap<>();
+        tasksBetween.forEach(t -> taskTimes.put(t, Pair.of(
+                ZonedDateTimeHelper.getDateTimeInDifferentZone(t.getDueDate(), t.getDueTime(), t.getTimezone(), timezone).minusMinutes(beforeBuffer),
+                t.hasDuration() ? ZonedDateTimeHelper.getDateTimeInDifferentZone(t.getDueDate(), t.getDueTime(), t.getTimezone(), timezone)
+                        .plusMinutes(t.getDuration()).plusMinutes(afterBuffer)
+                        : ZonedDateTimeHelper.getDateTimeInDifferentZone(
+                        t.getDueDate(), t.getDueTime(), t.getTimezone(), timezone).plusMinutes(slotSpan).plusMinutes(afterBuffer)
+        )));
+
+        List<BookingSlot> slots = new ArrayList<>();
+        ZonedDateTime startTime = ZonedDateTimeHelper.getStartTime(startDate, null, timezone);
+        ZonedDateTime endTime = ZonedDateTimeHelper.getEndTime(endDate, null, timezone);
+
+        int durationMinutes = (int) Duration.between(startTime, endTime).toMinutes();
+        int slotsNumber = durationMinutes / slotSpan;
+        int totalIndexes = (24 * 60) / slotSpan;
+
+        for (int i = 0; i < slotsNumber; i++) {
+            ZonedDateTime startT = startTime.plusMinutes(i * slotSpan);
+            ZonedDateTime endT = startTime.plusMinutes((i + 1) * slotSpan);
+            String date = ZonedDateTimeHelper.getDate(startT);
+            int index = i % totalIndexes;
+            List<SlotEvent> slotEvents = new ArrayList<>();
+
+            BookingSlot bookingSlot = new BookingSlot();
+            bookingSlot.setIndex(index);
+            bookingSlot.setDate(date);
+            bookingSlot.setOn(true);
+            bookingSlot.setEvents(slotEvents);
+
+            ZonedDateTime displayStartTime = ZonedDateTimeHelper.getDateTimeInDifferentZone(ZonedDateTimeHelper.getDate(startT),
+                    ZonedDateTimeHelper.getTime(startT), timezone, requestTimezone);
+            ZonedDateTime displayEndTime = ZonedDateTimeHelper.getDateTimeInDifferentZone(ZonedDateTimeHelper.getDate(endT),
+                    ZonedDateTimeHelper.getTime(endT), timezone, requestTimezone);
+            bookingSlot.setStartTime(ZonedDateTimeHelper.getTime(displayStartTime));
+            bookingSlot.setEndTime(ZonedDateTimeHelper.getTime(displayEndTime));
+            bookingSlot.setDisplayDate(ZonedDateTimeHelper.getDate(displayStartTime));
+
+            List<Task> tasks = tasksBetween.stream().filter(t -> isBetweenSlot(taskTimes.get(t).getLeft(),
+                    taskTimes.get(t).getRight(), startT, endT)).collect(Collectors.toList());
+            if (tasks.size() > 0) {
+                bookingSlot.setOn(false);
+                for (Task t : tasks) {
+                    slotEvents.add(new SlotEvent(t.getName(), t.getId()));
+                }
+            }
+
+            if (recurringTimes.stream().anyMatch(r -> isBetweenSlot(r.getLeft(), r.getRight(), startT, endT))) {
+                bookingSlot.setOn(false);
+            }
+
+            Optional<BookingSlot> match = slotsOverride.stream().filter(s -> Objects.equals(s, bookingSlot)).findFirst();
+            match.ifPresent(slot -> bookingSlot.setOn(slot.isOn()));
+
+            if (bookings != null) {
+                Optional<Booking> existingBooking = bookings.stream().filter(
+                        b -> b.getSlotIndex() == index && b.getSlotDate().equals(date)).findAny();
+                if (existingBooking.isPresent()) {
+                    bookingSlot.setBooking(existingBooking.get().toPresentationModel());
+                    bookingSlot.setOn(false);
+                }
+            }
+            slots.add(bookingSlot);
+        }
+        return slots;
+    }
+
+    private static boolean isBetweenSlot(ZonedDateTime startTime, ZonedDateTime endTime, ZonedDateTime startT, ZonedDateTime endT) {
+        return startTime.compareTo(endT) < 0 && endTime.compareTo(startT) > 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.bulletjournal.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+/**
+ * Tests {@link KeywordMatcher} against a String.contains scan over every keyword
+ */
+public class KeywordMatcherTest {
+
+    @Test
+    public void testOverlappingKeywords() {
+        Map<String, Integer> keywords = new HashMap<>();
+        keywords.put("he", 1);
+        keywords.put("she", 2);
+        keywords.put("his", 3);
+        keywords.put("hers", 4);
+        KeywordMatcher<Integer> matcher = new KeywordMatcher<>(keywords);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList(1, 2, 4)), new HashSet<>(matcher.findAll("ushers")));
+        Assert.assertEquals(Optional.of(4), matcher.findLongest("ushers"));
+        Assert.assertEquals(Optional.of(3), matcher.findLongest("this"));
+        Assert.assertEquals(Optional.empty(), matcher.findLongest("abc"));
+        Assert.assertTrue(matcher.findAll(null).isEmpty());
+    }
+
+    @Test
+    public void testMetadataKeywords() {
+        Map<String, Long> keywords = new HashMap<>();
+        keywords.put("LEETCODE", 1L);
+        keywords.put("LEETCODE_EASY", 2L);
+        keywords.put("INVESTMENT_IPO_RECORD", 3L);
+        keywords.put("", 4L);
+        KeywordMatcher<Long> matcher = new KeywordMatcher<>(keywords);
+
+        Assert.assertEquals(Optional.of(2L), matcher.findLongest("LEETCODE_EASY,ARRAY"));
+        Assert.assertEquals(Optional.of(1L), matcher.findLongest("LEETCODE_MEDIUM"));
+        Assert.assertEquals(Optional.of(3L), matcher.findLongest("INVESTMENT_IPO_RECORD"));
+        Assert.assertEquals(Optional.empty(), matcher.findLongest("INVESTMENT"));
+    }
+
+    @Test
+    public void testRandomTexts() {
+        Random random = new Random(42);
+        Map<String, Integer> keywords = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            keywords.putIfAbsent(randomString(random, 1 + random.nextInt(6)), i);
+        }
+        KeywordMatcher<Integer> matcher = new KeywordMatcher<>(keywords);
+
+        for (int i = 0; i < 200; i++) {
+            String text = randomString(random, random.nextInt(100));
+            Set<Integer> expected = new HashSet<>();
+            int longest = 0;
+            for (Map.Entry<String, Integer> keyword : keywords.entrySet()) {
+                if (text.contains(keyword.getKey())) {
+                    expected.add(keyword.getValue());
+                    longest = Math.max(longest, keyword.getKey().length());
+                }
+            }
+            Assert.assertEquals(text, expected, new HashSet<>(matcher.findAll(text)));
+
+            Optional<Integer> found = matcher.findLongest(text);
+            Assert.assertEquals(text, expected.isEmpty(), !found.isPresent());
+            final int longestLength = longest;
+            found.ifPresent(v -> Assert.assertTrue(keywords.entrySet().stream().anyMatch(
+                    k -> k.getValue().equals(v) && k.getKey().length() == longestLength)));
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(4)));
+        }
+        return sb.toString();
+    }
+}